@@ -0,0 +1,100 @@
+package com.vings.words.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Word reads of the embedded storage: a row by key, a page of 100 rows and a whole category, with rows found
+ * in the memory-mapped index after a checkpoint or among records appended since.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddedTableBenchmark {
+
+    @Param({"1000", "10000"})
+    private int words;
+
+    @Param({"true", "false"})
+    private boolean checkpointed;
+
+    private final UUID category = UUID.randomUUID();
+
+    private Path root;
+
+    private EmbeddedStore store;
+
+    private EmbeddedTable<Word> table;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("embedded-benchmark");
+        store = EmbeddedStore.open(root, false);
+        table = new EmbeddedTable<>(store, new ObjectMapper(), Word.class, word -> new Object[]{word.getUser(), word.getCategory(), word.getWord()});
+        for (int i = 0; i < words; i++) {
+            table.put(new Word.WordBuilder("user1", category, "word" + i)
+                    .withAnswers(i % 120)
+                    .withTranslation(new HashSet<>(Arrays.asList("translation" + i, "meaning" + i)))
+                    .withSpeech(new Link("speech/word" + i, "https://s3-us-west-1.amazonaws.com/words-speech-bucket/word" + i))
+                    .withExamples(Collections.singleton(new Example("word" + i, Collections.singleton("definition of word" + i),
+                            Collections.singleton("A sentence with word" + i))))
+                    .build());
+        }
+        if (checkpointed) {
+            store.checkpoint(1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Word get() throws IOException {
+        return table.get("user1", category, "word" + ThreadLocalRandom.current().nextInt(words));
+    }
+
+    @Benchmark
+    public List<Word> page() throws IOException {
+        return table.slice(new Object[]{"user1", category}, new Object[]{"word" + ThreadLocalRandom.current().nextInt(words)}, 100);
+    }
+
+    @Benchmark
+    public List<Word> partition() throws IOException {
+        return table.partition("user1", category);
+    }
+}
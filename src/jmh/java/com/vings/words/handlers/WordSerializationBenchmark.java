@@ -0,0 +1,89 @@
+package com.vings.words.handlers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of enriched words with three examples each: Jackson writing the collected list against the chunked
+ * array written by {@link StreamResponses}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int categorySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StreamResponses streamResponses = new StreamResponses(objectMapper);
+
+    private List<Word> words;
+
+    @Setup
+    public void setUp() {
+        UUID category = UUID.randomUUID();
+        words = new ArrayList<>(categorySize);
+        for (int i = 0; i < categorySize; i++) {
+            String word = "word" + i;
+            words.add(new Word.WordBuilder("user1", category, word)
+                    .withAnswers(i % 100)
+                    .withTranslation(new HashSet<>(Arrays.asList("translation" + i, "meaning" + i)))
+                    .withImage(new Link(UUID.randomUUID().toString(), "https://s3-us-west-1.amazonaws.com/words-bucket/" + word))
+                    .withSpeech(new Link(UUID.randomUUID().toString(), "https://s3-us-west-1.amazonaws.com/words-speech-bucket/" + word))
+                    .withExamples(examples(word))
+                    .withEnrichment(EnrichmentStatus.DONE)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] objectMapperList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(words);
+    }
+
+    @Benchmark
+    public List<DataBuffer> streamResponsesChunks() {
+        return streamResponses.jsonArray(Flux.fromIterable(words)).collectList().block();
+    }
+
+    private Set<Example> examples(String word) {
+        Set<Example> examples = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            examples.add(new Example(word + i,
+                    new HashSet<>(Arrays.asList("a definition of " + word + " number " + i, "another definition of " + word)),
+                    new HashSet<>(Arrays.asList("A sentence which uses " + word + " in context.",
+                            "One more sentence with " + word + " to show its meaning.", "The last sentence about " + word + "."))));
+        }
+        return examples;
+    }
+}
@@ -0,0 +1,81 @@
+package com.vings.words.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vings.words.model.Example;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary response handling of {@link ExampleParser}: the {@code pearson/reactive.json} fixture with its results
+ * repeated up to the given count, streamed from raw bytes as the example client does, read into a tree and parsed,
+ * and parsed from a read tree. Run with {@code -prof gc} to compare allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExampleParserBenchmark {
+
+    @Param({"2", "10", "50"})
+    private int results;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExampleParser exampleParser = new ExampleParser();
+
+    private byte[] payload;
+
+    private JsonNode tree;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectNode response = (ObjectNode) objectMapper.readTree(
+                StreamUtils.copyToByteArray(new ClassPathResource("pearson/reactive.json").getInputStream()));
+        ArrayNode fixture = (ArrayNode) response.path("results");
+        ArrayNode repeated = objectMapper.createArrayNode();
+        for (int i = 0; i < results; i++) {
+            ObjectNode result = fixture.get(i % fixture.size()).deepCopy();
+            result.put("headword", result.path("headword").asText() + i);
+            repeated.add(result);
+        }
+        response.set("results", repeated);
+        response.put("count", results);
+        payload = objectMapper.writeValueAsBytes(response);
+        tree = objectMapper.readTree(payload);
+    }
+
+    @Benchmark
+    public Set<Example> streamingParse() throws IOException {
+        return exampleParser.parse(payload);
+    }
+
+    @Benchmark
+    public Set<Example> readTreeAndParse() throws IOException {
+        return exampleParser.parse(objectMapper.readTree(payload));
+    }
+
+    @Benchmark
+    public Set<Example> parse() {
+        return exampleParser.parse(tree);
+    }
+}
@@ -0,0 +1,84 @@
+package com.vings.words.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.Part;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save-path decoding of the {@code word} part: {@link MultipartParser} against the previous String decode followed by
+ * a per-request {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultipartParserBenchmark {
+
+    private static final byte[] WORD = ("{\"user\":\"user1\",\"category\":\"4bd70b80-4cd4-4aec-b6ae-de2ad44877cd\",\"word\":\"Reactive\","
+            + "\"answers\":16,\"translation\":[\"Реактив\",\"Реактивный\"],\"image\":null}").getBytes(StandardCharsets.UTF_8);
+
+    private final MultipartParser multipartParser = new MultipartParser(new ObjectMapper());
+
+    private final Part part = new BytesPart(WORD);
+
+    @Benchmark
+    public Word multipartParser() {
+        return multipartParser.parse(part, Word.class).block();
+    }
+
+    @Benchmark
+    public Word stringThenObjectMapper() throws IOException {
+        String data = StringDecoder.textPlainOnly().decodeToMono(part.content(), ResolvableType.forClass(Word.class),
+                MediaType.TEXT_PLAIN, Collections.emptyMap()).block();
+        return new ObjectMapper().readValue(data, Word.class);
+    }
+
+    private static class BytesPart implements Part {
+
+        private final DefaultDataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
+
+        private final byte[] bytes;
+
+        BytesPart(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public String name() {
+            return "word";
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.EMPTY;
+        }
+
+        @Override
+        public Flux<DataBuffer> content() {
+            return Flux.defer(() -> Flux.just(dataBufferFactory.wrap(bytes)));
+        }
+    }
+}
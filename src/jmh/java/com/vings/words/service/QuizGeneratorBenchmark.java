@@ -0,0 +1,97 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Word;
+import com.vings.words.model.WordByLearned;
+import com.vings.words.model.quiz.Guess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Guess page generation: {@link QuizGenerator} over a cached snapshot against the previous per-question copy and remove
+ * implementation over the category words, and the snapshot built on a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizGeneratorBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "10000", "100000"})
+    private int categorySize;
+
+    private List<Word> words;
+
+    private List<WordByLearned> rows;
+
+    private QuizSnapshot snapshot;
+
+    private final QuizGenerator quizGenerator = new QuizGenerator();
+
+    @Setup
+    public void setUp() {
+        UUID category = UUID.randomUUID();
+        words = new ArrayList<>(categorySize);
+        for (int i = 0; i < categorySize; i++) {
+            words.add(new Word.WordBuilder("user", category, "word" + i).withTranslation(singleton("translation" + i)).build());
+        }
+        rows = new ArrayList<>(categorySize);
+        for (Word word : words) {
+            rows.add(WordByLearned.of(word));
+        }
+        snapshot = QuizSnapshot.of(rows);
+    }
+
+    @Benchmark
+    public List<Guess> quizGenerator() {
+        return quizGenerator.guess(snapshot, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public QuizSnapshot snapshot() {
+        return QuizSnapshot.of(rows);
+    }
+
+    @Benchmark
+    public List<Guess> copyAndRemove() {
+        Set<String> allAnswers = words.stream().flatMap(word -> word.getTranslation().stream()).collect(Collectors.toSet());
+        List<Guess> questions = new ArrayList<>();
+        for (Word word : words.subList(0, PAGE_SIZE)) {
+            Set<String> answers = new HashSet<>();
+            List<String> wrongAnswers = allAnswers.stream().filter(answer -> !word.getTranslation().contains(answer)).collect(Collectors.toList());
+            Random random = new Random();
+            while (!wrongAnswers.isEmpty() && answers.size() < 3) {
+                int index = random.nextInt(wrongAnswers.size());
+                answers.add(wrongAnswers.get(index));
+                wrongAnswers.remove(index);
+            }
+            String correct = word.getTranslation().iterator().next();
+            answers.add(correct);
+            questions.add(new Guess(word.getWord(), answers, correct));
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,203 @@
+package com.vings.words.loadtest.driver;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.Word;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.web.reactive.function.BodyInserters.fromMultipartData;
+
+/**
+ * Seeds synthetic data once the server is up and offers save/list/quiz requests at a fixed rate. Requests are
+ * started on schedule whether or not earlier ones have completed (up to the in-flight limit), so the server
+ * can't slow the load down by answering slowly.
+ */
+@Component
+@Profile("loadtest")
+public class LoadDriver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final String[] QUIZZES = {"sprint", "guess", "crossword"};
+
+    @Value("${loadtest.traffic.rate}")
+    private int rate;
+
+    @Value("${loadtest.traffic.duration}")
+    private long duration;
+
+    @Value("${loadtest.traffic.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${loadtest.traffic.mix.save}")
+    private int saveWeight;
+
+    @Value("${loadtest.traffic.mix.list}")
+    private int listWeight;
+
+    @Value("${loadtest.traffic.mix.quiz}")
+    private int quizWeight;
+
+    @Value("${loadtest.traffic.list-limit}")
+    private int listLimit;
+
+    @Value("${loadtest.traffic.quiz-size}")
+    private int quizSize;
+
+    @Value("${loadtest.traffic.image-bytes}")
+    private int imageBytes;
+
+    @Value("${loadtest.data.seed}")
+    private long seed;
+
+    @Value("${loadtest.auth.user}")
+    private String authUser;
+
+    @Value("${loadtest.auth.password}")
+    private String authPassword;
+
+    @Value("${loadtest.exit}")
+    private boolean exit;
+
+    private final SyntheticData syntheticData;
+
+    private final ObjectMapper objectMapper;
+
+    private final Environment environment;
+
+    private final ApplicationContext applicationContext;
+
+    private final AtomicLong savedWords = new AtomicLong();
+
+    public LoadDriver(SyntheticData syntheticData, ObjectMapper objectMapper, Environment environment, ApplicationContext applicationContext) {
+        this.syntheticData = syntheticData;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.applicationContext = applicationContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        long seeding = System.nanoTime();
+        List<SyntheticData.Target> targets = syntheticData.seed(new Random(seed));
+        LOG.info("Seeded {} categories in {} ms", targets.size(), Duration.ofNanos(System.nanoTime() - seeding).toMillis());
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + environment.getProperty("local.server.port"))
+                .filter(ExchangeFilterFunctions.basicAuthentication(authUser, authPassword))
+                .build();
+        TrafficMix mix = new TrafficMix(saveWeight, listWeight, quizWeight);
+        LoadReport report = new LoadReport();
+        long period = Duration.ofSeconds(1).toNanos() / rate;
+        long requests = duration * rate / 1000;
+
+        LOG.info("Offering {} requests/s for {} ms", rate, duration);
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(period))
+                .take(requests)
+                .onBackpressureDrop(tick -> report.drop())
+                .flatMap(tick -> {
+                    long intended = start + tick * period;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    TrafficMix.Operation operation = mix.next(random);
+                    SyntheticData.Target target = targets.get(random.nextInt(targets.size()));
+                    return send(webClient, operation, target, random)
+                            .map(HttpStatus::is2xxSuccessful)
+                            .onErrorResume(e -> {
+                                LOG.debug("{} request failed", operation, e);
+                                return Mono.just(false);
+                            })
+                            .doOnNext(success -> report.record(operation, System.nanoTime() - intended, success));
+                }, maxInFlight)
+                .blockLast();
+        LOG.info("Load test finished:{}", report.format(System.nanoTime() - start));
+
+        if (exit) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private Mono<HttpStatus> send(WebClient webClient, TrafficMix.Operation operation, SyntheticData.Target target, Random random) {
+        switch (operation) {
+            case SAVE:
+                return webClient.post().uri("/dictionary/{user}", target.getUser())
+                        .body(fromMultipartData(saveParts(target)))
+                        .exchange()
+                        .flatMap(LoadDriver::drain);
+            case LIST:
+                return webClient.get().uri("/dictionary/{user}/{category}?limit={limit}", target.getUser(), target.getCategory(), listLimit)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .flatMap(LoadDriver::drain);
+            case QUIZ:
+                return webClient.get().uri("/quiz/{quiz}/{user}/{category}/{page}/{offset}", QUIZZES[random.nextInt(QUIZZES.length)],
+                        target.getUser(), target.getCategory(), 0, quizSize)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .flatMap(LoadDriver::drain);
+            default:
+                return Mono.error(new IllegalArgumentException("Unknown operation " + operation));
+        }
+    }
+
+    private MultiValueMap<String, HttpEntity<?>> saveParts(SyntheticData.Target target) {
+        Word word = new Word.WordBuilder(target.getUser(), target.getCategory(), "saved-" + savedWords.incrementAndGet())
+                .withTranslation(Collections.singleton("translation"))
+                .build();
+        MultiValueMap<String, HttpEntity<?>> parts = new LinkedMultiValueMap<>();
+        parts.add("word", part(json(word), MediaType.APPLICATION_JSON));
+        if (imageBytes > 0) {
+            parts.add("image", part(new byte[imageBytes], MediaType.IMAGE_PNG));
+        }
+        return parts;
+    }
+
+    private byte[] json(Word word) {
+        try {
+            return objectMapper.writeValueAsBytes(word);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't write " + word, e);
+        }
+    }
+
+    private static HttpEntity<byte[]> part(byte[] content, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        return new HttpEntity<>(content, headers);
+    }
+
+    private static Mono<HttpStatus> drain(ClientResponse response) {
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.just(response.statusCode()));
+    }
+}
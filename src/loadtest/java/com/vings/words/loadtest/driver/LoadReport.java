@@ -0,0 +1,64 @@
+package com.vings.words.loadtest.driver;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies per operation measured from the intended start of a request, so a stalled server shows up
+ * in the percentiles instead of lowering the offered rate.
+ */
+public class LoadReport {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<TrafficMix.Operation, Histogram> latencies = new EnumMap<>(TrafficMix.Operation.class);
+
+    private final Map<TrafficMix.Operation, LongAdder> errors = new EnumMap<>(TrafficMix.Operation.class);
+
+    private final LongAdder dropped = new LongAdder();
+
+    public LoadReport() {
+        for (TrafficMix.Operation operation : TrafficMix.Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(TrafficMix.Operation operation, long latencyNanos, boolean success) {
+        latencies.get(operation).recordValue(Math.min(latencyNanos, MAX_LATENCY));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * A request wasn't sent because the in-flight limit was reached.
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public String format(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%n%-6s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (TrafficMix.Operation operation : TrafficMix.Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            report.append(String.format("%-6s %9d %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", operation.name().toLowerCase(),
+                    histogram.getTotalCount(), errors.get(operation).sum(), histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue())));
+        }
+        report.append(String.format("dropped %d requests over the in-flight limit in %.1f s", dropped.sum(), seconds));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
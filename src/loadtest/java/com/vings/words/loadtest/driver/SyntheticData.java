@@ -0,0 +1,80 @@
+package com.vings.words.loadtest.driver;
+
+import com.vings.words.model.Category;
+import com.vings.words.model.Word;
+import com.vings.words.model.WordByLearned;
+import com.vings.words.repository.CategoryRepository;
+import com.vings.words.repository.WordByLearnedRepository;
+import com.vings.words.repository.WordsRepository;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds users with categories of words straight into the repositories, together with the learned index the quiz reads.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticData {
+
+    @Value("${loadtest.data.users}")
+    private int users;
+
+    @Value("${loadtest.data.categories}")
+    private int categories;
+
+    @Value("${loadtest.data.words}")
+    private int words;
+
+    private final CategoryRepository categoryRepository;
+
+    private final WordsRepository wordsRepository;
+
+    private final WordByLearnedRepository wordByLearnedRepository;
+
+    public SyntheticData(CategoryRepository categoryRepository, WordsRepository wordsRepository, WordByLearnedRepository wordByLearnedRepository) {
+        this.categoryRepository = categoryRepository;
+        this.wordsRepository = wordsRepository;
+        this.wordByLearnedRepository = wordByLearnedRepository;
+    }
+
+    public List<Target> seed(Random random) {
+        List<Target> targets = new ArrayList<>(users * categories);
+        for (int u = 0; u < users; u++) {
+            String user = "user-" + u;
+            for (int c = 0; c < categories; c++) {
+                Category category = new Category(user, "category-" + c);
+                List<Word> categoryWords = new ArrayList<>(words);
+                for (int w = 0; w < words; w++) {
+                    categoryWords.add(new Word.WordBuilder(user, category.getId(), "word-" + w)
+                            .withAnswers(random.nextInt(120))
+                            .withTranslation(new HashSet<>(Arrays.asList("translation-" + w, "meaning-" + w)))
+                            .build());
+                }
+                categoryRepository.save(category)
+                        .thenMany(wordsRepository.saveAll(categoryWords))
+                        .map(WordByLearned::of)
+                        .as(wordByLearnedRepository::saveAll)
+                        .blockLast();
+                targets.add(new Target(user, category.getId()));
+            }
+        }
+        return targets;
+    }
+
+    @Data
+    public static class Target {
+
+        private final String user;
+
+        private final UUID category;
+    }
+}
@@ -0,0 +1,36 @@
+package com.vings.words.loadtest.driver;
+
+import java.util.Random;
+
+/**
+ * Picks operations at random in proportion to their weights.
+ */
+public class TrafficMix {
+
+    public enum Operation {
+        SAVE, LIST, QUIZ
+    }
+
+    private final int[] weights;
+
+    private final int total;
+
+    public TrafficMix(int save, int list, int quiz) {
+        if (save < 0 || list < 0 || quiz < 0 || save + list + quiz == 0) {
+            throw new IllegalArgumentException("Traffic mix weights should be non-negative with a positive sum");
+        }
+        this.weights = new int[]{save, list, quiz};
+        this.total = save + list + quiz;
+    }
+
+    public Operation next(Random random) {
+        int pick = random.nextInt(total);
+        for (Operation operation : Operation.values()) {
+            pick -= weights[operation.ordinal()];
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights don't cover " + pick);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vings.words.loadtest.fake;
+
+import com.amazonaws.services.polly.AbstractAmazonPolly;
+import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
+import com.amazonaws.services.polly.model.SynthesizeSpeechResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocks the calling thread for the configured latency like the SDK client does and returns audio of the configured size.
+ */
+@Component
+@Profile("loadtest")
+public class LatencyPolly extends AbstractAmazonPolly {
+
+    @Value("${loadtest.polly.latency}")
+    private long latency;
+
+    @Value("${loadtest.polly.audio-bytes}")
+    private int audioBytes;
+
+    @Override
+    public SynthesizeSpeechResult synthesizeSpeech(SynthesizeSpeechRequest request) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(latency);
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] text = request.getText().getBytes(StandardCharsets.UTF_8);
+        byte[] audio = Arrays.copyOf(text, Math.max(audioBytes, text.length));
+        return new SynthesizeSpeechResult()
+                .withContentType("audio/mpeg")
+                .withAudioStream(new ByteArrayInputStream(audio));
+    }
+}
@@ -0,0 +1,81 @@
+package com.vings.words.loadtest.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pearson dictionary stand-in: answers every headword with a result of the configured number of senses
+ * after the configured latency.
+ */
+@Component
+@Profile("loadtest")
+public class StubPearson {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StubPearson.class);
+
+    @Value("${loadtest.pearson.port}")
+    private int port;
+
+    @Value("${loadtest.pearson.latency}")
+    private long latency;
+
+    @Value("${loadtest.pearson.senses}")
+    private int senses;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NettyContext server;
+
+    @PostConstruct
+    public void start() {
+        server = HttpServer.create(port).newHandler((request, response) -> {
+            List<String> headword = new QueryStringDecoder(request.uri()).parameters().get("headword");
+            String body = entries(headword == null ? "" : headword.get(0));
+            return response.header("Content-Type", "application/json")
+                    .sendString(Mono.delay(Duration.ofMillis(latency)).then(Mono.just(body)));
+        }).block();
+        LOG.info("Stub Pearson dictionary listens on {}", server.address());
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.dispose();
+    }
+
+    private String entries(String headword) {
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("status", 200)
+                .put("count", 1);
+        ObjectNode result = response.putArray("results").addObject()
+                .put("headword", headword)
+                .put("part_of_speech", "noun");
+        ArrayNode senseNodes = result.putArray("senses");
+        for (int i = 0; i < senses; i++) {
+            ObjectNode sense = senseNodes.addObject();
+            sense.putArray("definition").add("definition " + i + " of " + headword);
+            sense.putArray("examples").addObject().put("text", "Sentence " + i + " which uses " + headword + ".");
+        }
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException exp) {
+            throw Exceptions.propagate(exp);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.repository.BlobOutboxRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Rows are their own clustering keys, ordered by due date and id, and are handed out as copies, so a moved entry
+ * is found by the due date it was read with as the conditional batch does.
+ */
+@Repository
+@Profile("loadtest")
+public class InMemoryBlobOutboxRepository extends InMemoryRepository<BlobDeletion, BlobDeletion> implements BlobOutboxRepository {
+
+    public InMemoryBlobOutboxRepository() {
+        super(new InMemoryTable<>(BlobDeletion::getShard, Function.identity(),
+                Comparator.comparing(BlobDeletion::getDue).thenComparing(BlobDeletion::getId)));
+    }
+
+    @Override
+    public Flux<BlobDeletion> findDue(int shard, Date now, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(shard).values()))
+                .takeWhile(row -> !row.getDue().after(now))
+                .take(limit)
+                .map(this::copy);
+    }
+
+    @Override
+    public Mono<Boolean> move(BlobDeletion deletion, Date due) {
+        return Mono.fromCallable(() -> {
+            boolean moved = table.update(deletion.getShard(), deletion, row -> null);
+            if (moved) {
+                table.put(new BlobDeletion(deletion.getShard(), deletion.getId(), deletion.getBucket(), deletion.getKey(),
+                        deletion.getAttempts(), due));
+                deletion.setDue(due);
+            }
+            return moved;
+        });
+    }
+
+    @Override
+    public <S extends BlobDeletion> Mono<S> save(S entity) {
+        return Mono.fromCallable(() -> {
+            table.put(copy(entity));
+            return entity;
+        });
+    }
+
+    private BlobDeletion copy(BlobDeletion row) {
+        return new BlobDeletion(row.getShard(), row.getId(), row.getBucket(), row.getKey(), row.getAttempts(), row.getDue());
+    }
+}
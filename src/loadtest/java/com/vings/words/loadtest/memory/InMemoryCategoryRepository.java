@@ -0,0 +1,55 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.Category;
+import com.vings.words.model.Link;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.repository.CategoryRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+@Profile("loadtest")
+public class InMemoryCategoryRepository extends InMemoryRepository<Category, String> implements CategoryRepository {
+
+    private final BlobOutboxRepository blobOutboxRepository;
+
+    public InMemoryCategoryRepository(BlobOutboxRepository blobOutboxRepository) {
+        super(new InMemoryTable<>(Category::getUser, Category::getTitle, Comparator.naturalOrder()));
+        this.blobOutboxRepository = blobOutboxRepository;
+    }
+
+    @Override
+    public Flux<Category> findByUser(String user) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(user).values()));
+    }
+
+    @Override
+    public Mono<Category> findByUserAndTitle(String user, String title) {
+        return Mono.defer(() -> Mono.justOrEmpty(table.get(user, title)));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Category category) {
+        return Mono.fromCallable(() -> table.putIfAbsent(category));
+    }
+
+    @Override
+    public Mono<Boolean> delete(Category category, List<BlobDeletion> blobs) {
+        return delete(category).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Category category, Link image, List<BlobDeletion> blobs) {
+        return Mono.fromRunnable(() -> table.update(category.getUser(), category.getTitle(), row -> {
+            Category updated = new Category(row.getUser(), row.getTitle(), row.getId());
+            updated.setImage(image);
+            return updated;
+        })).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+}
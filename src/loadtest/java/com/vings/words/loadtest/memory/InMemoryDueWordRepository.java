@@ -0,0 +1,48 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.DueWord;
+import com.vings.words.repository.DueWordRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.vings.words.loadtest.memory.InMemoryTable.key;
+
+/**
+ * Rows are their own clustering keys, ordered by due date and word.
+ */
+@Repository
+@Profile("loadtest")
+public class InMemoryDueWordRepository extends InMemoryRepository<DueWord, DueWord> implements DueWordRepository {
+
+    public InMemoryDueWordRepository() {
+        super(new InMemoryTable<>(row -> key(row.getUser(), row.getCategory()), Function.identity(),
+                Comparator.comparing(DueWord::getDue).thenComparing(DueWord::getWord)));
+    }
+
+    @Override
+    public Flux<DueWord> findDue(String user, UUID category, Date now, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(key(user, category)).values()))
+                .takeWhile(row -> !row.getDue().after(now))
+                .take(limit);
+    }
+
+    @Override
+    public Mono<DueWord> deleteWord(String user, UUID category, Date due, String word) {
+        return Mono.fromRunnable(() -> table.remove(key(user, category), new DueWord(user, category, due, word, null)));
+    }
+
+    @Override
+    public Flux<DueWord> deleteByUserAndCategory(String user, UUID category) {
+        return Flux.defer(() -> {
+            table.removePartition(key(user, category));
+            return Flux.empty();
+        });
+    }
+}
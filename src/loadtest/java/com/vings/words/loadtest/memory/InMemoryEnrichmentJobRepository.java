@@ -0,0 +1,58 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.EnrichmentJob;
+import com.vings.words.repository.EnrichmentJobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Rows are their own clustering keys, ordered by due date and id, and are handed out as copies, so a moved job
+ * is found by the due date it was read with as the conditional batch does.
+ */
+@Repository
+@Profile("loadtest")
+public class InMemoryEnrichmentJobRepository extends InMemoryRepository<EnrichmentJob, EnrichmentJob> implements EnrichmentJobRepository {
+
+    public InMemoryEnrichmentJobRepository() {
+        super(new InMemoryTable<>(EnrichmentJob::getShard, Function.identity(),
+                Comparator.comparing(EnrichmentJob::getDue).thenComparing(EnrichmentJob::getId)));
+    }
+
+    @Override
+    public Flux<EnrichmentJob> findDue(int shard, Date now, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(shard).values()))
+                .takeWhile(row -> !row.getDue().after(now))
+                .take(limit)
+                .map(this::copy);
+    }
+
+    @Override
+    public Mono<Boolean> move(EnrichmentJob job, Date due) {
+        return Mono.fromCallable(() -> {
+            boolean moved = table.update(job.getShard(), job, row -> null);
+            if (moved) {
+                table.put(new EnrichmentJob(job.getShard(), job.getId(), job.getUser(), job.getCategory(), job.getWord(), job.getAttempts(), due));
+                job.setDue(due);
+            }
+            return moved;
+        });
+    }
+
+    @Override
+    public <S extends EnrichmentJob> Mono<S> save(S entity) {
+        return Mono.fromCallable(() -> {
+            table.put(copy(entity));
+            return entity;
+        });
+    }
+
+    private EnrichmentJob copy(EnrichmentJob row) {
+        return new EnrichmentJob(row.getShard(), row.getId(), row.getUser(), row.getCategory(), row.getWord(), row.getAttempts(), row.getDue());
+    }
+}
@@ -0,0 +1,17 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.ExampleByHeadword;
+import com.vings.words.repository.ExampleByHeadwordRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+
+@Repository
+@Profile("loadtest")
+public class InMemoryExampleByHeadwordRepository extends InMemoryRepository<ExampleByHeadword, String> implements ExampleByHeadwordRepository {
+
+    public InMemoryExampleByHeadwordRepository() {
+        super(new InMemoryTable<>(ExampleByHeadword::getHeadword, row -> "", Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.DueWord;
+import com.vings.words.model.Reschedule;
+import com.vings.words.model.ReviewState;
+import com.vings.words.repository.DueWordRepository;
+import com.vings.words.repository.ReviewStateRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.vings.words.loadtest.memory.InMemoryTable.key;
+
+@Repository
+@Profile("loadtest")
+public class InMemoryReviewStateRepository extends InMemoryRepository<ReviewState, String> implements ReviewStateRepository {
+
+    private final DueWordRepository dueWordRepository;
+
+    public InMemoryReviewStateRepository(DueWordRepository dueWordRepository) {
+        super(new InMemoryTable<>(row -> key(row.getUser(), row.getCategory()), ReviewState::getWord, Comparator.naturalOrder()));
+        this.dueWordRepository = dueWordRepository;
+    }
+
+    @Override
+    public Mono<ReviewState> findByUserAndCategoryAndWord(String user, UUID category, String word) {
+        return Mono.defer(() -> Mono.justOrEmpty(table.get(key(user, category), word)));
+    }
+
+    @Override
+    public Flux<ReviewState> findByWords(String user, UUID category, List<String> words) {
+        return Flux.defer(() -> Flux.fromStream(words.stream().map(word -> table.get(key(user, category), word)).filter(Objects::nonNull)));
+    }
+
+    @Override
+    public Flux<ReviewState> deleteByUserAndCategory(String user, UUID category) {
+        return Flux.defer(() -> {
+            table.removePartition(key(user, category));
+            return Flux.empty();
+        });
+    }
+
+    @Override
+    public Flux<Reschedule> reschedule(List<Reschedule> reschedules) {
+        return Flux.fromIterable(reschedules)
+                .filterWhen(this::writeState)
+                .concatMap(reschedule -> {
+                    ReviewState state = reschedule.getState();
+                    Mono<DueWord> previous = reschedule.getPreviousDue() == null || reschedule.getPreviousDue().equals(state.getDue()) ? Mono.empty()
+                            : dueWordRepository.deleteWord(state.getUser(), state.getCategory(), reschedule.getPreviousDue(), state.getWord());
+                    return previous
+                            .then(dueWordRepository.save(new DueWord(state.getUser(), state.getCategory(), state.getDue(), state.getWord(),
+                                    reschedule.getTranslation())))
+                            .then(Mono.just(reschedule));
+                });
+    }
+
+    private Mono<Boolean> writeState(Reschedule reschedule) {
+        ReviewState state = reschedule.getState();
+        return Mono.fromCallable(() -> reschedule.getPreviousDue() == null ? table.putIfAbsent(state)
+                : table.update(key(state.getUser(), state.getCategory()), state.getWord(),
+                        current -> reschedule.getPreviousDue().equals(current.getDue()), current -> state));
+    }
+}
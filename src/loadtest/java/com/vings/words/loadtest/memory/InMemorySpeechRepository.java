@@ -0,0 +1,36 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.Speech;
+import com.vings.words.repository.SpeechRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+
+@Repository
+@Profile("loadtest")
+public class InMemorySpeechRepository extends InMemoryRepository<Speech, String> implements SpeechRepository {
+
+    private static final String ROW = "";
+
+    public InMemorySpeechRepository() {
+        super(new InMemoryTable<>(Speech::getHash, speech -> ROW, Comparator.naturalOrder()));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Speech speech) {
+        return Mono.fromCallable(() -> table.putIfAbsent(speech));
+    }
+
+    @Override
+    public Mono<Boolean> updateRefs(String hash, int expectedRefs, int refs) {
+        return Mono.fromCallable(() -> table.update(hash, ROW, row -> row.getRefs() == expectedRefs,
+                row -> new Speech(row.getHash(), row.getLink(), refs)));
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfRefs(String hash, int expectedRefs) {
+        return Mono.fromCallable(() -> table.update(hash, ROW, row -> row.getRefs() == expectedRefs, row -> null));
+    }
+}
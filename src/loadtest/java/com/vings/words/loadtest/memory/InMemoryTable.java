@@ -0,0 +1,116 @@
+package com.vings.words.loadtest.memory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Rows of one table: partitions by partition key, rows of a partition ordered by clustering key.
+ * Conditional updates of a partition are serialized like lightweight transactions.
+ */
+public class InMemoryTable<T, K> {
+
+    private final Function<T, Object> partitionKey;
+
+    private final Function<T, K> clusteringKey;
+
+    private final Comparator<? super K> clusteringOrder;
+
+    private final ConcurrentMap<Object, ConcurrentNavigableMap<K, T>> partitions = new ConcurrentHashMap<>();
+
+    public InMemoryTable(Function<T, Object> partitionKey, Function<T, K> clusteringKey, Comparator<? super K> clusteringOrder) {
+        this.partitionKey = partitionKey;
+        this.clusteringKey = clusteringKey;
+        this.clusteringOrder = clusteringOrder;
+    }
+
+    public static Object key(Object... columns) {
+        return Arrays.asList(columns);
+    }
+
+    public void put(T row) {
+        partitionOf(partitionKey.apply(row)).put(clusteringKey.apply(row), row);
+    }
+
+    public boolean putIfAbsent(T row) {
+        ConcurrentNavigableMap<K, T> rows = partitionOf(partitionKey.apply(row));
+        synchronized (rows) {
+            return rows.putIfAbsent(clusteringKey.apply(row), row) == null;
+        }
+    }
+
+    public T get(Object partition, K clustering) {
+        return partition(partition).get(clustering);
+    }
+
+    public NavigableMap<K, T> partition(Object partition) {
+        NavigableMap<K, T> rows = partitions.get(partition);
+        return rows == null ? Collections.emptyNavigableMap() : rows;
+    }
+
+    /**
+     * Replaces an existing row matching the condition, an update returning null deletes the row.
+     *
+     * @return false when the row is absent or doesn't match
+     */
+    public boolean update(Object partition, K clustering, Predicate<T> condition, UnaryOperator<T> update) {
+        ConcurrentNavigableMap<K, T> rows = partitions.get(partition);
+        if (rows == null) {
+            return false;
+        }
+        synchronized (rows) {
+            T current = rows.get(clustering);
+            if (current == null || !condition.test(current)) {
+                return false;
+            }
+            T updated = update.apply(current);
+            if (updated == null) {
+                rows.remove(clustering);
+            } else {
+                rows.put(clustering, updated);
+            }
+            return true;
+        }
+    }
+
+    public boolean update(Object partition, K clustering, UnaryOperator<T> update) {
+        return update(partition, clustering, row -> true, update);
+    }
+
+    public void remove(Object partition, K clustering) {
+        partition(partition).remove(clustering);
+    }
+
+    public void remove(T row) {
+        remove(partitionKey.apply(row), clusteringKey.apply(row));
+    }
+
+    public void removePartition(Object partition) {
+        partitions.remove(partition);
+    }
+
+    public Stream<T> rows() {
+        return partitions.values().stream().flatMap(rows -> rows.values().stream());
+    }
+
+    public long size() {
+        return partitions.values().stream().mapToLong(NavigableMap::size).sum();
+    }
+
+    public void clear() {
+        partitions.clear();
+    }
+
+    private ConcurrentNavigableMap<K, T> partitionOf(Object partition) {
+        return partitions.computeIfAbsent(partition, key -> new ConcurrentSkipListMap<>(clusteringOrder));
+    }
+}
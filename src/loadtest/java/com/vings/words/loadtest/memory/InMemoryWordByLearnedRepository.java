@@ -0,0 +1,75 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.WordByLearned;
+import com.vings.words.repository.WordByLearnedRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.vings.words.loadtest.memory.InMemoryTable.key;
+
+@Repository
+@Profile("loadtest")
+public class InMemoryWordByLearnedRepository extends InMemoryRepository<WordByLearned, String> implements WordByLearnedRepository {
+
+    public InMemoryWordByLearnedRepository() {
+        super(new InMemoryTable<>(row -> key(row.getUser(), row.getCategory(), row.isLearned()), WordByLearned::getWord, Comparator.naturalOrder()));
+    }
+
+    @Override
+    public Flux<WordByLearned> findByUserAndCategoryAndLearned(String user, UUID category, boolean learned) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(key(user, category, learned)).values()));
+    }
+
+    @Override
+    public Mono<Boolean> addTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return retranslate(user, category, learned, word, current -> {
+            current.addAll(translation);
+            return current;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> deleteTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return retranslate(user, category, learned, word, current -> {
+            current.removeAll(translation);
+            return current;
+        });
+    }
+
+    @Override
+    public Mono<WordByLearned> deleteWord(String user, UUID category, boolean learned, String word) {
+        return Mono.fromRunnable(() -> table.remove(key(user, category, learned), word));
+    }
+
+    @Override
+    public Flux<WordByLearned> deleteByUserAndCategory(String user, UUID category) {
+        return Flux.defer(() -> {
+            table.removePartition(key(user, category, true));
+            table.removePartition(key(user, category, false));
+            return Flux.empty();
+        });
+    }
+
+    @Override
+    public Mono<Void> reindex(String user, UUID category, List<WordByLearned> rows) {
+        return Mono.fromRunnable(() -> rows.forEach(row -> {
+            table.put(row);
+            table.remove(key(user, category, !row.isLearned()), row.getWord());
+        }));
+    }
+
+    private Mono<Boolean> retranslate(String user, UUID category, boolean learned, String word, Function<Set<String>, Set<String>> update) {
+        return Mono.fromCallable(() -> table.update(key(user, category, learned), word, row -> new WordByLearned(row.getUser(), row.getCategory(),
+                row.isLearned(), row.getWord(), row.getAnswers(),
+                update.apply(row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation())))));
+    }
+}
@@ -0,0 +1,138 @@
+package com.vings.words.loadtest.memory;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.repository.WordsRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static com.vings.words.loadtest.memory.InMemoryTable.key;
+
+@Repository
+@Profile("loadtest")
+public class InMemoryWordsRepository extends InMemoryRepository<Word, String> implements WordsRepository {
+
+    private final BlobOutboxRepository blobOutboxRepository;
+
+    public InMemoryWordsRepository(BlobOutboxRepository blobOutboxRepository) {
+        super(new InMemoryTable<>(word -> key(word.getUser(), word.getCategory()), Word::getWord, Comparator.naturalOrder()));
+        this.blobOutboxRepository = blobOutboxRepository;
+    }
+
+    @Override
+    public Flux<Word> findByUserAndCategory(String user, UUID category) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(key(user, category)).values()));
+    }
+
+    @Override
+    public Flux<Word> findPage(String user, UUID category, String after, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(table.partition(key(user, category)).tailMap(after, false).values()).take(limit));
+    }
+
+    @Override
+    public Flux<Word> findByWords(String user, UUID category, List<String> words) {
+        return Flux.defer(() -> Flux.fromStream(words.stream().map(word -> table.get(key(user, category), word)).filter(Objects::nonNull)));
+    }
+
+    @Override
+    public Mono<Word> findByUserAndCategoryAndWord(String user, UUID category, String word) {
+        return Mono.defer(() -> Mono.justOrEmpty(table.get(key(user, category), word)));
+    }
+
+    @Override
+    public Mono<Word> addTranslation(String user, UUID category, String word, Set<String> translation) {
+        return update(user, category, word, row -> {
+            Set<String> updated = row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation());
+            updated.addAll(translation);
+            return copy(row).withTranslation(updated).build();
+        });
+    }
+
+    @Override
+    public Mono<Word> deleteTranslation(String user, UUID category, String word, Set<String> translation) {
+        return update(user, category, word, row -> {
+            Set<String> updated = row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation());
+            updated.removeAll(translation);
+            return copy(row).withTranslation(updated).build();
+        });
+    }
+
+    @Override
+    public Mono<Boolean> enrich(String user, UUID category, String word, Link speech, Set<Example> examples, EnrichmentStatus enrichment) {
+        return Mono.fromCallable(() -> table.update(key(user, category), word,
+                row -> copy(row).withSpeech(speech).withExamples(examples).withEnrichment(enrichment).build()));
+    }
+
+    @Override
+    public Mono<Boolean> updateEnrichment(String user, UUID category, String word, EnrichmentStatus enrichment) {
+        return Mono.fromCallable(() -> table.update(key(user, category), word, row -> copy(row).withEnrichment(enrichment).build()));
+    }
+
+    @Override
+    public Mono<Void> deleteByUserAndCategory(String user, UUID category) {
+        return Mono.fromRunnable(() -> table.removePartition(key(user, category)));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Word word) {
+        return Mono.fromCallable(() -> table.putIfAbsent(word));
+    }
+
+    @Override
+    public Mono<Set<String>> updateAnswers(String user, UUID category, Map<String, Integer> previous, Map<String, Integer> answers) {
+        return Mono.fromCallable(() -> answers.entrySet().stream()
+                .filter(answer -> table.update(key(user, category), answer.getKey(), row -> previous.get(answer.getKey()).equals(row.getAnswers()),
+                        row -> copy(row).withAnswers(answer.getValue()).build()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public Mono<Boolean> delete(Word word, List<BlobDeletion> blobs) {
+        return delete(word).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> deleteAll(List<Word> words, List<BlobDeletion> blobs) {
+        return deleteAll(words).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Word word, Link image, List<BlobDeletion> blobs) {
+        return update(word.getUser(), word.getCategory(), word.getWord(), row -> copy(row).withImage(image).build())
+                .then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    /**
+     * Updates complete without a row, as the mapped update statements do.
+     */
+    private Mono<Word> update(String user, UUID category, String word, UnaryOperator<Word> update) {
+        return Mono.fromRunnable(() -> table.update(key(user, category), word, update));
+    }
+
+    private static Word.WordBuilder copy(Word word) {
+        return new Word.WordBuilder(word.getUser(), word.getCategory(), word.getWord())
+                .withAnswers(word.getAnswers())
+                .withTranslation(word.getTranslation())
+                .withImage(word.getImage())
+                .withSpeech(word.getSpeech())
+                .withExamples(word.getExamples())
+                .withEnrichment(word.getEnrichment());
+    }
+}
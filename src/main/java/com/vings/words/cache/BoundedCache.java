@@ -0,0 +1,159 @@
+package com.vings.words.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size and TTL bounded LRU cache in front of a reactive loader.
+ * Concurrent misses of the same key share a single in-flight load, failed loads are not cached.
+ * Loads started before an invalidation are served to their subscribers but not stored.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maximumSize;
+
+    private final long ttl;
+
+    private final Clock clock;
+
+    private final Map<K, Entry<V>> entries;
+
+    private final ConcurrentMap<K, Mono<V>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    private final Counter expirations;
+
+    public BoundedCache(String name, int maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maximumSize, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    BoundedCache(String name, int maximumSize, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.maximumSize = maximumSize;
+        this.ttl = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > BoundedCache.this.maximumSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+        this.hits = meterRegistry.counter(name + ".cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter(name + ".cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter(name + ".cache.evictions", "cause", "size");
+        this.expirations = meterRegistry.counter(name + ".cache.evictions", "cause", "expired");
+        meterRegistry.gauge(name + ".cache.size", this, BoundedCache::size);
+        meterRegistry.gauge(name + ".cache.hit.ratio", this, BoundedCache::hitRatio);
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            return loading.computeIfAbsent(key, k -> load(k, loader));
+        });
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        loading.remove(key);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public long weigh(ToLongFunction<V> weigher) {
+        synchronized (entries) {
+            long weight = 0;
+            for (Entry<V> entry : entries.values()) {
+                weight += weigher.applyAsLong(entry.value);
+            }
+            return weight;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+
+    private Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        long epoch = invalidations.get();
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> load = loader.apply(key)
+                .doOnNext(value -> {
+                    if (invalidations.get() == epoch) {
+                        put(key, value);
+                    }
+                })
+                .doFinally(signal -> loading.remove(key, self.get()))
+                .cache();
+        self.set(load);
+        return load;
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, clock.millis() + ttl));
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -4,19 +4,71 @@ import com.amazonaws.services.polly.AmazonPolly;
 import com.amazonaws.services.polly.AmazonPollyClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.vings.words.metrics.TimedProxy;
+import com.vings.words.storage.LocalMediaStore;
+import com.vings.words.storage.MediaStore;
+import com.vings.words.storage.S3MediaStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AmazonConfiguration {
 
+    @Value("${s3.url}")
+    private String wordsServerUrl;
+
+    @Value("${media.threads}")
+    private int mediaThreads;
+
+    @Value("${media.part.size}")
+    private int partSize;
+
+    @Value("${media.delete.concurrency}")
+    private int deleteConcurrency;
+
+    @Value("${media.local.root}")
+    private String localRoot;
+
+    /**
+     * Operations are timed as {@code s3.requests{method, outcome}}.
+     */
+    @Bean
+    @Profile("!local")
+    public AmazonS3 s3Client(MeterRegistry meterRegistry) {
+        return TimedProxy.of(AmazonS3.class, AmazonS3ClientBuilder.standard().build(), meterRegistry, "s3.requests", Tags.empty());
+    }
+
+    /**
+     * Operations are timed as {@code polly.requests{method, outcome}}.
+     */
     @Bean
-    public AmazonS3 s3Client() {
-        return AmazonS3ClientBuilder.standard().build();
+    @Profile("!loadtest")
+    public AmazonPolly pollyClient(MeterRegistry meterRegistry) {
+        return TimedProxy.of(AmazonPolly.class, AmazonPollyClientBuilder.standard().build(), meterRegistry, "polly.requests", Tags.empty());
     }
 
     @Bean
-    public AmazonPolly pollyClient() {
-        return AmazonPollyClientBuilder.standard().build();
+    @Profile("!local")
+    public MediaStore s3MediaStore(AmazonS3 s3Client) {
+        return new S3MediaStore(s3Client, mediaScheduler(), wordsServerUrl, partSize, deleteConcurrency);
+    }
+
+    @Bean
+    @Profile("local")
+    public MediaStore localMediaStore() {
+        return new LocalMediaStore(Paths.get(localRoot), mediaScheduler());
+    }
+
+    private Scheduler mediaScheduler() {
+        return Schedulers.fromExecutorService(Executors.newFixedThreadPool(mediaThreads));
     }
 }
@@ -1,6 +1,12 @@
 package com.vings.words.config;
 
+import com.datastax.driver.core.HostDistance;
+import com.datastax.driver.core.PoolingOptions;
+import com.datastax.driver.core.policies.ConstantSpeculativeExecutionPolicy;
+import com.datastax.driver.core.policies.DCAwareRoundRobinPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.cassandra.config.AbstractCassandraConfiguration;
@@ -9,22 +15,64 @@ import org.springframework.data.cassandra.core.mapping.CassandraMappingContext;
 import org.springframework.data.cassandra.core.mapping.SimpleUserTypeResolver;
 
 @Configuration
+@ConditionalOnProperty(name = "cassandra.enabled", matchIfMissing = true)
 public class CassandraConfiguration extends AbstractCassandraConfiguration {
 
     @Value("${cassandra.keyspace}")
     private String keyspace;
 
+    @Value("${cassandra.contact-points}")
+    private String contactPoints;
+
+    @Value("${cassandra.port}")
+    private int port;
+
+    @Value("${cassandra.local-dc}")
+    private String localDc;
+
+    @Value("${cassandra.pool.local.core}")
+    private int localCoreConnections;
+
+    @Value("${cassandra.pool.local.max}")
+    private int localMaxConnections;
+
+    @Value("${cassandra.pool.remote.core}")
+    private int remoteCoreConnections;
+
+    @Value("${cassandra.pool.remote.max}")
+    private int remoteMaxConnections;
+
+    @Value("${cassandra.pool.requests-per-connection}")
+    private int requestsPerConnection;
+
+    @Value("${cassandra.speculative.delay}")
+    private long speculativeDelay;
+
+    @Value("${cassandra.speculative.executions}")
+    private int speculativeExecutions;
+
     @Override
     protected String getKeyspaceName() {
         return keyspace;
     }
 
+    /**
+     * Requests go to a replica of the local data center owning the partition. Statements marked idempotent
+     * are sent to the next replica as well when the first one doesn't answer within the speculative delay.
+     */
     @Bean
     public CassandraClusterFactoryBean cluster() {
         CassandraClusterFactoryBean cluster =
                 new CassandraClusterFactoryBean();
-        cluster.setContactPoints("127.0.0.1");
-        cluster.setPort(9042);
+        cluster.setContactPoints(contactPoints);
+        cluster.setPort(port);
+        cluster.setLoadBalancingPolicy(new TokenAwarePolicy(DCAwareRoundRobinPolicy.builder().withLocalDc(localDc).build()));
+        cluster.setPoolingOptions(new PoolingOptions()
+                .setConnectionsPerHost(HostDistance.LOCAL, localCoreConnections, localMaxConnections)
+                .setConnectionsPerHost(HostDistance.REMOTE, remoteCoreConnections, remoteMaxConnections)
+                .setMaxRequestsPerConnection(HostDistance.LOCAL, requestsPerConnection)
+                .setMaxRequestsPerConnection(HostDistance.REMOTE, requestsPerConnection));
+        cluster.setSpeculativeExecutionPolicy(new ConstantSpeculativeExecutionPolicy(speculativeDelay, speculativeExecutions));
         return cluster;
     }
 
@@ -1,15 +1,68 @@
 package com.vings.words.config;
 
+import com.vings.words.cache.BoundedCache;
+import com.vings.words.model.Example;
+import com.vings.words.service.QuizSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.ipc.netty.resources.PoolResources;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WordConfiguration {
 
+    @Value("${example.dictionary.timeout.connect}")
+    private int connectTimeout;
+
+    @Value("${example.dictionary.timeout.read}")
+    private long readTimeout;
+
+    @Value("${example.dictionary.pool.connections}")
+    private int maxConnections;
+
+    @Value("${example.dictionary.pool.acquire}")
+    private long acquireTimeout;
+
+    @Value("${example.cache.size}")
+    private int exampleCacheSize;
+
+    @Value("${example.cache.ttl}")
+    private long exampleCacheTtl;
+
+    @Bean
+    public BoundedCache<String, Set<Example>> exampleCache(MeterRegistry meterRegistry) {
+        return new BoundedCache<>("examples", exampleCacheSize, Duration.ofMillis(exampleCacheTtl), meterRegistry);
+    }
+
+    @Value("${quiz.snapshot.size}")
+    private int quizSnapshotSize;
+
+    @Value("${quiz.snapshot.ttl}")
+    private long quizSnapshotTtl;
+
+    @Bean
+    public BoundedCache<String, QuizSnapshot> quizSnapshotCache(MeterRegistry meterRegistry) {
+        BoundedCache<String, QuizSnapshot> cache = new BoundedCache<>("quiz.snapshot", quizSnapshotSize, Duration.ofMillis(quizSnapshotTtl), meterRegistry);
+        meterRegistry.gauge("quiz.snapshot.footprint", cache, snapshots -> snapshots.weigh(QuizSnapshot::footprint));
+        return cache;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public WebClient exampleWebClient() {
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(options -> options
+                .poolResources(PoolResources.fixed("examples", maxConnections, acquireTimeout))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .afterNettyContextInit(context -> context.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS))));
+        return WebClient.builder().clientConnector(connector).build();
     }
 
 }
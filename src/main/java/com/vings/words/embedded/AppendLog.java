@@ -0,0 +1,188 @@
+package com.vings.words.embedded;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of put and delete records. A record is its body length, the CRC32 of the body and the body:
+ * operation, key length, key and value. Appends are serialized by the owning store, reads may run concurrently.
+ */
+class AppendLog implements Closeable {
+
+    static final byte DELETE = 0;
+
+    static final byte PUT = 1;
+
+    private static final int HEADER = 8;
+
+    private static final int READ_AHEAD = 1024;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private volatile long size;
+
+    private AppendLog(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    static AppendLog open(Path path) throws IOException {
+        return new AppendLog(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return offset of the record
+     */
+    long append(byte operation, byte[] key, byte[] value) throws IOException {
+        int length = 1 + 4 + key.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+        record.putInt(length).putInt(0).put(operation).putInt(key.length).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER, length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        long offset = size;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        size = position;
+        return offset;
+    }
+
+    Record read(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_AHEAD, size - offset));
+        readFully(buffer, offset);
+        int length = buffer.getInt(0);
+        if (HEADER + length > buffer.capacity()) {
+            ByteBuffer whole = ByteBuffer.allocate(HEADER + length);
+            buffer.flip();
+            whole.put(buffer);
+            readFully(whole, offset);
+            buffer = whole;
+        }
+        return Record.decode(offset, buffer.array(), HEADER, length);
+    }
+
+    /**
+     * Copies records of another log from the given position to its end.
+     */
+    void copy(AppendLog source, long from) throws IOException {
+        long end = source.size;
+        long position = from;
+        while (position < end) {
+            position += source.channel.transferTo(position, end - position, channel.position(size + position - from));
+        }
+        size += end - from;
+    }
+
+    /**
+     * Reads records from the given position to the end of the log. The log is truncated at the first torn or corrupt
+     * record, which is what an interrupted append leaves behind.
+     *
+     * @return bytes truncated
+     */
+    long replay(long from, RecordHandler handler) throws IOException {
+        long position = from;
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(from)), 64 * 1024));
+        while (position < size) {
+            int length;
+            byte[] body;
+            try {
+                length = input.readInt();
+                int checksum = input.readInt();
+                if (length < 5 || position + HEADER + length > size) {
+                    break;
+                }
+                body = new byte[length];
+                input.readFully(body);
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            handler.handle(Record.decode(position, body, 0, length));
+            position += HEADER + length;
+        }
+        long truncated = size - position;
+        if (truncated > 0) {
+            channel.truncate(position);
+            size = position;
+        }
+        return truncated;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Record at " + offset + " is cut short");
+            }
+        }
+    }
+
+    interface RecordHandler {
+
+        void handle(Record record) throws IOException;
+    }
+
+    static final class Record {
+
+        final long offset;
+
+        final byte operation;
+
+        final byte[] key;
+
+        final byte[] value;
+
+        private Record(long offset, byte operation, byte[] key, byte[] value) {
+            this.offset = offset;
+            this.operation = operation;
+            this.key = key;
+            this.value = value;
+        }
+
+        private static Record decode(long offset, byte[] bytes, int from, int length) {
+            ByteBuffer body = ByteBuffer.wrap(bytes, from, length);
+            byte operation = body.get();
+            byte[] key = new byte[body.getInt()];
+            body.get(key);
+            byte[] value = new byte[body.remaining()];
+            body.get(value);
+            return new Record(offset, operation, key, value);
+        }
+    }
+}
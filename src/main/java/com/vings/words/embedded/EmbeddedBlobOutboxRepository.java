@@ -0,0 +1,41 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.repository.BlobOutboxRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * Rows of a shard are ordered by due date and id.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedBlobOutboxRepository extends EmbeddedRepository<BlobDeletion> implements BlobOutboxRepository {
+
+    public EmbeddedBlobOutboxRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("blob_outbox", BlobDeletion.class, row -> new Object[]{row.getShard(), row.getDue(), row.getId()}));
+    }
+
+    @Override
+    public Flux<BlobDeletion> findDue(int shard, Date now, int limit) {
+        return many(() -> table.slice(new Object[]{shard}, null, limit))
+                .takeWhile(row -> !row.getDue().after(now));
+    }
+
+    @Override
+    public Mono<Boolean> move(BlobDeletion deletion, Date due) {
+        return call(() -> {
+            boolean moved = table.update(new Object[]{deletion.getShard(), deletion.getDue(), deletion.getId()}, row -> null);
+            if (moved) {
+                table.put(new BlobDeletion(deletion.getShard(), deletion.getId(), deletion.getBucket(), deletion.getKey(),
+                        deletion.getAttempts(), due));
+                deletion.setDue(due);
+            }
+            return moved;
+        });
+    }
+}
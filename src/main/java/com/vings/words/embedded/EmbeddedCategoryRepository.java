@@ -0,0 +1,56 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.Category;
+import com.vings.words.model.Link;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.repository.CategoryRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Rows are keyed by {@code (user, title)}.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedCategoryRepository extends EmbeddedRepository<Category> implements CategoryRepository {
+
+    private final BlobOutboxRepository blobOutboxRepository;
+
+    public EmbeddedCategoryRepository(EmbeddedStorage storage, BlobOutboxRepository blobOutboxRepository) {
+        super(storage, storage.table("category", Category.class, category -> new Object[]{category.getUser(), category.getTitle()}));
+        this.blobOutboxRepository = blobOutboxRepository;
+    }
+
+    @Override
+    public Flux<Category> findByUser(String user) {
+        return many(() -> table.partition(user));
+    }
+
+    @Override
+    public Mono<Category> findByUserAndTitle(String user, String title) {
+        return call(() -> table.get(user, title));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Category category) {
+        return call(() -> table.putIfAbsent(category));
+    }
+
+    @Override
+    public Mono<Boolean> delete(Category category, List<BlobDeletion> blobs) {
+        return delete(category).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Category category, Link image, List<BlobDeletion> blobs) {
+        return run(() -> table.update(new Object[]{category.getUser(), category.getTitle()}, row -> {
+            row.setImage(image);
+            return row;
+        })).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+}
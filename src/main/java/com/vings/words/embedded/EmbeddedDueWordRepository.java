@@ -0,0 +1,39 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.DueWord;
+import com.vings.words.repository.DueWordRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Rows of a category are ordered by due date and word.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedDueWordRepository extends EmbeddedRepository<DueWord> implements DueWordRepository {
+
+    public EmbeddedDueWordRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("due_words", DueWord.class, row -> new Object[]{row.getUser(), row.getCategory(), row.getDue(), row.getWord()}));
+    }
+
+    @Override
+    public Flux<DueWord> findDue(String user, UUID category, Date now, int limit) {
+        return many(() -> table.slice(new Object[]{user, category}, null, limit))
+                .takeWhile(row -> !row.getDue().after(now));
+    }
+
+    @Override
+    public Mono<DueWord> deleteWord(String user, UUID category, Date due, String word) {
+        return run(() -> table.remove(user, category, due, word));
+    }
+
+    @Override
+    public Flux<DueWord> deleteByUserAndCategory(String user, UUID category) {
+        return this.<DueWord>run(() -> table.removePartition(user, category)).flux();
+    }
+}
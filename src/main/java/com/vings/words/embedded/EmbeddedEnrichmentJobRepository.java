@@ -0,0 +1,40 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.EnrichmentJob;
+import com.vings.words.repository.EnrichmentJobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * Rows of a shard are ordered by due date and id.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedEnrichmentJobRepository extends EmbeddedRepository<EnrichmentJob> implements EnrichmentJobRepository {
+
+    public EmbeddedEnrichmentJobRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("enrichment_job", EnrichmentJob.class, row -> new Object[]{row.getShard(), row.getDue(), row.getId()}));
+    }
+
+    @Override
+    public Flux<EnrichmentJob> findDue(int shard, Date now, int limit) {
+        return many(() -> table.slice(new Object[]{shard}, null, limit))
+                .takeWhile(row -> !row.getDue().after(now));
+    }
+
+    @Override
+    public Mono<Boolean> move(EnrichmentJob job, Date due) {
+        return call(() -> {
+            boolean moved = table.update(new Object[]{job.getShard(), job.getDue(), job.getId()}, row -> null);
+            if (moved) {
+                table.put(new EnrichmentJob(job.getShard(), job.getId(), job.getUser(), job.getCategory(), job.getWord(), job.getAttempts(), due));
+                job.setDue(due);
+            }
+            return moved;
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.ExampleByHeadword;
+import com.vings.words.repository.ExampleByHeadwordRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("embedded")
+public class EmbeddedExampleByHeadwordRepository extends EmbeddedRepository<ExampleByHeadword> implements ExampleByHeadwordRepository {
+
+    public EmbeddedExampleByHeadwordRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("example_by_headword", ExampleByHeadword.class, row -> new Object[]{row.getHeadword()}));
+    }
+}
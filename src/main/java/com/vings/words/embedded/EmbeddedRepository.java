@@ -0,0 +1,154 @@
+package com.vings.words.embedded;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * CRUD part of a reactive Cassandra repository over an {@link EmbeddedTable}. Rows are found by id when the
+ * table has a single column partition key.
+ */
+public abstract class EmbeddedRepository<T> implements ReactiveCassandraRepository<T, String> {
+
+    protected final EmbeddedTable<T> table;
+
+    private final Scheduler scheduler;
+
+    protected EmbeddedRepository(EmbeddedStorage storage, EmbeddedTable<T> table) {
+        this.table = table;
+        this.scheduler = storage.scheduler();
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return call(() -> {
+            table.put(entity);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<T> findById(String id) {
+        return many(() -> table.slice(new Object[]{id}, null, 1)).next();
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return findById(id).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return many(table::rows);
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> ids) {
+        return Flux.from(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return call(table::size);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return run(() -> table.removePartition(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return run(() -> table.remove(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entities) {
+        return Flux.from(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return run(table::clear);
+    }
+
+    @Override
+    public <S extends T> Mono<S> insert(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Publisher<S> entities) {
+        return saveAll(entities);
+    }
+
+    protected <R> Mono<R> call(Callable<R> operation) {
+        return Mono.fromCallable(operation).subscribeOn(scheduler);
+    }
+
+    protected <R> Flux<R> many(Callable<List<R>> operation) {
+        return call(operation).flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Completes without a value, as the mapped update and delete statements do.
+     */
+    protected <R> Mono<R> run(TableOperation operation) {
+        return Mono.<R>fromCallable(() -> {
+            operation.run();
+            return null;
+        }).subscribeOn(scheduler);
+    }
+
+    protected interface TableOperation {
+
+        void run() throws IOException;
+    }
+}
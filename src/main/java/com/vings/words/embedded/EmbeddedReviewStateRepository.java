@@ -0,0 +1,73 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.DueWord;
+import com.vings.words.model.Reschedule;
+import com.vings.words.model.ReviewState;
+import com.vings.words.repository.DueWordRepository;
+import com.vings.words.repository.ReviewStateRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@Profile("embedded")
+public class EmbeddedReviewStateRepository extends EmbeddedRepository<ReviewState> implements ReviewStateRepository {
+
+    private final DueWordRepository dueWordRepository;
+
+    public EmbeddedReviewStateRepository(EmbeddedStorage storage, DueWordRepository dueWordRepository) {
+        super(storage, storage.table("review_state", ReviewState.class, row -> new Object[]{row.getUser(), row.getCategory(), row.getWord()}));
+        this.dueWordRepository = dueWordRepository;
+    }
+
+    @Override
+    public Mono<ReviewState> findByUserAndCategoryAndWord(String user, UUID category, String word) {
+        return call(() -> table.get(user, category, word));
+    }
+
+    @Override
+    public Flux<ReviewState> findByWords(String user, UUID category, List<String> words) {
+        return many(() -> {
+            List<ReviewState> found = new ArrayList<>(words.size());
+            for (String word : words) {
+                ReviewState state = table.get(user, category, word);
+                if (state != null) {
+                    found.add(state);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public Flux<ReviewState> deleteByUserAndCategory(String user, UUID category) {
+        return this.<ReviewState>run(() -> table.removePartition(user, category)).flux();
+    }
+
+    @Override
+    public Flux<Reschedule> reschedule(List<Reschedule> reschedules) {
+        return Flux.fromIterable(reschedules)
+                .filterWhen(this::writeState)
+                .concatMap(reschedule -> {
+                    ReviewState state = reschedule.getState();
+                    Mono<DueWord> previous = reschedule.getPreviousDue() == null || reschedule.getPreviousDue().equals(state.getDue()) ? Mono.empty()
+                            : dueWordRepository.deleteWord(state.getUser(), state.getCategory(), reschedule.getPreviousDue(), state.getWord());
+                    return previous
+                            .then(dueWordRepository.save(new DueWord(state.getUser(), state.getCategory(), state.getDue(), state.getWord(),
+                                    reschedule.getTranslation())))
+                            .then(Mono.just(reschedule));
+                });
+    }
+
+    private Mono<Boolean> writeState(Reschedule reschedule) {
+        ReviewState state = reschedule.getState();
+        return call(() -> reschedule.getPreviousDue() == null ? table.putIfAbsent(state)
+                : table.update(new Object[]{state.getUser(), state.getCategory(), state.getWord()},
+                        current -> reschedule.getPreviousDue().equals(current.getDue()), current -> state));
+    }
+}
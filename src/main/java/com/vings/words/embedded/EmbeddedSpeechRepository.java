@@ -0,0 +1,34 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.Speech;
+import com.vings.words.repository.SpeechRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("embedded")
+public class EmbeddedSpeechRepository extends EmbeddedRepository<Speech> implements SpeechRepository {
+
+    public EmbeddedSpeechRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("speech", Speech.class, speech -> new Object[]{speech.getHash()}));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Speech speech) {
+        return call(() -> table.putIfAbsent(speech));
+    }
+
+    @Override
+    public Mono<Boolean> updateRefs(String hash, int expectedRefs, int refs) {
+        return call(() -> table.update(new Object[]{hash}, row -> row.getRefs() == expectedRefs, row -> {
+            row.setRefs(refs);
+            return row;
+        }));
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfRefs(String hash, int expectedRefs) {
+        return call(() -> table.update(new Object[]{hash}, row -> row.getRefs() == expectedRefs, row -> null));
+    }
+}
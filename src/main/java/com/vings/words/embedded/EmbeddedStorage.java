@@ -0,0 +1,122 @@
+package com.vings.words.embedded;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Embedded single-node storage: a store per table under {@code embedded.root}. Store operations block on file I/O
+ * and run on a dedicated scheduler. A maintenance task forces logs to disk unless every write is forced,
+ * checkpoints indexes and compacts logs.
+ */
+@Component
+@Profile("embedded")
+public class EmbeddedStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStorage.class);
+
+    @Value("${embedded.root}")
+    private String root;
+
+    @Value("${embedded.threads}")
+    private int threads;
+
+    @Value("${embedded.sync.each-write}")
+    private boolean syncEachWrite;
+
+    @Value("${embedded.maintenance.interval}")
+    private long maintenanceInterval;
+
+    @Value("${embedded.checkpoint.threshold}")
+    private int checkpointThreshold;
+
+    @Value("${embedded.compaction.ratio}")
+    private double compactionRatio;
+
+    @Value("${embedded.compaction.minimum}")
+    private long compactionMinimum;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Map<String, EmbeddedStore> stores = new ConcurrentHashMap<>();
+
+    private Scheduler scheduler;
+
+    private Disposable maintenance;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(threads));
+        maintenance = Flux.interval(Duration.ofMillis(maintenanceInterval))
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::maintain).subscribeOn(scheduler)
+                        .onErrorResume(e -> {
+                            LOG.error("Embedded storage maintenance failed", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        maintenance.dispose();
+        for (EmbeddedStore store : stores.values()) {
+            store.close();
+        }
+        scheduler.dispose();
+    }
+
+    /**
+     * Opens the table's store, recovering it from its files.
+     *
+     * @param primaryKey partition and clustering column values of a row
+     */
+    public <T> EmbeddedTable<T> table(String name, Class<T> type, Function<T, Object[]> primaryKey) {
+        EmbeddedStore store = stores.computeIfAbsent(name, table -> {
+            try {
+                return EmbeddedStore.open(Paths.get(root, table), syncEachWrite);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't open table " + table, e);
+            }
+        });
+        return new EmbeddedTable<>(store, objectMapper, type, primaryKey);
+    }
+
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    private void maintain() {
+        stores.forEach((table, store) -> {
+            try {
+                if (!syncEachWrite) {
+                    store.sync();
+                }
+                store.checkpoint(checkpointThreshold);
+                store.compact(compactionRatio, compactionMinimum);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Maintenance of table " + table + " failed", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,445 @@
+package com.vings.words.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Key-value store of a single table in its own directory. Every write is appended to a log; the log offset of each
+ * key's latest record is kept in a sorted memory-mapped index up to the index checkpoint and in a sorted map for
+ * records appended since. A checkpoint folds that map into a new index. Compaction copies live records into the log
+ * of the next generation and switches the {@code CURRENT} file to it. Opening a store drops files of other
+ * generations, replays the log from the checkpoint and truncates a torn last record.
+ */
+public class EmbeddedStore implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStore.class);
+
+    private static final long TOMBSTONE = -1;
+
+    private static final String CURRENT = "CURRENT";
+
+    private static final int ROW_LOCKS = 64;
+
+    private final Path directory;
+
+    private final boolean syncEachWrite;
+
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+
+    private final Object appendLock = new Object();
+
+    private final Object maintenanceLock = new Object();
+
+    private final Object[] rowLocks = new Object[ROW_LOCKS];
+
+    private final AtomicLong garbage = new AtomicLong();
+
+    private int generation;
+
+    private AppendLog log;
+
+    private MappedIndex index;
+
+    private ConcurrentSkipListMap<byte[], Long> recent;
+
+    private EmbeddedStore(Path directory, boolean syncEachWrite, int generation, AppendLog log, MappedIndex index) {
+        this.directory = directory;
+        this.syncEachWrite = syncEachWrite;
+        this.generation = generation;
+        this.log = log;
+        this.index = index;
+        for (int i = 0; i < ROW_LOCKS; i++) {
+            rowLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * @param syncEachWrite force every append to disk, otherwise appends reach the disk on {@link #sync()}
+     */
+    public static EmbeddedStore open(Path directory, boolean syncEachWrite) throws IOException {
+        Files.createDirectories(directory);
+        int generation = Files.exists(directory.resolve(CURRENT))
+                ? Integer.parseInt(new String(Files.readAllBytes(directory.resolve(CURRENT)), StandardCharsets.US_ASCII).trim()) : 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.equals(CURRENT) && !name.equals(generation + ".log") && !name.equals(generation + ".idx")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        AppendLog log = AppendLog.open(logPath(directory, generation));
+        Path indexPath = indexPath(directory, generation);
+        MappedIndex index = Files.exists(indexPath) ? MappedIndex.open(indexPath) : MappedIndex.empty();
+        if (index.checkpoint() > log.size()) {
+            log.close();
+            throw new IOException("Index of " + directory + " covers " + index.checkpoint() + " bytes of a " + log.size() + " byte log");
+        }
+        EmbeddedStore store = new EmbeddedStore(directory, syncEachWrite, generation, log, index);
+        store.recent = new ConcurrentSkipListMap<>(Keys.ORDER);
+        store.garbage.set(replay(log, index.checkpoint(), index, store.recent));
+        return store;
+    }
+
+    public byte[] get(byte[] key) throws IOException {
+        generationLock.readLock().lock();
+        try {
+            long offset = locate(key);
+            return offset < 0 ? null : log.read(offset).value;
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(byte[] key) {
+        generationLock.readLock().lock();
+        try {
+            return locate(key) >= 0;
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param after key to start after or null to start at the prefix
+     * @return values of keys with the prefix in key order
+     */
+    public List<byte[]> scan(byte[] prefix, byte[] after, int limit) throws IOException {
+        List<byte[]> values = new ArrayList<>();
+        generationLock.readLock().lock();
+        try {
+            merge(index, recent, prefix, after, (key, offset) -> {
+                if (offset != TOMBSTONE) {
+                    values.add(log.read(offset).value);
+                }
+                return values.size() < limit;
+            });
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        return values;
+    }
+
+    /**
+     * @return live keys with the prefix in key order
+     */
+    public List<byte[]> keys(byte[] prefix) throws IOException {
+        List<byte[]> keys = new ArrayList<>();
+        generationLock.readLock().lock();
+        try {
+            merge(index, recent, prefix, null, (key, offset) -> {
+                if (offset != TOMBSTONE) {
+                    keys.add(key);
+                }
+                return true;
+            });
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        return keys;
+    }
+
+    public void put(byte[] key, byte[] value) throws IOException {
+        append(AppendLog.PUT, key, value);
+    }
+
+    public void delete(byte[] key) throws IOException {
+        append(AppendLog.DELETE, key, Keys.EMPTY);
+    }
+
+    /**
+     * Lock to hold around a read and a write of the key that must not interleave with another such pair.
+     */
+    public Object lock(byte[] key) {
+        int hash = 1;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return rowLocks[(hash & Integer.MAX_VALUE) % ROW_LOCKS];
+    }
+
+    public void sync() throws IOException {
+        generationLock.readLock().lock();
+        try {
+            log.force();
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds records appended since the last checkpoint into a new index once there are at least {@code threshold}.
+     */
+    public boolean checkpoint(int threshold) throws IOException {
+        synchronized (maintenanceLock) {
+            long checkpoint;
+            NavigableMap<byte[], Long> snapshot;
+            MappedIndex current;
+            generationLock.readLock().lock();
+            try {
+                if (recent.size() < threshold) {
+                    return false;
+                }
+                synchronized (appendLock) {
+                    checkpoint = log.size();
+                    snapshot = recent.clone();
+                    current = index;
+                }
+                log.force();
+            } finally {
+                generationLock.readLock().unlock();
+            }
+
+            List<byte[]> keys = new ArrayList<>(current.size() + snapshot.size());
+            LongList offsets = new LongList(current.size() + snapshot.size());
+            merge(current, snapshot, Keys.EMPTY, null, (key, offset) -> {
+                if (offset != TOMBSTONE) {
+                    keys.add(key);
+                    offsets.add(offset);
+                }
+                return true;
+            });
+            Path path = indexPath(directory, generation);
+            MappedIndex.write(path, checkpoint, keys, offsets.toArray());
+
+            generationLock.writeLock().lock();
+            try {
+                index = MappedIndex.open(path);
+                snapshot.forEach(recent::remove);
+            } finally {
+                generationLock.writeLock().unlock();
+            }
+            LOG.debug("Checkpointed {} keys of {} at {}", keys.size(), directory, checkpoint);
+            return true;
+        }
+    }
+
+    /**
+     * Rewrites the live records into the next generation once superseded records outnumber
+     * {@code ratio} of the keys and {@code minimum}.
+     */
+    public boolean compact(double ratio, long minimum) throws IOException {
+        synchronized (maintenanceLock) {
+            long start;
+            NavigableMap<byte[], Long> snapshot;
+            MappedIndex current;
+            AppendLog source;
+            generationLock.readLock().lock();
+            try {
+                if (garbage.get() < Math.max(minimum, (long) ((index.size() + recent.size()) * ratio))) {
+                    return false;
+                }
+                synchronized (appendLock) {
+                    start = log.size();
+                    snapshot = recent.clone();
+                    current = index;
+                    source = log;
+                }
+            } finally {
+                generationLock.readLock().unlock();
+            }
+
+            int next = generation + 1;
+            Files.deleteIfExists(logPath(directory, next));
+            AppendLog target = AppendLog.open(logPath(directory, next));
+            List<byte[]> keys = new ArrayList<>(current.size() + snapshot.size());
+            LongList offsets = new LongList(current.size() + snapshot.size());
+            try {
+                merge(current, snapshot, Keys.EMPTY, null, (key, offset) -> {
+                    if (offset != TOMBSTONE) {
+                        keys.add(key);
+                        offsets.add(target.append(AppendLog.PUT, key, source.read(offset).value));
+                    }
+                    return true;
+                });
+                long checkpoint = target.size();
+                target.force();
+                MappedIndex.write(indexPath(directory, next), checkpoint, keys, offsets.toArray());
+
+                generationLock.writeLock().lock();
+                try {
+                    target.copy(source, start);
+                    MappedIndex compacted = MappedIndex.open(indexPath(directory, next));
+                    ConcurrentSkipListMap<byte[], Long> tail = new ConcurrentSkipListMap<>(Keys.ORDER);
+                    long superseded = replay(target, checkpoint, compacted, tail);
+                    target.force();
+                    commit(next);
+                    generation = next;
+                    log = target;
+                    index = compacted;
+                    recent = tail;
+                    garbage.set(superseded);
+                } finally {
+                    generationLock.writeLock().unlock();
+                }
+            } catch (IOException | RuntimeException e) {
+                target.close();
+                throw e;
+            }
+            source.close();
+            Files.deleteIfExists(logPath(directory, next - 1));
+            Files.deleteIfExists(indexPath(directory, next - 1));
+            LOG.info("Compacted {} into generation {} with {} keys", directory, next, keys.size());
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generationLock.writeLock().lock();
+        try {
+            log.force();
+            log.close();
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    private void append(byte operation, byte[] key, byte[] value) throws IOException {
+        generationLock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                long offset = log.append(operation, key, value);
+                if (syncEachWrite) {
+                    log.force();
+                }
+                garbage.addAndGet(track(recent, index, key, operation == AppendLog.DELETE ? TOMBSTONE : offset));
+            }
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points the key to its latest record.
+     *
+     * @return number of records superseded, a delete supersedes itself as well
+     */
+    private static long track(ConcurrentSkipListMap<byte[], Long> recent, MappedIndex index, byte[] key, long offset) {
+        Long previous = recent.put(key, offset);
+        boolean superseded = previous == null ? index.find(key) >= 0 : previous != TOMBSTONE;
+        return (superseded ? 1 : 0) + (offset == TOMBSTONE ? 1 : 0);
+    }
+
+    /**
+     * @return number of records superseded by the replayed ones
+     */
+    private static long replay(AppendLog log, long from, MappedIndex index, ConcurrentSkipListMap<byte[], Long> recent) throws IOException {
+        long[] superseded = {0};
+        long truncated = log.replay(from, record -> superseded[0] += track(recent, index, record.key,
+                record.operation == AppendLog.DELETE ? TOMBSTONE : record.offset));
+        if (truncated > 0) {
+            LOG.warn("Truncated {} bytes of an incomplete record at the end of {}", truncated, log);
+        }
+        return superseded[0];
+    }
+
+    private long locate(byte[] key) {
+        Long offset = recent.get(key);
+        return offset != null ? offset : index.find(key);
+    }
+
+    /**
+     * Visits keys with the prefix in order, records appended since the checkpoint taking precedence over the index.
+     */
+    private static void merge(MappedIndex index, NavigableMap<byte[], Long> recent, byte[] prefix, byte[] after, KeyVisitor visitor) throws IOException {
+        byte[] start = after == null ? prefix : after;
+        Iterator<Map.Entry<byte[], Long>> memory = recent.tailMap(start, after == null).entrySet().iterator();
+        Map.Entry<byte[], Long> fromMemory = next(memory, prefix);
+        int fromIndex = index.ceiling(start, after == null);
+        boolean proceed = true;
+        while (proceed) {
+            boolean indexed = fromIndex < index.size() && index.startsWith(fromIndex, prefix);
+            if (fromMemory == null && !indexed) {
+                return;
+            }
+            int order = fromMemory == null ? -1 : !indexed ? 1 : index.compare(fromIndex, fromMemory.getKey());
+            if (order < 0) {
+                proceed = visitor.visit(index.key(fromIndex), index.offset(fromIndex));
+                fromIndex++;
+            } else {
+                if (order == 0) {
+                    fromIndex++;
+                }
+                proceed = visitor.visit(fromMemory.getKey(), fromMemory.getValue());
+                fromMemory = next(memory, prefix);
+            }
+        }
+    }
+
+    private static Map.Entry<byte[], Long> next(Iterator<Map.Entry<byte[], Long>> entries, byte[] prefix) {
+        if (!entries.hasNext()) {
+            return null;
+        }
+        Map.Entry<byte[], Long> entry = entries.next();
+        return Keys.startsWith(entry.getKey(), prefix) ? entry : null;
+    }
+
+    private void commit(int generation) throws IOException {
+        Path temporary = directory.resolve(CURRENT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(Integer.toString(generation).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path logPath(Path directory, int generation) {
+        return directory.resolve(generation + ".log");
+    }
+
+    private static Path indexPath(Path directory, int generation) {
+        return directory.resolve(generation + ".idx");
+    }
+
+    private interface KeyVisitor {
+
+        boolean visit(byte[] key, long offset) throws IOException;
+    }
+
+    private static final class LongList {
+
+        private long[] values;
+
+        private int size;
+
+        LongList(int capacity) {
+            values = new long[Math.max(capacity, 16)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                long[] grown = new long[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            long[] array = new long[size];
+            System.arraycopy(values, 0, array, 0, size);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.vings.words.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rows of one entity in an {@link EmbeddedStore}, written as JSON under their encoded primary key columns,
+ * partition columns first. Conditional writes of a row are serialized like lightweight transactions.
+ */
+public class EmbeddedTable<T> {
+
+    private final EmbeddedStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private final Class<T> type;
+
+    private final Function<T, Object[]> primaryKey;
+
+    EmbeddedTable(EmbeddedStore store, ObjectMapper objectMapper, Class<T> type, Function<T, Object[]> primaryKey) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.primaryKey = primaryKey;
+    }
+
+    public void put(T row) throws IOException {
+        store.put(key(row), objectMapper.writeValueAsBytes(row));
+    }
+
+    public boolean putIfAbsent(T row) throws IOException {
+        byte[] key = key(row);
+        synchronized (store.lock(key)) {
+            if (store.contains(key)) {
+                return false;
+            }
+            store.put(key, objectMapper.writeValueAsBytes(row));
+            return true;
+        }
+    }
+
+    public T get(Object... primaryKey) throws IOException {
+        byte[] value = store.get(Keys.encode(primaryKey));
+        return value == null ? null : objectMapper.readValue(value, type);
+    }
+
+    public List<T> partition(Object... partition) throws IOException {
+        return slice(partition, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param after clustering columns of the row to start after or null to start at the first row
+     */
+    public List<T> slice(Object[] partition, Object[] after, int limit) throws IOException {
+        byte[] start = after == null ? null : Keys.encode(concat(partition, after));
+        return read(store.scan(Keys.encode(partition), start, limit));
+    }
+
+    /**
+     * Replaces an existing row matching the condition, an update returning null deletes the row.
+     *
+     * @return false when the row is absent or doesn't match
+     */
+    public boolean update(Object[] primaryKey, Predicate<T> condition, UnaryOperator<T> update) throws IOException {
+        byte[] key = Keys.encode(primaryKey);
+        synchronized (store.lock(key)) {
+            byte[] value = store.get(key);
+            if (value == null) {
+                return false;
+            }
+            T current = objectMapper.readValue(value, type);
+            if (!condition.test(current)) {
+                return false;
+            }
+            T updated = update.apply(current);
+            if (updated == null) {
+                store.delete(key);
+            } else {
+                store.put(key, objectMapper.writeValueAsBytes(updated));
+            }
+            return true;
+        }
+    }
+
+    public boolean update(Object[] primaryKey, UnaryOperator<T> update) throws IOException {
+        return update(primaryKey, row -> true, update);
+    }
+
+    public void remove(Object... primaryKey) throws IOException {
+        store.delete(Keys.encode(primaryKey));
+    }
+
+    public void remove(T row) throws IOException {
+        store.delete(key(row));
+    }
+
+    public void removePartition(Object... partition) throws IOException {
+        for (byte[] key : store.keys(Keys.encode(partition))) {
+            store.delete(key);
+        }
+    }
+
+    public List<T> rows() throws IOException {
+        return read(store.scan(Keys.EMPTY, null, Integer.MAX_VALUE));
+    }
+
+    public long size() throws IOException {
+        return store.keys(Keys.EMPTY).size();
+    }
+
+    public void clear() throws IOException {
+        removePartition();
+    }
+
+    private byte[] key(T row) {
+        return Keys.encode(primaryKey.apply(row));
+    }
+
+    private List<T> read(List<byte[]> values) throws IOException {
+        List<T> rows = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            rows.add(objectMapper.readValue(value, type));
+        }
+        return rows;
+    }
+
+    private static Object[] concat(Object[] partition, Object[] clustering) {
+        Object[] columns = Arrays.copyOf(partition, partition.length + clustering.length);
+        System.arraycopy(clustering, 0, columns, partition.length, clustering.length);
+        return columns;
+    }
+}
@@ -0,0 +1,68 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.WordByLearned;
+import com.vings.words.repository.WordByLearnedRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("embedded")
+public class EmbeddedWordByLearnedRepository extends EmbeddedRepository<WordByLearned> implements WordByLearnedRepository {
+
+    public EmbeddedWordByLearnedRepository(EmbeddedStorage storage) {
+        super(storage, storage.table("word_by_learned", WordByLearned.class,
+                row -> new Object[]{row.getUser(), row.getCategory(), row.isLearned(), row.getWord()}));
+    }
+
+    @Override
+    public Flux<WordByLearned> findByUserAndCategoryAndLearned(String user, UUID category, boolean learned) {
+        return many(() -> table.partition(user, category, learned));
+    }
+
+    @Override
+    public Mono<Boolean> addTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return retranslate(user, category, learned, word, current -> current.addAll(translation));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return retranslate(user, category, learned, word, current -> current.removeAll(translation));
+    }
+
+    @Override
+    public Mono<WordByLearned> deleteWord(String user, UUID category, boolean learned, String word) {
+        return run(() -> table.remove(user, category, learned, word));
+    }
+
+    @Override
+    public Flux<WordByLearned> deleteByUserAndCategory(String user, UUID category) {
+        return this.<WordByLearned>run(() -> table.removePartition(user, category)).flux();
+    }
+
+    @Override
+    public Mono<Void> reindex(String user, UUID category, List<WordByLearned> rows) {
+        return run(() -> {
+            for (WordByLearned row : rows) {
+                table.put(row);
+                table.remove(user, category, !row.isLearned(), row.getWord());
+            }
+        });
+    }
+
+    private Mono<Boolean> retranslate(String user, UUID category, boolean learned, String word, Consumer<Set<String>> update) {
+        return call(() -> table.update(new Object[]{user, category, learned, word}, row -> {
+            Set<String> translation = row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation());
+            update.accept(translation);
+            row.setTranslation(translation);
+            return row;
+        }));
+    }
+}
@@ -0,0 +1,157 @@
+package com.vings.words.embedded;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.repository.WordsRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rows are keyed by {@code (user, category, word)}. A word is deleted before its blobs are queued for deletion,
+ * so a crash in between leaves an orphaned blob for the reconciler rather than a word without its image.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedWordsRepository extends EmbeddedRepository<Word> implements WordsRepository {
+
+    private final BlobOutboxRepository blobOutboxRepository;
+
+    public EmbeddedWordsRepository(EmbeddedStorage storage, BlobOutboxRepository blobOutboxRepository) {
+        super(storage, storage.table("word", Word.class, word -> new Object[]{word.getUser(), word.getCategory(), word.getWord()}));
+        this.blobOutboxRepository = blobOutboxRepository;
+    }
+
+    @Override
+    public Flux<Word> findByUserAndCategory(String user, UUID category) {
+        return many(() -> table.partition(user, category));
+    }
+
+    @Override
+    public Flux<Word> findPage(String user, UUID category, String after, int limit) {
+        return many(() -> table.slice(new Object[]{user, category}, new Object[]{after}, limit));
+    }
+
+    @Override
+    public Flux<Word> findByWords(String user, UUID category, List<String> words) {
+        return many(() -> {
+            List<Word> found = new ArrayList<>(words.size());
+            for (String word : words) {
+                Word row = table.get(user, category, word);
+                if (row != null) {
+                    found.add(row);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public Mono<Word> findByUserAndCategoryAndWord(String user, UUID category, String word) {
+        return call(() -> table.get(user, category, word));
+    }
+
+    @Override
+    public Mono<Word> addTranslation(String user, UUID category, String word, Set<String> translation) {
+        return update(user, category, word, row -> {
+            Set<String> updated = row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation());
+            updated.addAll(translation);
+            row.setTranslation(updated);
+            return row;
+        });
+    }
+
+    @Override
+    public Mono<Word> deleteTranslation(String user, UUID category, String word, Set<String> translation) {
+        return update(user, category, word, row -> {
+            Set<String> updated = row.getTranslation() == null ? new HashSet<>() : new HashSet<>(row.getTranslation());
+            updated.removeAll(translation);
+            row.setTranslation(updated);
+            return row;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> enrich(String user, UUID category, String word, Link speech, Set<Example> examples, EnrichmentStatus enrichment) {
+        return call(() -> table.update(new Object[]{user, category, word}, row -> {
+            row.setSpeech(speech);
+            row.setExamples(examples);
+            row.setEnrichment(enrichment);
+            return row;
+        }));
+    }
+
+    @Override
+    public Mono<Boolean> updateEnrichment(String user, UUID category, String word, EnrichmentStatus enrichment) {
+        return call(() -> table.update(new Object[]{user, category, word}, row -> {
+            row.setEnrichment(enrichment);
+            return row;
+        }));
+    }
+
+    @Override
+    public Mono<Void> deleteByUserAndCategory(String user, UUID category) {
+        return run(() -> table.removePartition(user, category));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Word word) {
+        return call(() -> table.putIfAbsent(word));
+    }
+
+    @Override
+    public Mono<Set<String>> updateAnswers(String user, UUID category, Map<String, Integer> previous, Map<String, Integer> answers) {
+        return call(() -> {
+            Set<String> written = new HashSet<>();
+            for (Map.Entry<String, Integer> answer : answers.entrySet()) {
+                boolean applied = table.update(new Object[]{user, category, answer.getKey()},
+                        row -> previous.get(answer.getKey()).equals(row.getAnswers()), row -> {
+                    row.setAnswers(answer.getValue());
+                    return row;
+                });
+                if (applied) {
+                    written.add(answer.getKey());
+                }
+            }
+            return written;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> delete(Word word, List<BlobDeletion> blobs) {
+        return delete(word).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> deleteAll(List<Word> words, List<BlobDeletion> blobs) {
+        return deleteAll(words).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Word word, Link image, List<BlobDeletion> blobs) {
+        return update(word.getUser(), word.getCategory(), word.getWord(), row -> {
+            row.setImage(image);
+            return row;
+        }).then(blobOutboxRepository.saveAll(blobs).then(Mono.just(true)));
+    }
+
+    /**
+     * Updates complete without a row, as the mapped update statements do.
+     */
+    private Mono<Word> update(String user, UUID category, String word, UnaryOperator<Word> update) {
+        return run(() -> table.update(new Object[]{user, category, word}, update));
+    }
+}
@@ -0,0 +1,76 @@
+package com.vings.words.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Order-preserving encoding of primary key columns. Encoded keys compare as unsigned bytes in the order of their
+ * columns and every column is self-delimiting, so the encoding of a partition key is a prefix of its rows' keys
+ * and of no other partition's.
+ */
+final class Keys {
+
+    static final byte[] EMPTY = new byte[0];
+
+    static final Comparator<byte[]> ORDER = Keys::compare;
+
+    private Keys() {
+    }
+
+    static byte[] encode(Object... columns) {
+        ByteArrayOutputStream key = new ByteArrayOutputStream(32);
+        for (Object column : columns) {
+            if (column instanceof String) {
+                for (byte b : ((String) column).getBytes(StandardCharsets.UTF_8)) {
+                    key.write(b);
+                    if (b == 0) {
+                        key.write(0xFF);
+                    }
+                }
+                key.write(0);
+                key.write(1);
+            } else if (column instanceof UUID) {
+                UUID uuid = (UUID) column;
+                key.write(ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array(), 0, 16);
+            } else if (column instanceof Integer) {
+                key.write(ByteBuffer.allocate(4).putInt((Integer) column ^ Integer.MIN_VALUE).array(), 0, 4);
+            } else if (column instanceof Long) {
+                key.write(ByteBuffer.allocate(8).putLong((Long) column ^ Long.MIN_VALUE).array(), 0, 8);
+            } else if (column instanceof Date) {
+                key.write(ByteBuffer.allocate(8).putLong(((Date) column).getTime() ^ Long.MIN_VALUE).array(), 0, 8);
+            } else if (column instanceof Boolean) {
+                key.write((Boolean) column ? 1 : 0);
+            } else {
+                throw new IllegalArgumentException("Unsupported key column " + column);
+            }
+        }
+        return key.toByteArray();
+    }
+
+    static int compare(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int order = Integer.compare(left[i] & 0xFF, right[i] & 0xFF);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package com.vings.words.embedded;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sorted keys with the log offsets of their latest records up to a checkpoint of the log, memory-mapped read-only
+ * and searched by bisection. Layout: magic, key count, checkpoint, a slot per key (key position, key length,
+ * log offset) and the keys.
+ */
+class MappedIndex {
+
+    private static final int MAGIC = 0x57494458;
+
+    private static final int HEADER = 16;
+
+    private static final int SLOT = 16;
+
+    private final ByteBuffer buffer;
+
+    private final int count;
+
+    private final long checkpoint;
+
+    private MappedIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+        this.checkpoint = buffer.getLong(8);
+    }
+
+    static MappedIndex empty() {
+        return new MappedIndex(ByteBuffer.allocate(HEADER).putInt(0, MAGIC));
+    }
+
+    static MappedIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Index " + path + " has invalid size " + channel.size());
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || (long) HEADER + (long) SLOT * buffer.getInt(4) > channel.size()) {
+                throw new IOException("Index " + path + " is corrupt");
+            }
+            return new MappedIndex(buffer);
+        }
+    }
+
+    /**
+     * Writes an index of sorted keys next to the target and moves it in place, so a crash leaves either index.
+     */
+    static void write(Path path, long checkpoint, List<byte[]> keys, long[] offsets) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            output.writeInt(MAGIC);
+            output.writeInt(keys.size());
+            output.writeLong(checkpoint);
+            int position = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                output.writeInt(position);
+                output.writeInt(keys.get(i).length);
+                output.writeLong(offsets[i]);
+                position += keys.get(i).length;
+            }
+            for (byte[] key : keys) {
+                output.write(key);
+            }
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int size() {
+        return count;
+    }
+
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * @return log offset of the key or -1
+     */
+    long find(byte[] key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(middle, key);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return offset(middle);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return position of the first key not less than the given one, or greater when not inclusive
+     */
+    int ceiling(byte[] key, boolean inclusive) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(middle, key);
+            if (order < 0 || order == 0 && !inclusive) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    byte[] key(int position) {
+        byte[] key = new byte[keyLength(position)];
+        int start = keyStart(position);
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(start + i);
+        }
+        return key;
+    }
+
+    long offset(int position) {
+        return buffer.getLong(HEADER + position * SLOT + 8);
+    }
+
+    boolean startsWith(int position, byte[] prefix) {
+        if (keyLength(position) < prefix.length) {
+            return false;
+        }
+        int start = keyStart(position);
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the key at the position with the given one as {@link Keys#compare} does.
+     */
+    int compare(int position, byte[] key) {
+        int start = keyStart(position);
+        int length = keyLength(position);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int order = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int keyStart(int position) {
+        return HEADER + count * SLOT + buffer.getInt(HEADER + position * SLOT);
+    }
+
+    private int keyLength(int position) {
+        return buffer.getInt(HEADER + position * SLOT + 4);
+    }
+}
@@ -1,24 +1,22 @@
 package com.vings.words.handlers;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.datastax.driver.core.utils.UUIDs;
 import com.vings.words.model.Category;
 import com.vings.words.model.Link;
 import com.vings.words.parser.MultipartParser;
-import com.vings.words.parser.ObjectParser;
 import com.vings.words.repository.CategoryRepository;
+import com.vings.words.service.BlobOutbox;
+import com.vings.words.storage.MediaStore;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.multipart.Part;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -35,23 +33,19 @@ public class CategoryHandler {
     @Value("${s3.words.bucket.name}")
     private String wordsBucket;
 
-    @Value("${s3.url}")
-    private String wordsServerUrl;
-
-    private final AmazonS3 s3Client;
+    private final MediaStore mediaStore;
 
     private final CategoryRepository categoryRepository;
 
     private final MultipartParser multipartParser;
 
-    private final ObjectParser objectParser;
-
+    private final BlobOutbox blobOutbox;
 
-    public CategoryHandler(CategoryRepository categoryRepository, AmazonS3 s3Client, MultipartParser multipartParser, ObjectParser objectParser) {
+    public CategoryHandler(CategoryRepository categoryRepository, MediaStore mediaStore, MultipartParser multipartParser, BlobOutbox blobOutbox) {
         this.categoryRepository = categoryRepository;
-        this.s3Client = s3Client;
+        this.mediaStore = mediaStore;
         this.multipartParser = multipartParser;
-        this.objectParser = objectParser;
+        this.blobOutbox = blobOutbox;
     }
 
     public Mono<ServerResponse> get(ServerRequest serverRequest) {
@@ -73,28 +67,19 @@ public class CategoryHandler {
                     Map<String, Part> partsMap = parts.toSingleValueMap();
                     Part categoryPart = partsMap.get("category");
 
-                    return multipartParser.parse(categoryPart, Category.class).flatMap(data -> {
-                        try {
-                            return objectParser.parse(data, Category.class)
-                                    .filter(elem -> elem.getTitle() != null)
-                                    .flatMap(category -> categoryRepository.hasCategory(user, category.getTitle())
-                                            .flatMap(foundCategories -> {
-                                                        if (foundCategories != 0) {
-                                                            return badRequest().body(Mono.just("Category already exists"), String.class);
-                                                        }
-                                                        Part filePart = partsMap.get("image");
-                                                        return filePart == null ? ok().body(categoryRepository.save(new Category(category.getUser(), category.getTitle())), Category.class) :
-                                                                saveImage(category.getUser(), category.getTitle(), filePart)
-                                                                        .flatMap(urls -> ok().body(categoryRepository.save(new Category(user, category.getTitle(), urls.get(0))), Category.class));
-
-                                                    }
-                                            ))
-                                    .switchIfEmpty(badRequest().body(Mono.just("Parameters isn't specified correctly"), String.class));
-                        } catch (IOException exp) {
-                            Exceptions.propagate(exp);
-                        }
-                        throw new IllegalStateException();
-                    });
+                    return multipartParser.parse(categoryPart, Category.class)
+                        .filter(elem -> elem.getTitle() != null)
+                        .flatMap(category -> {
+                            Part filePart = partsMap.get("image");
+                            Mono<Category> candidate = filePart == null ? Mono.just(new Category(category.getUser(), category.getTitle())) :
+                                    saveImage(category.getUser(), category.getTitle(), filePart)
+                                            .map(image -> new Category(user, category.getTitle(), image));
+                            return candidate.flatMap(newCategory -> categoryRepository.insertIfNotExists(newCategory)
+                                    .flatMap(applied -> applied ? ok().body(fromObject(newCategory)) :
+                                            blobOutbox.enqueue(wordsBucket, imageKeys(newCategory))
+                                                    .then(badRequest().body(Mono.just("Category already exists"), String.class))));
+                        })
+                        .switchIfEmpty(badRequest().body(Mono.just("Parameters isn't specified correctly"), String.class));
                 });
     }
 
@@ -112,12 +97,13 @@ public class CategoryHandler {
                         throw new IllegalArgumentException("image couldn't be empty");
                     }
 
-                    if (category.getImage() != null) {
-                        s3Client.deleteObject(wordsBucket, category.getImage().getKey());
-                    }
-
                     return saveImage(category.getUser(), category.getTitle(), filePart)
-                            .flatMap(urls -> ok().body(categoryRepository.updateImage(category.getUser(), category.getTitle(), urls.get(0)), Category.class))
+                            .flatMap(image -> categoryRepository.replaceImage(category, image, blobOutbox.deletions(wordsBucket, category.getImage()))
+                                    .then(Mono.fromSupplier(() -> {
+                                        category.setImage(image);
+                                        return category;
+                                    })))
+                            .flatMap(updated -> ok().body(fromObject(updated)))
                             .switchIfEmpty(badRequest().body(Mono.just("image couldn't be empty"), String.class));
                 }))
                 .switchIfEmpty(badRequest().body(Mono.just("Category doesn't exist"), String.class));
@@ -139,13 +125,8 @@ public class CategoryHandler {
         String user = serverRequest.pathVariable(USER);
         String title = serverRequest.pathVariable(TITLE);
         return categoryRepository.findByUserAndTitle(user, title)
-                .flatMap(category -> {
-                    if (category.getImage() != null) {
-                        s3Client.deleteObject(wordsBucket, category.getImage().getKey());
-                    }
-                    return categoryRepository.delete(category)
-                            .then(ok().build());
-                })
+                .flatMap(category -> categoryRepository.delete(category, blobOutbox.deletions(wordsBucket, category.getImage()))
+                        .then(ok().build()))
                 .switchIfEmpty(notFound().build());
     }
 
@@ -157,11 +138,12 @@ public class CategoryHandler {
         }
     }
 
-    private Mono<List<Link>> saveImage(String user, String title, Part filePart) {
-        return filePart.content().flatMap(buffer -> {
-            String imageName = user + "-" + title + "-" + UUIDs.timeBased().toString();
-            s3Client.putObject(wordsBucket, imageName, buffer.asInputStream(), new ObjectMetadata());
-            return Mono.just(new Link(imageName, wordsServerUrl + wordsBucket + "/" + imageName));
-        }).collectList();
+    private List<String> imageKeys(Category category) {
+        return category.getImage() == null ? Collections.emptyList() : Collections.singletonList(category.getImage().getKey());
+    }
+
+    private Mono<Link> saveImage(String user, String title, Part filePart) {
+        String imageName = user + "-" + title + "-" + UUIDs.timeBased().toString();
+        return mediaStore.put(wordsBucket, imageName, filePart.content());
     }
 }
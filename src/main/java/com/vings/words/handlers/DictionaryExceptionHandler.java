@@ -1,6 +1,7 @@
 package com.vings.words.handlers;
 
 import org.springframework.core.annotation.Order;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ServerWebExchange;
@@ -13,7 +14,7 @@ public class DictionaryExceptionHandler implements WebExceptionHandler {
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable exception) {
 
-        if (exception instanceof IllegalArgumentException) {
+        if (exception instanceof IllegalArgumentException || exception instanceof DecodingException) {
             exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
             return exchange.getResponse().setComplete();
         }
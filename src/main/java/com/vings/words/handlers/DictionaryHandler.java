@@ -1,30 +1,30 @@
 package com.vings.words.handlers;
 
-import com.amazonaws.services.polly.AmazonPolly;
-import com.amazonaws.services.polly.model.OutputFormat;
-import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
-import com.amazonaws.services.polly.model.SynthesizeSpeechResult;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.datastax.driver.core.utils.UUIDs;
-import com.vings.words.model.Example;
+import com.vings.words.model.EnrichmentStatus;
 import com.vings.words.model.Link;
 import com.vings.words.model.Word;
+import com.vings.words.model.WordPage;
 import com.vings.words.parser.MultipartParser;
-import com.vings.words.parser.ObjectParser;
 import com.vings.words.repository.WordsRepository;
-import com.vings.words.service.WordExampleService;
+import com.vings.words.model.WordByLearned;
+import com.vings.words.service.BlobOutbox;
+import com.vings.words.service.EnrichmentService;
+import com.vings.words.service.LearnedIndex;
+import com.vings.words.service.QuizSnapshots;
+import com.vings.words.service.ReviewScheduler;
+import com.vings.words.service.SpeechService;
+import com.vings.words.storage.MediaStore;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.multipart.Part;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.springframework.web.reactive.function.BodyInserters.fromObject;
@@ -38,66 +38,108 @@ public class DictionaryHandler {
     private static final String WORD = "word";
     private static final String LEARNED = "learned";
     private static final String TRANSLATION = "translation";
+    private static final String LIMIT = "limit";
+    private static final String CURSOR = "cursor";
+    private static final int WORDS_PER_LOOKUP = 100;
+    private static final int WORDS_PER_DELETE = 50;
+    private static final int SPEECH_RELEASES = 16;
 
     @Value("${s3.words.bucket.name}")
     private String wordsBucket;
 
-    @Value("${s3.speech.bucket.name}")
-    private String speechBucket;
+    @Value("${dictionary.page.limit.default}")
+    private int defaultPageLimit;
 
-    @Value("${polly.words.voice}")
-    private String speechVoice;
+    @Value("${dictionary.page.limit.max}")
+    private int maxPageLimit;
 
-    @Value("${s3.url}")
-    private String wordsServerUrl;
-
-    private final AmazonS3 s3Client;
-
-    private final AmazonPolly pollyClient;
+    private final MediaStore mediaStore;
 
     private final WordsRepository wordsRepository;
 
-    private final WordExampleService exampleService;
+    private final EnrichmentService enrichmentService;
+
+    private final SpeechService speechService;
 
     private final MultipartParser multipartParser;
 
-    private final ObjectParser objectParser;
+    private final StreamResponses streamResponses;
+
+    private final LearnedIndex learnedIndex;
+
+    private final QuizSnapshots quizSnapshots;
 
-    public DictionaryHandler(WordsRepository wordsRepository, AmazonS3 s3Client, AmazonPolly pollyClient,
-                             MultipartParser multipartParser, ObjectParser objectParser, WordExampleService exampleService) {
+    private final ReviewScheduler reviewScheduler;
+
+    private final BlobOutbox blobOutbox;
+
+    public DictionaryHandler(WordsRepository wordsRepository, MediaStore mediaStore, EnrichmentService enrichmentService,
+                             SpeechService speechService, MultipartParser multipartParser,
+                             StreamResponses streamResponses, LearnedIndex learnedIndex, QuizSnapshots quizSnapshots,
+                             ReviewScheduler reviewScheduler, BlobOutbox blobOutbox) {
         this.wordsRepository = wordsRepository;
-        this.s3Client = s3Client;
-        this.pollyClient = pollyClient;
+        this.mediaStore = mediaStore;
+        this.enrichmentService = enrichmentService;
+        this.speechService = speechService;
         this.multipartParser = multipartParser;
-        this.objectParser = objectParser;
-        this.exampleService = exampleService;
+        this.streamResponses = streamResponses;
+        this.learnedIndex = learnedIndex;
+        this.quizSnapshots = quizSnapshots;
+        this.reviewScheduler = reviewScheduler;
+        this.blobOutbox = blobOutbox;
     }
 
     public Mono<ServerResponse> getWords(ServerRequest serverRequest) {
         String user = serverRequest.pathVariable(USER);
         String category = serverRequest.pathVariable(CATEGORY);
+        Optional<String> limit = serverRequest.queryParam(LIMIT);
+        Optional<String> cursor = serverRequest.queryParam(CURSOR);
+        if (limit.isPresent() || cursor.isPresent()) {
+            return getPage(user, UUID.fromString(category), limit.map(Integer::parseInt).orElse(defaultPageLimit), cursor.map(this::decodeCursor));
+        }
         Flux<Word> words = wordsRepository.findByUserAndCategory(user, UUID.fromString(category));
-        return words.collectList().flatMap(data -> {
-            if (data.isEmpty()) {
-                return notFound().build();
-            } else {
-                return ok().body(fromObject(data));
-            }
-        });
+        return streamResponses.okOrNotFound(serverRequest, words, Word.class);
+    }
+
+    /**
+     * Reads one extra row to know whether a next page exists, the cursor is the last clustering word of the page.
+     */
+    private Mono<ServerResponse> getPage(String user, UUID category, int limit, Optional<String> after) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit should be positive");
+        }
+        int pageLimit = Math.min(limit, maxPageLimit);
+        return wordsRepository.findPage(user, category, after.orElse(""), pageLimit + 1)
+                .collectList()
+                .flatMap(words -> {
+                    if (words.isEmpty() && !after.isPresent()) {
+                        return notFound().build();
+                    }
+                    if (words.size() <= pageLimit) {
+                        return ok().body(fromObject(new WordPage(words, null)));
+                    }
+                    List<Word> page = words.subList(0, pageLimit);
+                    return ok().body(fromObject(new WordPage(page, encodeCursor(page.get(pageLimit - 1).getWord()))));
+                });
+    }
+
+    private String encodeCursor(String word) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(word.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
     }
 
     public Mono<ServerResponse> getWordsByLearnedFilter(ServerRequest serverRequest) {
         String user = serverRequest.pathVariable(USER);
-        String category = serverRequest.pathVariable(CATEGORY);
+        UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
         boolean learned = Boolean.valueOf(serverRequest.pathVariable(LEARNED));
-        Flux<Word> words = wordsRepository.findByUserAndCategory(user, UUID.fromString(category)).filter(word -> word.learned() == learned);
-        return words.collectList().flatMap(data -> {
-            if (data.isEmpty()) {
-                return notFound().build();
-            } else {
-                return ok().body(fromObject(data));
-            }
-        });
+        Flux<Word> words = learnedIndex.find(user, category, learned)
+                .map(WordByLearned::getWord)
+                .buffer(WORDS_PER_LOOKUP)
+                .concatMap(page -> wordsRepository.findByWords(user, category, page));
+        return streamResponses.okOrNotFound(serverRequest, words, Word.class);
     }
 
     public Mono<ServerResponse> save(ServerRequest serverRequest) {
@@ -105,44 +147,30 @@ public class DictionaryHandler {
                 .flatMap(parts -> {
                     Map<String, Part> partsMap = parts.toSingleValueMap();
                     Part wordPart = partsMap.get("word");
-                    return multipartParser.parse(wordPart, Word.class).flatMap(data -> {
-                        try {
-                            return objectParser.parse(data, Word.class)
-                                    .filter(elem -> elem.getUser() != null && elem.getWord() != null && elem.getCategory() != null && elem.getTranslation() != null)
-                                    .flatMap(word -> wordsRepository.findByUserAndCategoryAndWord(word.getUser(), word.getCategory(), word.getWord())
-                                            .flatMap(foundWords -> badRequest().body(Mono.just("Category already exists"), String.class))
-                                            .switchIfEmpty(saveWord(word, partsMap)))
-                                    .switchIfEmpty(badRequest().body(Mono.just("Parameters isn't specified correctly"), String.class));
-
-
-                        } catch (IOException exp) {
-                            Exceptions.propagate(exp);
-                        }
-                        throw new IllegalStateException();
-                    });
+                    return multipartParser.parse(wordPart, Word.class)
+                        .filter(elem -> elem.getUser() != null && elem.getWord() != null && elem.getCategory() != null && elem.getTranslation() != null)
+                        .flatMap(word -> saveWord(word, partsMap))
+                        .switchIfEmpty(badRequest().body(Mono.just("Parameters isn't specified correctly"), String.class));
                 });
     }
 
+    /**
+     * Streams the category in bounded batches: each batch deletes its words and records their images in the blob outbox
+     * with one logged batch, then releases their speech. The partition is deleted last to drop words saved meanwhile.
+     */
     public Mono<ServerResponse> deleteCategory(ServerRequest serverRequest) {
         String user = serverRequest.pathVariable(USER);
         UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
-        return wordsRepository.findByUserAndCategory(user, category).collectList()
-                .flatMap(existingWords -> {
-                    if (existingWords.isEmpty()) {
-                        return notFound().build();
-                    }
-
-                    existingWords.forEach(word -> {
-                        if (word.getImage() != null) {
-                            s3Client.deleteObject(wordsBucket, word.getImage().getKey());
-                        }
-                        if (word.getSpeech() != null) {
-                            s3Client.deleteObject(speechBucket, word.getSpeech().getKey());
-                        }
-                    });
-
-                    return wordsRepository.deleteByUserAndCategory(user, category).then(ok().build());
-                });
+        return PeekedFlux.peek(wordsRepository.findByUserAndCategory(user, category))
+                .flatMap(existingWords -> existingWords
+                        .buffer(WORDS_PER_DELETE)
+                        .concatMap(words -> wordsRepository.deleteAll(words, blobOutbox.deletions(wordsBucket, images(words)))
+                                .then(Flux.fromIterable(words).flatMap(this::releaseSpeech, SPEECH_RELEASES).then()))
+                        .then(wordsRepository.deleteByUserAndCategory(user, category))
+                        .then(Mono.when(learnedIndex.removeCategory(user, category), reviewScheduler.removeCategory(user, category)))
+                        .doOnTerminate(() -> quizSnapshots.invalidate(user, category))
+                        .then(ok().build()))
+                .switchIfEmpty(notFound().build());
     }
 
     public Mono<ServerResponse> updateImage(ServerRequest serverRequest) {
@@ -152,20 +180,16 @@ public class DictionaryHandler {
 
         return serverRequest.body(BodyExtractors.toMultipartData())
                 .flatMap(parts -> wordsRepository.findByUserAndCategoryAndWord(user, category, word).flatMap(foundWord -> {
-                            if (foundWord.getImage() != null) {
-                                s3Client.deleteObject(wordsBucket, foundWord.getImage().getKey());//TODO: move to separate class
-                            }
-                            if (foundWord.getSpeech() != null) {
-                                s3Client.deleteObject(speechBucket, foundWord.getSpeech().getKey());
-                            }
-
                             Map<String, Part> partsMap = parts.toSingleValueMap();
                             Part filePart = partsMap.get("image");
 
                             if (filePart == null) {
                                 return badRequest().body(Mono.just("Image wasn't found"), String.class);
                             }
-                            return saveImage(user, word, filePart).flatMap(urls -> wordsRepository.saveImage(user, category, word, urls.get(0))).then(ok().build());
+                            return saveImage(user, word, filePart)
+                                    .flatMap(image -> wordsRepository.replaceImage(foundWord, image, blobOutbox.deletions(wordsBucket, foundWord.getImage())))
+                                    .doOnTerminate(() -> quizSnapshots.invalidate(user, category))
+                                    .then(ok().build());
                         }).switchIfEmpty(badRequest().body(Mono.just("word doesn't exists"), String.class))
                 );
     }
@@ -176,16 +200,11 @@ public class DictionaryHandler {
         String word = serverRequest.pathVariable(WORD);
 
         return wordsRepository.findByUserAndCategoryAndWord(user, UUID.fromString(category), word)
-                .flatMap(existingWord -> {
-                    if (existingWord.getImage() != null) {
-                        s3Client.deleteObject(wordsBucket, existingWord.getImage().getKey());
-                    }
-                    if (existingWord.getSpeech() != null) {
-                        s3Client.deleteObject(speechBucket, existingWord.getSpeech().getKey());
-                    }
-                    return wordsRepository.delete(existingWord)
-                            .then(ok().build());
-                })
+                .flatMap(existingWord -> wordsRepository.delete(existingWord, blobOutbox.deletions(wordsBucket, existingWord.getImage()))
+                        .then(releaseSpeech(existingWord))
+                        .then(Mono.when(learnedIndex.remove(existingWord), reviewScheduler.remove(existingWord)))
+                        .doOnTerminate(() -> quizSnapshots.invalidate(existingWord.getUser(), existingWord.getCategory()))
+                        .then(ok().build()))
                 .switchIfEmpty(notFound().build());
     }
 
@@ -193,9 +212,14 @@ public class DictionaryHandler {
         String user = serverRequest.pathVariable(USER);
         String category = serverRequest.pathVariable(CATEGORY);
         String word = serverRequest.pathVariable(WORD);
-        String translation = serverRequest.pathVariable(TRANSLATION);
+        Set<String> translation = new HashSet<>(Arrays.asList(serverRequest.pathVariable(TRANSLATION)));
         return wordsRepository.findByUserAndCategoryAndWord(user, UUID.fromString(category), word)
-                .flatMap(existingWord -> wordsRepository.deleteTranslation(user, UUID.fromString(category), word, new HashSet<>(Arrays.asList(translation))).then(ok().build()))
+                .flatMap(existingWord -> wordsRepository.deleteTranslation(user, UUID.fromString(category), word, translation)
+                        .then(wordsRepository.findByUserAndCategoryAndWord(user, UUID.fromString(category), word))
+                        .flatMap(updatedWord -> Mono.when(learnedIndex.deleteTranslation(updatedWord, translation),
+                                reviewScheduler.retranslate(updatedWord, difference(updatedWord.getTranslation(), translation))))
+                        .doOnTerminate(() -> quizSnapshots.invalidate(existingWord.getUser(), existingWord.getCategory()))
+                        .then(ok().build()))
                 .switchIfEmpty(badRequest().body(Mono.just("word doesn't exists"), String.class));
     }
 
@@ -205,52 +229,66 @@ public class DictionaryHandler {
         String word = serverRequest.pathVariable(WORD);
         Set<String> translation = new HashSet<>(Arrays.asList(serverRequest.pathVariable(TRANSLATION)));
         return wordsRepository.findByUserAndCategoryAndWord(user, category, word)
-                .flatMap(existingWord -> ok().body(wordsRepository.addTranslation(user, category, word, translation), Word.class))
+                .flatMap(existingWord -> wordsRepository.addTranslation(user, category, word, translation)
+                        .then(wordsRepository.findByUserAndCategoryAndWord(user, category, word))
+                        .flatMap(updatedWord -> Mono.when(learnedIndex.addTranslation(updatedWord, translation),
+                                reviewScheduler.retranslate(updatedWord, union(updatedWord.getTranslation(), translation))))
+                        .doOnTerminate(() -> quizSnapshots.invalidate(user, category))
+                        .then(ok().build()))
                 .switchIfEmpty(badRequest().body(Mono.just("word doesn't exists"), String.class));
 
     }
 
     private Mono<ServerResponse> saveWord(Word word, Map<String, Part> partsMap) {
-
-        Link speech = generateSpeech(word);
-        word.setSpeech(speech);
-
-        Set<Example> examples = generateExamples(word);
-        word.setExamples(examples);
+        word.setSpeech(null);
+        word.setExamples(null);
+        word.setEnrichment(EnrichmentStatus.PENDING);
 
         Part filePart = partsMap.get("image");
-        return filePart == null ? ok().body(wordsRepository.save(word), Word.class) :
+        Mono<Word> candidate = filePart == null ? Mono.just(word) :
                 saveImage(word.getUser(), word.getWord(), filePart)
-                        .flatMap(urls -> ok().body(wordsRepository.save(new Word.WordBuilder(word.getUser(), word.getCategory(), word.getWord())
-                                .withImage(urls.get(0)).withSpeech(word.getSpeech()).withTranslation(word.getTranslation()).withExamples(word.getExamples()).build()), Word.class));
+                        .map(image -> new Word.WordBuilder(word.getUser(), word.getCategory(), word.getWord())
+                                .withImage(image).withTranslation(word.getTranslation()).withEnrichment(word.getEnrichment()).build());
+
+        return candidate.flatMap(newWord -> enrichmentService.enqueue(newWord).flatMap(job -> wordsRepository.insertIfNotExists(newWord)
+                .flatMap(applied -> {
+                    if (!applied) {
+                        return Mono.when(enrichmentService.cancel(job), blobOutbox.enqueue(wordsBucket, imageKeys(newWord)))
+                                .then(badRequest().body(Mono.just("Category already exists"), String.class));
+                    }
+                    return ok().body(Mono.when(enrichmentService.activate(job), learnedIndex.index(newWord), reviewScheduler.enroll(newWord))
+                            .then(Mono.just(newWord))
+                            .doOnTerminate(() -> quizSnapshots.invalidate(word.getUser(), word.getCategory())), Word.class);
+                })));
+    }
+
+    private List<String> imageKeys(Word word) {
+        return word.getImage() == null ? Collections.emptyList() : Collections.singletonList(word.getImage().getKey());
     }
 
-    private Set<Example> generateExamples(Word word) {
-        return exampleService.request(word.getWord());
+    private Set<String> union(Set<String> translation, Set<String> added) {
+        Set<String> result = translation == null ? new HashSet<>() : new HashSet<>(translation);
+        result.addAll(added);
+        return result;
     }
 
-    private Link generateSpeech(Word word) {
-        SynthesizeSpeechRequest synthesizeSpeechRequest = new SynthesizeSpeechRequest()
-                .withText(word.getWord())
-                .withVoiceId(speechVoice)
-                .withOutputFormat(OutputFormat.Mp3);
+    private Set<String> difference(Set<String> translation, Set<String> removed) {
+        Set<String> result = translation == null ? new HashSet<>() : new HashSet<>(translation);
+        result.removeAll(removed);
+        return result;
+    }
 
-        SynthesizeSpeechResult synthesizeSpeechResult = pollyClient.synthesizeSpeech(synthesizeSpeechRequest);
-        String speechName = word.getUser() + "-" + word.getWord() + "-" + UUIDs.timeBased().toString();
-        s3Client.putObject(speechBucket, speechName, synthesizeSpeechResult.getAudioStream(), new ObjectMetadata());
-        return createLink(speechName, speechBucket);
+    private Mono<Link> saveImage(String user, String word, Part filePart) {
+        String imageName = user + "-" + word + "-" + UUIDs.timeBased().toString();
+        return mediaStore.put(wordsBucket, imageName, filePart.content());
     }
 
-    private Mono<List<Link>> saveImage(String user, String word, Part filePart) {
-        return filePart.content().flatMap(buffer -> {
-            String imageName = user + "-" + word + "-" + UUIDs.timeBased().toString();
-            s3Client.putObject(wordsBucket, imageName, buffer.asInputStream(), new ObjectMetadata());
-            return Mono.just(createLink(imageName, wordsBucket));
-        }).collectList();
+    private Mono<Void> releaseSpeech(Word word) {
+        return word.getSpeech() == null ? Mono.empty() : speechService.release(word.getSpeech());
     }
 
-    private Link createLink(String key, String bucket) {
-        return new Link(key, wordsServerUrl + bucket + "/" + key);
+    private Link[] images(List<Word> words) {
+        return words.stream().map(Word::getImage).toArray(Link[]::new);
     }
 
 }
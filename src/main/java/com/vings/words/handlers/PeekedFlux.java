@@ -0,0 +1,107 @@
+package com.vings.words.handlers;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Requests only the first element of a source to find out whether it is empty,
+ * the returned flux replays that element and continues the same subscription with downstream demand.
+ */
+final class PeekedFlux {
+
+    private PeekedFlux() {
+    }
+
+    static <T> Mono<Flux<T>> peek(Flux<T> source) {
+        return Mono.create(sink -> source.subscribe(new FirstSubscriber<>(sink)));
+    }
+
+    private static final class FirstSubscriber<T> extends BaseSubscriber<T> {
+
+        private final MonoSink<Flux<T>> first;
+
+        private FluxSink<T> rest;
+
+        private boolean peeked;
+
+        private boolean done;
+
+        private Throwable error;
+
+        private FirstSubscriber(MonoSink<Flux<T>> first) {
+            this.first = first;
+            first.onCancel(this);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            if (!peeked) {
+                peeked = true;
+                first.success(Flux.concat(Mono.just(value), Flux.create(this::attach)));
+                return;
+            }
+            rest.next(value);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            if (!peeked) {
+                first.success();
+                return;
+            }
+            terminate(null);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            if (!peeked) {
+                first.error(throwable);
+                return;
+            }
+            terminate(throwable);
+        }
+
+        private void attach(FluxSink<T> sink) {
+            boolean terminated;
+            synchronized (this) {
+                rest = sink;
+                terminated = done;
+            }
+            if (terminated) {
+                signal(sink, error);
+                return;
+            }
+            sink.onDispose(this::dispose);
+            sink.onRequest(this::request);
+        }
+
+        private void terminate(Throwable throwable) {
+            FluxSink<T> sink;
+            synchronized (this) {
+                done = true;
+                error = throwable;
+                sink = rest;
+            }
+            if (sink != null) {
+                signal(sink, throwable);
+            }
+        }
+
+        private void signal(FluxSink<T> sink, Throwable throwable) {
+            if (throwable == null) {
+                sink.complete();
+            } else {
+                sink.error(throwable);
+            }
+        }
+    }
+}
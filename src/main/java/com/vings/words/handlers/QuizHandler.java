@@ -1,20 +1,21 @@
 package com.vings.words.handlers;
 
-import com.vings.words.model.Word;
-import com.vings.words.model.quiz.Crossword;
-import com.vings.words.model.quiz.Guess;
-import com.vings.words.model.quiz.Sprint;
-import com.vings.words.repository.WordsRepository;
+import com.vings.words.model.quiz.Answer;
+import com.vings.words.model.quiz.Flashcard;
+import com.vings.words.service.AnswerRecorder;
+import com.vings.words.service.QuizGenerator;
+import com.vings.words.service.QuizSnapshots;
+import com.vings.words.service.ReviewScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.springframework.web.reactive.function.BodyInserters.fromObject;
+import static org.springframework.web.reactive.function.server.ServerResponse.accepted;
+import static org.springframework.web.reactive.function.server.ServerResponse.badRequest;
 import static org.springframework.web.reactive.function.server.ServerResponse.ok;
 
 @Component
@@ -24,12 +25,21 @@ public class QuizHandler {
     private static final String USER = "user";
     private static final String PAGE = "page";
     private static final String OFFSET = "offset";
-    private static final String NO_TRANSLATION = "No translation";
+    private static final String COUNT = "count";
 
-    private final WordsRepository wordsRepository;
+    private final QuizSnapshots quizSnapshots;
 
-    public QuizHandler(WordsRepository wordsRepository) {
-        this.wordsRepository = wordsRepository;
+    private final QuizGenerator quizGenerator;
+
+    private final AnswerRecorder answerRecorder;
+
+    private final ReviewScheduler reviewScheduler;
+
+    public QuizHandler(QuizSnapshots quizSnapshots, QuizGenerator quizGenerator, AnswerRecorder answerRecorder, ReviewScheduler reviewScheduler) {
+        this.quizSnapshots = quizSnapshots;
+        this.quizGenerator = quizGenerator;
+        this.answerRecorder = answerRecorder;
+        this.reviewScheduler = reviewScheduler;
     }
 
     public Mono<ServerResponse> sprint(ServerRequest serverRequest) {
@@ -38,36 +48,18 @@ public class QuizHandler {
         int page = Integer.parseInt(serverRequest.pathVariable(PAGE));
         int offset = Integer.parseInt(serverRequest.pathVariable(OFFSET));
 
-        return wordsRepository.findByUserAndCategory(user, category)
-                .collectList()
-                .flatMap(allWords ->
-                        Flux.fromIterable(allWords)
-                                .filter(word -> word.getAnswers() < 100)
-                                .skip(page * offset)
-                                .take(offset)
-                                .map(word -> {
-                                    double random = Math.random();
-                                    String answer = Double.compare(random, 0.55) > 0 ? findTranslation(word) : findTranslation(allWords.get((int) Math.random() * allWords.size()));
-                                    return new Sprint(word.getWord(), answer, word.getTranslation().contains(answer));
-                                }).collectList())
+        return quizSnapshots.get(user, category)
+                .map(snapshot -> quizGenerator.sprint(snapshot, page, offset))
                 .flatMap(questions -> ok().body(fromObject(questions)));
     }
 
-    private String findTranslation(Word word) {
-        return word.getTranslation().stream().findAny().get();
-    }
-
     public Mono<ServerResponse> crossword(ServerRequest serverRequest) {
         String user = serverRequest.pathVariable(USER);
         UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
         int page = Integer.parseInt(serverRequest.pathVariable(PAGE));
         int offset = Integer.parseInt(serverRequest.pathVariable(OFFSET));
-        return wordsRepository.findByUserAndCategory(user, category)
-                .filter(word -> word.getAnswers() < 100)
-                .skip(page * offset)
-                .take(offset)
-                .map(word -> new Crossword(word.getWord(), findTranslation(word)))
-                .collectList()
+        return quizSnapshots.get(user, category)
+                .map(snapshot -> quizGenerator.crossword(snapshot, page, offset))
                 .flatMap(questions -> ok().body(fromObject(questions)));
     }
 
@@ -76,47 +68,49 @@ public class QuizHandler {
         UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
         int page = Integer.parseInt(serverRequest.pathVariable(PAGE));
         int offset = Integer.parseInt(serverRequest.pathVariable(OFFSET));
-        return wordsRepository.findByUserAndCategory(user, category)
-                .collectList()
-                .flatMap(allWords -> {
-                    Set<String> allAnswers = allWords.stream().flatMap(word -> word.getTranslation().stream()).collect(Collectors.toSet());
-                    return Flux.fromIterable(allWords)
-                            .filter(word -> word.getAnswers() < 100)
-                            .skip(page * offset)
-                            .take(offset)
-                            .map(word -> {
-                                Set<String> answers = generateAnswers(allAnswers, word.getTranslation());
-                                String correctAnswer = addCorrectAnswer(answers, word.getTranslation());
-                                return new Guess(word.getWord(), answers, correctAnswer);
-                            })
-                            .collectList();
-                })
+        return quizSnapshots.get(user, category)
+                .map(snapshot -> quizGenerator.guess(snapshot, page, offset))
                 .flatMap(questions -> ok().body(fromObject(questions)));
     }
 
-    private String addCorrectAnswer(Set<String> answers, Set<String> correctAnswers) {
-
-        String correctAnswer = correctAnswers.stream().findAny().orElse(NO_TRANSLATION);
-
-        while (answers.size() < 4) {
-            answers.add(correctAnswer);
-        }
-
-        return correctAnswer;
+    public Mono<ServerResponse> answers(ServerRequest serverRequest) {
+        String user = serverRequest.pathVariable(USER);
+        UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
+        return serverRequest.bodyToFlux(Answer.class)
+                .collectList()
+                .flatMap(answers -> {
+                    if (answers.isEmpty() || answers.stream().anyMatch(answer -> answer.getWord() == null)) {
+                        return badRequest().body(Mono.just("Answers aren't specified correctly"), String.class);
+                    }
+                    answerRecorder.record(user, category, answers);
+                    return accepted().build();
+                });
     }
 
-    private Set<String> generateAnswers(Set<String> allWords, Set<String> filter) {
-
-        Set<String> answers = new HashSet<>();
-        List<String> wrongAnswers = allWords.stream().filter(word -> !filter.contains(word)).collect(Collectors.toList());
-
-        Random random = new Random();
-        while (!wrongAnswers.isEmpty() && answers.size() < 3) {
-            int index = random.nextInt(wrongAnswers.size());
-            answers.add(wrongAnswers.get(index));
-            wrongAnswers.remove(index);
+    public Mono<ServerResponse> due(ServerRequest serverRequest) {
+        String user = serverRequest.pathVariable(USER);
+        UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
+        int count = Integer.parseInt(serverRequest.pathVariable(COUNT));
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count should be positive");
         }
+        return reviewScheduler.due(user, category, count)
+                .map(due -> new Flashcard(due.getWord(), due.getTranslation()))
+                .collectList()
+                .flatMap(questions -> ok().body(fromObject(questions)));
+    }
 
-        return answers;
+    public Mono<ServerResponse> reviews(ServerRequest serverRequest) {
+        String user = serverRequest.pathVariable(USER);
+        UUID category = UUID.fromString(serverRequest.pathVariable(CATEGORY));
+        return serverRequest.bodyToFlux(Answer.class)
+                .collectList()
+                .flatMap(answers -> {
+                    if (answers.isEmpty() || answers.stream().anyMatch(answer -> answer.getWord() == null)) {
+                        return badRequest().body(Mono.just("Answers aren't specified correctly"), String.class);
+                    }
+                    return reviewScheduler.review(user, category, answers).collectList()
+                            .flatMap(states -> ok().body(fromObject(states)));
+                });
     }
 }
@@ -0,0 +1,77 @@
+package com.vings.words.handlers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON;
+import static org.springframework.web.reactive.function.BodyInserters.fromDataBuffers;
+import static org.springframework.web.reactive.function.server.ServerResponse.notFound;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+/**
+ * Writes a flux as it is read instead of collecting it: newline delimited JSON for {@code application/stream+json}
+ * clients, otherwise a JSON array written in chunks of {@link #CHUNK_SIZE} elements.
+ */
+@Component
+public class StreamResponses {
+
+    static final int CHUNK_SIZE = 64;
+
+    private final ObjectMapper objectMapper;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    public StreamResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> Mono<ServerResponse> okOrNotFound(ServerRequest serverRequest, Flux<T> elements, Class<T> elementClass) {
+        return PeekedFlux.peek(elements)
+                .flatMap(peeked -> {
+                    if (serverRequest.headers().accept().contains(APPLICATION_STREAM_JSON)) {
+                        return ok().contentType(APPLICATION_STREAM_JSON).body(peeked, elementClass);
+                    }
+                    return ok().contentType(APPLICATION_JSON).body(fromDataBuffers(jsonArray(peeked)));
+                })
+                .switchIfEmpty(notFound().build());
+    }
+
+    Flux<DataBuffer> jsonArray(Flux<?> elements) {
+        return elements.buffer(CHUNK_SIZE).index()
+                .map(chunk -> write(chunk.getT1() == 0 ? '[' : ',', chunk.getT2()))
+                .switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{'['})))
+                .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{']'})));
+    }
+
+    private DataBuffer write(char prefix, List<?> chunk) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        try (OutputStream output = buffer.asOutputStream();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            generator.writeRaw(prefix);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    generator.writeRaw(',');
+                }
+                objectMapper.writeValue(generator, chunk.get(i));
+            }
+        } catch (IOException exp) {
+            throw Exceptions.propagate(exp);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,80 @@
+package com.vings.words.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times every call of an interface as {@code name{method, outcome}}. Blocking calls are timed until they return,
+ * {@link Mono} and {@link Flux} results until they terminate.
+ */
+public final class TimedProxy implements InvocationHandler {
+
+    private final Object target;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String name;
+
+    private final Tags tags;
+
+    private TimedProxy(Object target, MeterRegistry meterRegistry, String name, Tags tags) {
+        this.target = target;
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.tags = tags;
+    }
+
+    public static <T> T of(Class<T> type, T target, MeterRegistry meterRegistry, String name, Tags tags) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new TimedProxy(target, meterRegistry, name, tags)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invoke(method, args);
+        }
+        Tags methodTags = tags.and("method", method.getName());
+        if (Mono.class.isAssignableFrom(method.getReturnType())) {
+            return Timers.time(Mono.defer(() -> invokeReactive(method, args)), meterRegistry, name, methodTags);
+        }
+        if (Flux.class.isAssignableFrom(method.getReturnType())) {
+            return Timers.time(Flux.defer(() -> invokeReactive(method, args)), meterRegistry, name, methodTags);
+        }
+        Timers.Recording recording = new Timers.Recording(meterRegistry, name, methodTags);
+        try {
+            Object result = invoke(method, args);
+            recording.stop("success");
+            return result;
+        } catch (Throwable exp) {
+            recording.stop("error");
+            throw exp;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> P invokeReactive(Method method, Object[] args) {
+        try {
+            return (P) invoke(method, args);
+        } catch (RuntimeException | Error exp) {
+            throw exp;
+        } catch (Throwable exp) {
+            throw new IllegalStateException(exp);
+        }
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exp) {
+            throw exp.getCause();
+        }
+    }
+}
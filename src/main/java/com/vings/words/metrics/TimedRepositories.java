@@ -0,0 +1,35 @@
+package com.vings.words.metrics;
+
+import com.vings.words.repository.CategoryRepository;
+import com.vings.words.repository.WordsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps repositories into {@link TimedProxy}, calls are timed as {@code cassandra.repository{repository, method, outcome}}.
+ */
+@Component
+public class TimedRepositories implements BeanPostProcessor {
+
+    private static final String METRIC = "cassandra.repository";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public TimedRepositories(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof WordsRepository) {
+            return TimedProxy.of(WordsRepository.class, (WordsRepository) bean, meterRegistry.getObject(), METRIC, Tags.of("repository", "word"));
+        }
+        if (bean instanceof CategoryRepository) {
+            return TimedProxy.of(CategoryRepository.class, (CategoryRepository) bean, meterRegistry.getObject(), METRIC, Tags.of("repository", "category"));
+        }
+        return bean;
+    }
+}
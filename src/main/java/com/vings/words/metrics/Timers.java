@@ -0,0 +1,67 @@
+package com.vings.words.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times reactive calls from subscription to termination, tagged with {@code outcome}
+ * of {@code success}, {@code error} or {@code cancel}. Calls are recorded before the terminal signal is passed on.
+ */
+public final class Timers {
+
+    private Timers() {
+
+    }
+
+    public static <T> Mono<T> time(Mono<T> call, MeterRegistry meterRegistry, String name, Tags tags) {
+        return Mono.defer(() -> {
+            Recording recording = new Recording(meterRegistry, name, tags);
+            return call.doOnSuccess(value -> recording.stop("success"))
+                    .doOnError(exp -> recording.stop("error"))
+                    .doOnCancel(() -> recording.stop("cancel"));
+        });
+    }
+
+    public static <T> Flux<T> time(Flux<T> call, MeterRegistry meterRegistry, String name, Tags tags) {
+        return Flux.defer(() -> {
+            Recording recording = new Recording(meterRegistry, name, tags);
+            return call.doOnComplete(() -> recording.stop("success"))
+                    .doOnError(exp -> recording.stop("error"))
+                    .doOnCancel(() -> recording.stop("cancel"));
+        });
+    }
+
+    /**
+     * Records a call once, a cancel following the value of a {@link Mono} isn't counted again.
+     */
+    static final class Recording {
+
+        private final MeterRegistry meterRegistry;
+
+        private final String name;
+
+        private final Tags tags;
+
+        private final Timer.Sample sample;
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Recording(MeterRegistry meterRegistry, String name, Tags tags) {
+            this.meterRegistry = meterRegistry;
+            this.name = name;
+            this.tags = tags;
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        void stop(String outcome) {
+            if (stopped.compareAndSet(false, true)) {
+                sample.stop(meterRegistry.timer(name, tags.and("outcome", outcome)));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Outbox entry of an object which is no longer referenced and waits for the blob collector. Entries of a shard
+ * are clustered by due date, so a poll reads only due entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("blob_outbox")
+public class BlobDeletion {
+
+    @PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+    private int shard;
+
+    @PrimaryKeyColumn(ordinal = 2, type = PrimaryKeyType.CLUSTERED, ordering = Ordering.ASCENDING)
+    private UUID id;
+
+    private String bucket;
+
+    private String key;
+
+    private int attempts;
+
+    @PrimaryKeyColumn(ordinal = 1, type = PrimaryKeyType.CLUSTERED, ordering = Ordering.ASCENDING)
+    private Date due;
+}
@@ -0,0 +1,30 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk delete: number of removed objects and keys which are still stored.
+ */
+@Data
+@AllArgsConstructor
+public class DeleteReport {
+
+    private int deleted;
+
+    private List<String> failed;
+
+    public static DeleteReport empty() {
+        return new DeleteReport(0, Collections.emptyList());
+    }
+
+    public DeleteReport plus(DeleteReport other) {
+        List<String> allFailed = new ArrayList<>(failed);
+        allFailed.addAll(other.failed);
+        return new DeleteReport(deleted + other.deleted, allFailed);
+    }
+}
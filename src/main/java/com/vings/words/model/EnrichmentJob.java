@@ -0,0 +1,37 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Queued enrichment of a saved word. Jobs of a shard are clustered by due date, so a poll reads only due jobs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrichmentJob {
+
+    @PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+    private int shard;
+
+    @PrimaryKeyColumn(ordinal = 2, type = PrimaryKeyType.CLUSTERED, ordering = Ordering.ASCENDING)
+    private UUID id;
+
+    private String user;
+
+    private UUID category;
+
+    private String word;
+
+    private int attempts;
+
+    @PrimaryKeyColumn(ordinal = 1, type = PrimaryKeyType.CLUSTERED, ordering = Ordering.ASCENDING)
+    private Date due;
+}
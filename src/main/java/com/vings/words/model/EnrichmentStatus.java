@@ -0,0 +1,7 @@
+package com.vings.words.model;
+
+public enum EnrichmentStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
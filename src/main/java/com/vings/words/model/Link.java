@@ -2,9 +2,11 @@ package com.vings.words.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.data.cassandra.core.mapping.UserDefinedType;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @UserDefinedType
 public class Link {
@@ -0,0 +1,21 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * New review state of a word together with what is needed to move its due_words row.
+ */
+@Data
+@AllArgsConstructor
+public class Reschedule {
+
+    private ReviewState state;
+
+    private Date previousDue;
+
+    private Set<String> translation;
+}
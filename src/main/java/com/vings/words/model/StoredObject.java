@@ -0,0 +1,15 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+public class StoredObject {
+
+    private String key;
+
+    private Date lastModified;
+}
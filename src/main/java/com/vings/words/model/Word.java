@@ -34,6 +34,8 @@ public class Word {
 
     private Set<Example> examples;
 
+    private EnrichmentStatus enrichment;
+
     private Word() {
 
     }
@@ -47,6 +49,7 @@ public class Word {
         this.image = wordBuilder.image;
         this.speech = wordBuilder.speech;
         this.examples = wordBuilder.examples;
+        this.enrichment = wordBuilder.enrichment;
     }
 
     public boolean learned() {
@@ -70,6 +73,8 @@ public class Word {
 
         private Set<Example> examples;
 
+        private EnrichmentStatus enrichment;
+
         public WordBuilder(String user, UUID category, String word) {
             this.user = user;
             this.category = category;
@@ -101,6 +106,11 @@ public class Word {
             return this;
         }
 
+        public WordBuilder withEnrichment(EnrichmentStatus enrichment) {
+            this.enrichment = enrichment;
+            return this;
+        }
+
         public Word build() {
             return new Word(this);
         }
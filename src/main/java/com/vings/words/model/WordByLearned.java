@@ -0,0 +1,43 @@
+package com.vings.words.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("word_by_learned")
+public class WordByLearned {
+
+    @PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+    private String user;
+
+    @PrimaryKeyColumn(ordinal = 1, type = PrimaryKeyType.PARTITIONED)
+    private UUID category;
+
+    @PrimaryKeyColumn(ordinal = 2, type = PrimaryKeyType.PARTITIONED)
+    private boolean learned;
+
+    @PrimaryKeyColumn(ordinal = 3, type = PrimaryKeyType.CLUSTERED, ordering = Ordering.ASCENDING)
+    private String word;
+
+    private int answers;
+
+    private Set<String> translation;
+
+    public static WordByLearned of(Word word) {
+        return new WordByLearned(word.getUser(), word.getCategory(), word.learned(), word.getWord(), word.getAnswers(), word.getTranslation());
+    }
+
+    public Word toWord() {
+        return new Word.WordBuilder(user, category, word).withAnswers(answers).withTranslation(translation).build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.vings.words.model.quiz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Answer {
+
+    private String word;
+    private boolean correct;
+}
@@ -0,0 +1,16 @@
+package com.vings.words.model.quiz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Flashcard {
+
+    private String word;
+    private Set<String> translation;
+}
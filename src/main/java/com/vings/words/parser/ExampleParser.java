@@ -1,9 +1,13 @@
 package com.vings.words.parser;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.vings.words.model.Example;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -12,6 +16,8 @@ import java.util.function.Function;
 @Component
 public class ExampleParser {
 
+    private final JsonFactory jsonFactory = new JsonFactory();
+
     public Set<Example> parse(JsonNode jsonNode) {
 
         if (jsonNode == null) {
@@ -38,6 +44,32 @@ public class ExampleParser {
         return examples;
     }
 
+    /**
+     * Same extraction as {@link #parse(JsonNode)} straight from the response bytes: only headwords, definitions and
+     * example texts are read, all other values are skipped token by token without building a tree.
+     */
+    public Set<Example> parse(byte[] response) throws IOException {
+        Set<Example> examples = new HashSet<>();
+
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return examples;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "results".equals(field)) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        examples.add(parseResult(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return examples;
+    }
+
     private Set<String> parseArray(JsonNode node, Function<JsonNode, String> converter) {
         Set<String> result = new HashSet<>();
         for (JsonNode elem : node) {
@@ -45,4 +77,87 @@ public class ExampleParser {
         }
         return result;
     }
+
+    private Example parseResult(JsonParser parser) throws IOException {
+        String word = "";
+        Set<String> definitions = new HashSet<>();
+        Set<String> sentences = new HashSet<>();
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new Example(word, definitions, sentences);
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("headword".equals(field)) {
+                word = asText(parser);
+            } else if ("senses".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parseSense(parser, definitions, sentences);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new Example(word, definitions, sentences);
+    }
+
+    private void parseSense(JsonParser parser, Set<String> definitions, Set<String> sentences) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if ("definition".equals(field)) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    definitions.add(asText(parser));
+                }
+            } else if ("examples".equals(field)) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    sentences.add(exampleText(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Text of an example object, {@code null} when it has none, as {@code path("text").textValue()} gives on a tree.
+     */
+    private String exampleText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("text".equals(field)) {
+                text = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            }
+            parser.skipChildren();
+        }
+        return text;
+    }
+
+    /**
+     * Scalars as their text, containers skipped as empty, as {@link JsonNode#asText()} gives on a tree.
+     */
+    private String asText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return "";
+    }
 }
@@ -1,8 +1,11 @@
 package com.vings.words.parser;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.core.ResolvableType;
-import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.multipart.Part;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -12,9 +15,21 @@ import java.util.Collections;
 @Component
 public class MultipartParser {
 
-    public Mono<String> parse(Part part, Class partClass) {
-        return part == null ? Mono.empty() : StringDecoder.textPlainOnly(false).decodeToMono(part.content(),
-                ResolvableType.forClass(partClass), MediaType.TEXT_PLAIN,
-                Collections.emptyMap());
+    private final Jackson2JsonDecoder decoder;
+
+    public MultipartParser(ObjectMapper objectMapper) {
+        this.decoder = new Jackson2JsonDecoder(objectMapper);
+    }
+
+    /**
+     * Decodes a JSON part straight from its buffers with the application's mapper; malformed JSON surfaces as
+     * a {@link DecodingException}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> parse(Part part, Class<T> partClass) {
+        return part == null ? Mono.empty() : (Mono<T>) decoder.decodeToMono(part.content(),
+                ResolvableType.forClass(partClass), MediaType.APPLICATION_JSON,
+                Collections.emptyMap())
+                .onErrorMap(JsonProcessingException.class, exp -> new DecodingException("JSON decoding error: " + exp.getOriginalMessage(), exp));
     }
 }
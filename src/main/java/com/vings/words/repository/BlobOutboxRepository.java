@@ -0,0 +1,9 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.BlobDeletion;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BlobOutboxRepository extends ReactiveCassandraRepository<BlobDeletion, String>, BlobOutboxRepositoryCustom {
+}
@@ -0,0 +1,21 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.BlobDeletion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+public interface BlobOutboxRepositoryCustom {
+
+    /**
+     * Reads up to limit entries of the shard which are due, earliest first.
+     */
+    Flux<BlobDeletion> findDue(int shard, Date now, int limit);
+
+    /**
+     * Moves the entry to {@code due} with its current attempts only if nobody else has moved it since it was read,
+     * so an entry is claimed by one collector only.
+     */
+    Mono<Boolean> move(BlobDeletion deletion, Date due);
+}
@@ -0,0 +1,64 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.vings.words.model.BlobDeletion;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * The due date is a clustering column, so an entry is moved by deleting and inserting its row with one conditional
+ * batch of its shard.
+ */
+class BlobOutboxRepositoryImpl implements BlobOutboxRepositoryCustom {
+
+    private static final String TABLE = "blob_outbox";
+
+    private static final CqlStatement FIND_DUE = CqlStatement.read("blob_outbox.findDue", TABLE,
+            "SELECT * FROM blob_outbox WHERE shard = ? AND due <= ? LIMIT ?;");
+    private static final CqlStatement DELETE_IF_EXISTS = new CqlStatement("blob_outbox.deleteIfExists", TABLE,
+            "DELETE FROM blob_outbox WHERE shard = ? AND due = ? AND id = ? IF EXISTS;");
+    private static final CqlStatement INSERT = new CqlStatement("blob_outbox.insert", TABLE,
+            "INSERT INTO blob_outbox (shard, due, id, bucket, key, attempts) VALUES (?, ?, ?, ?, ?, ?);");
+    private static final String MOVE = "blob_outbox.move";
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    BlobOutboxRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(FIND_DUE, DELETE_IF_EXISTS, INSERT);
+    }
+
+    @Override
+    public Flux<BlobDeletion> findDue(int shard, Date now, int limit) {
+        return statements.query(FIND_DUE, shard, now, limit)
+                .map(row -> cassandraOperations.getConverter().read(BlobDeletion.class, row));
+    }
+
+    @Override
+    public Mono<Boolean> move(BlobDeletion deletion, Date due) {
+        return Flux.concat(statements.bind(DELETE_IF_EXISTS, deletion.getShard(), deletion.getDue(), deletion.getId()),
+                statements.bind(INSERT, deletion.getShard(), due, deletion.getId(), deletion.getBucket(), deletion.getKey(), deletion.getAttempts()))
+                .collect(() -> new BatchStatement(BatchStatement.Type.UNLOGGED), BatchStatement::add)
+                .flatMap(batch -> statements.execute(MOVE, batch))
+                .doOnNext(moved -> {
+                    if (moved) {
+                        deletion.setDue(due);
+                    }
+                });
+    }
+
+    /**
+     * Outbox insert for logged batches which drop the last reference to an object.
+     */
+    static Mono<BoundStatement> insert(PreparedStatements statements, BlobDeletion deletion) {
+        return statements.bind(INSERT, deletion.getShard(), deletion.getDue(), deletion.getId(), deletion.getBucket(), deletion.getKey(),
+                deletion.getAttempts());
+    }
+}
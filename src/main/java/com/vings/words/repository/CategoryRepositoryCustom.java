@@ -0,0 +1,33 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.Category;
+import com.vings.words.model.Link;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface CategoryRepositoryCustom {
+
+    Flux<Category> findByUser(String user);
+
+    Mono<Category> findByUserAndTitle(String user, String title);
+
+    /**
+     * Checks existence and inserts with one conditional statement.
+     *
+     * @return false when the row already exists
+     */
+    Mono<Boolean> insertIfNotExists(Category category);
+
+    /**
+     * Deletes the category and records its objects in the blob outbox with one logged batch.
+     */
+    Mono<Boolean> delete(Category category, List<BlobDeletion> blobs);
+
+    /**
+     * Points the category to a new image and records replaced objects in the blob outbox with one logged batch.
+     */
+    Mono<Boolean> replaceImage(Category category, Link image, List<BlobDeletion> blobs);
+}
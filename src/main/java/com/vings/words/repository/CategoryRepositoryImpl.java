@@ -0,0 +1,74 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.Row;
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.Category;
+import com.vings.words.model.Link;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    private static final String TABLE = "category";
+
+    private static final CqlStatement FIND_BY_USER = CqlStatement.read("category.findByUser", TABLE,
+            "SELECT * FROM category WHERE user = ?;");
+    private static final CqlStatement FIND_BY_TITLE = CqlStatement.read("category.findByTitle", TABLE,
+            "SELECT * FROM category WHERE user = ? AND title = ?;");
+    private static final CqlStatement INSERT = new CqlStatement("category.insert", TABLE,
+            "INSERT INTO category (user, title, id, image) VALUES (?, ?, ?, ?) IF NOT EXISTS;");
+    private static final CqlStatement DELETE = new CqlStatement("category.delete", TABLE,
+            "DELETE FROM category WHERE user = ? AND title = ?;");
+    private static final CqlStatement UPDATE_IMAGE = new CqlStatement("category.updateImage", TABLE,
+            "UPDATE category SET image = {key: ?, url: ?} WHERE user = ? AND title = ?;");
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    CategoryRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(FIND_BY_USER, FIND_BY_TITLE, INSERT, DELETE, UPDATE_IMAGE);
+    }
+
+    @Override
+    public Flux<Category> findByUser(String user) {
+        return statements.query(FIND_BY_USER, user).map(this::category);
+    }
+
+    @Override
+    public Mono<Category> findByUserAndTitle(String user, String title) {
+        return statements.query(FIND_BY_TITLE, user, title).map(this::category).next();
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Category category) {
+        return statements.update(INSERT, category.getUser(), category.getTitle(), category.getId(), column(category.getImage()));
+    }
+
+    @Override
+    public Mono<Boolean> delete(Category category, List<BlobDeletion> blobs) {
+        return statements.loggedBatch(DELETE.getName(), statements.bind(DELETE, category.getUser(), category.getTitle()), blobs);
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Category category, Link image, List<BlobDeletion> blobs) {
+        return statements.loggedBatch(UPDATE_IMAGE.getName(), statements.bind(UPDATE_IMAGE, image.getKey(), image.getUrl(),
+                category.getUser(), category.getTitle()), blobs);
+    }
+
+    /**
+     * Mapped values, e.g. user defined types, are bound as the driver types they are stored as.
+     */
+    private Object column(Object value) {
+        return value == null ? null : cassandraOperations.getConverter().convertToColumnType(value);
+    }
+
+    private Category category(Row row) {
+        return cassandraOperations.getConverter().read(Category.class, row);
+    }
+}
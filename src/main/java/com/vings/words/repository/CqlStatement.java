@@ -0,0 +1,34 @@
+package com.vings.words.repository;
+
+import lombok.Data;
+
+/**
+ * Statement prepared once by {@link PreparedStatements}; the name tags its metrics and the table is used
+ * to prepare it again after the table schema changes. Only idempotent statements are executed speculatively.
+ */
+@Data
+class CqlStatement {
+
+    private final String name;
+
+    private final String table;
+
+    private final String cql;
+
+    private final boolean idempotent;
+
+    CqlStatement(String name, String table, String cql) {
+        this(name, table, cql, false);
+    }
+
+    CqlStatement(String name, String table, String cql, boolean idempotent) {
+        this.name = name;
+        this.table = table;
+        this.cql = cql;
+        this.idempotent = idempotent;
+    }
+
+    static CqlStatement read(String name, String table, String cql) {
+        return new CqlStatement(name, table, cql, true);
+    }
+}
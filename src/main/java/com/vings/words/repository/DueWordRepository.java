@@ -0,0 +1,25 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.DueWord;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Repository
+public interface DueWordRepository extends ReactiveCassandraRepository<DueWord, String> {
+
+    @Query("SELECT * FROM due_words WHERE user = :user AND category = :category AND due <= :now LIMIT :limit;")
+    Flux<DueWord> findDue(@Param("user") String user, @Param("category") UUID category, @Param("now") Date now, @Param("limit") int limit);
+
+    @Query("DELETE FROM due_words WHERE user = :user AND category = :category AND due = :due AND word = :word;")
+    Mono<DueWord> deleteWord(@Param("user") String user, @Param("category") UUID category, @Param("due") Date due, @Param("word") String word);
+
+    @Query("DELETE FROM due_words WHERE user = :user AND category = :category;")
+    Flux<DueWord> deleteByUserAndCategory(@Param("user") String user, @Param("category") UUID category);
+}
@@ -0,0 +1,21 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.EnrichmentJob;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+public interface EnrichmentJobRepositoryCustom {
+
+    /**
+     * Reads up to limit jobs of the shard which are due, earliest first.
+     */
+    Flux<EnrichmentJob> findDue(int shard, Date now, int limit);
+
+    /**
+     * Moves the job to {@code due} with its current attempts only if nobody else has moved it since it was read,
+     * so a job is claimed by one poller only.
+     */
+    Mono<Boolean> move(EnrichmentJob job, Date due);
+}
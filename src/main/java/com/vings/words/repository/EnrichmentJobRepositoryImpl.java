@@ -0,0 +1,55 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.vings.words.model.EnrichmentJob;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * The due date is a clustering column, so a job is moved by deleting and inserting its row with one conditional
+ * batch of its shard.
+ */
+class EnrichmentJobRepositoryImpl implements EnrichmentJobRepositoryCustom {
+
+    private static final String TABLE = "enrichmentjob";
+
+    private static final CqlStatement FIND_DUE = CqlStatement.read("enrichmentjob.findDue", TABLE,
+            "SELECT * FROM enrichmentjob WHERE shard = ? AND due <= ? LIMIT ?;");
+    private static final CqlStatement DELETE_IF_EXISTS = new CqlStatement("enrichmentjob.deleteIfExists", TABLE,
+            "DELETE FROM enrichmentjob WHERE shard = ? AND due = ? AND id = ? IF EXISTS;");
+    private static final CqlStatement INSERT = new CqlStatement("enrichmentjob.insert", TABLE,
+            "INSERT INTO enrichmentjob (shard, due, id, user, category, word, attempts) VALUES (?, ?, ?, ?, ?, ?, ?);");
+    private static final String MOVE = "enrichmentjob.move";
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    EnrichmentJobRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(FIND_DUE, DELETE_IF_EXISTS, INSERT);
+    }
+
+    @Override
+    public Flux<EnrichmentJob> findDue(int shard, Date now, int limit) {
+        return statements.query(FIND_DUE, shard, now, limit)
+                .map(row -> cassandraOperations.getConverter().read(EnrichmentJob.class, row));
+    }
+
+    @Override
+    public Mono<Boolean> move(EnrichmentJob job, Date due) {
+        return Flux.concat(statements.bind(DELETE_IF_EXISTS, job.getShard(), job.getDue(), job.getId()),
+                statements.bind(INSERT, job.getShard(), due, job.getId(), job.getUser(), job.getCategory(), job.getWord(), job.getAttempts()))
+                .collect(() -> new BatchStatement(BatchStatement.Type.UNLOGGED), BatchStatement::add)
+                .flatMap(batch -> statements.execute(MOVE, batch))
+                .doOnNext(moved -> {
+                    if (moved) {
+                        job.setDue(due);
+                    }
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.ExampleByHeadword;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExampleByHeadwordRepository extends ReactiveCassandraRepository<ExampleByHeadword, String> {
+}
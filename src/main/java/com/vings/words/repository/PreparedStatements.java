@@ -0,0 +1,199 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.SchemaChangeListenerBase;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.vings.words.model.BlobDeletion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.cassandra.ReactiveResultSet;
+import org.springframework.data.cassandra.ReactiveSession;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of hot repository statements: each one is prepared once, bound by index and timed
+ * as {@code cassandra.statement{statement=name}}. Statements registered by repository fragments are prepared
+ * when the application is ready; a statement is prepared again when its table changes or the server no longer knows it.
+ */
+@Component
+@ConditionalOnProperty(name = "cassandra.enabled", matchIfMissing = true)
+class PreparedStatements {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreparedStatements.class);
+
+    private final ReactiveSession session;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Prepared> statements = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    PreparedStatements(ReactiveSession session, MeterRegistry meterRegistry) {
+        this.session = session;
+        this.meterRegistry = meterRegistry;
+        session.getCluster().register(new SchemaChangeListenerBase() {
+            @Override
+            public void onTableChanged(TableMetadata current, TableMetadata previous) {
+                invalidate(current.getName());
+            }
+
+            @Override
+            public void onTableRemoved(TableMetadata table) {
+                invalidate(table.getName());
+            }
+        });
+    }
+
+    void register(CqlStatement... cqlStatements) {
+        for (CqlStatement statement : cqlStatements) {
+            prepared(statement);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareAll() {
+        Flux.fromIterable(statements.values())
+                .flatMap(Prepared::get)
+                .count()
+                .subscribe(count -> LOG.info("Prepared {} statements", count),
+                        exp -> LOG.warn("Statement preparation failed, statements are prepared on first use", exp));
+    }
+
+    Flux<Row> query(CqlStatement statement, Object... values) {
+        return execute(statement, values).flatMapMany(ReactiveResultSet::rows);
+    }
+
+    /**
+     * @return {@code [applied]} of a conditional statement, true for other statements
+     */
+    Mono<Boolean> update(CqlStatement statement, Object... values) {
+        return execute(statement, values).map(ReactiveResultSet::wasApplied);
+    }
+
+    Mono<BoundStatement> bind(CqlStatement statement, Object... values) {
+        return prepared(statement).get().map(prepared -> prepared.bind(values));
+    }
+
+    /**
+     * Executes a statement built from bound statements, e.g. a batch, timed under the given name.
+     */
+    Mono<Boolean> execute(String name, Statement statement) {
+        return timed(name, session.execute(statement)).map(ReactiveResultSet::wasApplied);
+    }
+
+    /**
+     * Applies mutations together with blob outbox inserts for the objects they drop the last reference to.
+     */
+    Mono<Boolean> loggedBatch(String name, Publisher<BoundStatement> mutations, List<BlobDeletion> blobs) {
+        return Flux.concat(mutations, Flux.fromIterable(blobs).concatMap(blob -> BlobOutboxRepositoryImpl.insert(this, blob)))
+                .collect(() -> new BatchStatement(BatchStatement.Type.LOGGED), BatchStatement::add)
+                .flatMap(batch -> execute(name, batch));
+    }
+
+    private Mono<ReactiveResultSet> execute(CqlStatement statement, Object... values) {
+        Prepared prepared = prepared(statement);
+        Mono<PreparedStatement> used = prepared.current;
+        return timed(statement.getName(), prepared.watch(used)
+                .flatMap(preparedStatement -> session.execute(preparedStatement.bind(values)))
+                .onErrorResume(PreparedStatements::unprepared, exp -> {
+                    LOG.warn("Statement {} is unknown to the server, preparing it again", statement.getName(), exp);
+                    return prepared.reprepare(used).flatMap(preparedStatement -> session.execute(preparedStatement.bind(values)));
+                }));
+    }
+
+    /**
+     * The driver prepares a statement the server lost by itself and reports it as unknown only when that fails,
+     * other rejections are query errors which preparing again doesn't fix.
+     */
+    static boolean unprepared(Throwable exp) {
+        return (exp instanceof InvalidQueryException || exp instanceof DriverInternalError)
+                && exp.getMessage() != null && exp.getMessage().toLowerCase(Locale.ROOT).contains("prepared query");
+    }
+
+    private <T> Mono<T> timed(String name, Mono<T> execution) {
+        Timer timer = timers.computeIfAbsent(name, key -> Timer.builder("cassandra.statement").tag("statement", key).register(meterRegistry));
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return execution.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Prepared prepared(CqlStatement statement) {
+        return statements.computeIfAbsent(statement.getName(), name -> new Prepared(statement));
+    }
+
+    private void invalidate(String table) {
+        statements.values().stream()
+                .filter(prepared -> prepared.statement.getTable().equals(table))
+                .forEach(prepared -> prepared.reprepare(prepared.current));
+    }
+
+    private final class Prepared {
+
+        private final CqlStatement statement;
+
+        private final Counter prepares;
+
+        private volatile Mono<PreparedStatement> current;
+
+        private Prepared(CqlStatement statement) {
+            this.statement = statement;
+            this.prepares = meterRegistry.counter("cassandra.statement.prepares", "statement", statement.getName());
+            this.current = prepare();
+        }
+
+        Mono<PreparedStatement> get() {
+            return watch(current);
+        }
+
+        /**
+         * A failed preparation isn't cached, the next call prepares the statement again.
+         */
+        Mono<PreparedStatement> watch(Mono<PreparedStatement> prepared) {
+            return prepared.doOnError(exp -> reset(prepared));
+        }
+
+        /**
+         * Prepares the statement again unless someone already replaced the stale preparation.
+         */
+        Mono<PreparedStatement> reprepare(Mono<PreparedStatement> stale) {
+            reset(stale);
+            return get();
+        }
+
+        private synchronized void reset(Mono<PreparedStatement> stale) {
+            if (current == stale) {
+                current = prepare();
+            }
+        }
+
+        private Mono<PreparedStatement> prepare() {
+            return Mono.defer(() -> {
+                prepares.increment();
+                return session.prepare(statement.getCql());
+            }).doOnNext(prepared -> prepared.setIdempotent(statement.isIdempotent())).cache();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.ReviewState;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReviewStateRepository extends ReactiveCassandraRepository<ReviewState, String>, ReviewStateRepositoryCustom {
+
+    Mono<ReviewState> findByUserAndCategoryAndWord(String user, UUID category, String word);
+
+    @Query("SELECT * FROM review_state WHERE user = :user AND category = :category AND word IN :words;")
+    Flux<ReviewState> findByWords(@Param("user") String user, @Param("category") UUID category, @Param("words") List<String> words);
+
+    @Query("DELETE FROM review_state WHERE user = :user AND category = :category;")
+    Flux<ReviewState> deleteByUserAndCategory(@Param("user") String user, @Param("category") UUID category);
+}
@@ -0,0 +1,17 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.Reschedule;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public interface ReviewStateRepositoryCustom {
+
+    /**
+     * Stores each new review state only if the stored one is still due at the previous due, or doesn't exist yet
+     * when there is no previous due, then moves its due_words row.
+     *
+     * @return reschedules which were applied, the others lost a race with a concurrent review or removal
+     */
+    Flux<Reschedule> reschedule(List<Reschedule> reschedules);
+}
@@ -0,0 +1,67 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.vings.words.model.Reschedule;
+import com.vings.words.model.ReviewState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * review_state is the source of truth: its row is written with a lightweight transaction on the previous due,
+ * which a conditional batch can't span together with due_words, and the due_words row is moved once it is applied.
+ */
+class ReviewStateRepositoryImpl implements ReviewStateRepositoryCustom {
+
+    private static final CqlStatement INSERT_STATE = new CqlStatement("review_state.insert", "review_state",
+            "INSERT INTO review_state (user, category, word, due, intervalmillis, streak) VALUES (?, ?, ?, ?, ?, ?) IF NOT EXISTS;");
+    private static final CqlStatement UPDATE_STATE = new CqlStatement("review_state.update", "review_state",
+            "UPDATE review_state SET due = ?, intervalmillis = ?, streak = ? WHERE user = ? AND category = ? AND word = ? IF due = ?;");
+    private static final CqlStatement DELETE_DUE = new CqlStatement("due_words.delete", "due_words",
+            "DELETE FROM due_words WHERE user = ? AND category = ? AND due = ? AND word = ?;");
+    private static final CqlStatement INSERT_DUE = new CqlStatement("due_words.insert", "due_words",
+            "INSERT INTO due_words (user, category, due, word, translation) VALUES (?, ?, ?, ?, ?);");
+    private static final String MOVE_DUE = "due_words.move";
+
+    private final PreparedStatements statements;
+
+    ReviewStateRepositoryImpl(PreparedStatements statements) {
+        this.statements = statements;
+        statements.register(INSERT_STATE, UPDATE_STATE, DELETE_DUE, INSERT_DUE);
+    }
+
+    @Override
+    public Flux<Reschedule> reschedule(List<Reschedule> reschedules) {
+        return Flux.fromIterable(reschedules)
+                .flatMap(reschedule -> writeState(reschedule)
+                        .filter(applied -> applied)
+                        .flatMap(applied -> moveDue(reschedule))
+                        .map(moved -> reschedule));
+    }
+
+    private Mono<Boolean> writeState(Reschedule reschedule) {
+        ReviewState state = reschedule.getState();
+        if (reschedule.getPreviousDue() == null) {
+            return statements.update(INSERT_STATE, state.getUser(), state.getCategory(), state.getWord(),
+                    state.getDue(), state.getIntervalMillis(), state.getStreak());
+        }
+        return statements.update(UPDATE_STATE, state.getDue(), state.getIntervalMillis(), state.getStreak(),
+                state.getUser(), state.getCategory(), state.getWord(), reschedule.getPreviousDue());
+    }
+
+    /**
+     * Both rows share the due_words partition, so the unlogged batch is applied atomically.
+     */
+    private Mono<Boolean> moveDue(Reschedule reschedule) {
+        ReviewState state = reschedule.getState();
+        Mono<BoundStatement> delete = reschedule.getPreviousDue() != null && !reschedule.getPreviousDue().equals(state.getDue())
+                ? statements.bind(DELETE_DUE, state.getUser(), state.getCategory(), reschedule.getPreviousDue(), state.getWord())
+                : Mono.empty();
+        return Flux.concat(delete, statements.bind(INSERT_DUE, state.getUser(), state.getCategory(), state.getDue(), state.getWord(),
+                reschedule.getTranslation()))
+                .collect(() -> new BatchStatement(BatchStatement.Type.UNLOGGED), BatchStatement::add)
+                .flatMap(batch -> statements.execute(MOVE_DUE, batch));
+    }
+}
@@ -0,0 +1,13 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.Speech;
+import reactor.core.publisher.Mono;
+
+public interface SpeechRepositoryCustom {
+
+    Mono<Boolean> insertIfNotExists(Speech speech);
+
+    Mono<Boolean> updateRefs(String hash, int expectedRefs, int refs);
+
+    Mono<Boolean> deleteIfRefs(String hash, int expectedRefs);
+}
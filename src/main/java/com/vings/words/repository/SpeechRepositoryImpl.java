@@ -0,0 +1,43 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.Speech;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Mono;
+
+class SpeechRepositoryImpl implements SpeechRepositoryCustom {
+
+    private static final String TABLE = "speech";
+
+    private static final CqlStatement INSERT = new CqlStatement("speech.insert", TABLE,
+            "INSERT INTO speech (hash, link, refs) VALUES (?, ?, ?) IF NOT EXISTS;");
+    private static final CqlStatement UPDATE_REFS = new CqlStatement("speech.updateRefs", TABLE,
+            "UPDATE speech SET refs = ? WHERE hash = ? IF refs = ?;");
+    private static final CqlStatement DELETE_IF_REFS = new CqlStatement("speech.deleteIfRefs", TABLE,
+            "DELETE FROM speech WHERE hash = ? IF refs = ?;");
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    SpeechRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(INSERT, UPDATE_REFS, DELETE_IF_REFS);
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Speech speech) {
+        return statements.update(INSERT, speech.getHash(), cassandraOperations.getConverter().convertToColumnType(speech.getLink()),
+                speech.getRefs());
+    }
+
+    @Override
+    public Mono<Boolean> updateRefs(String hash, int expectedRefs, int refs) {
+        return statements.update(UPDATE_REFS, refs, hash, expectedRefs);
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfRefs(String hash, int expectedRefs) {
+        return statements.update(DELETE_IF_REFS, hash, expectedRefs);
+    }
+}
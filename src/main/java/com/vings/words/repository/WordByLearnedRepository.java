@@ -0,0 +1,21 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.WordByLearned;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+public interface WordByLearnedRepository extends ReactiveCassandraRepository<WordByLearned, String>, WordByLearnedRepositoryCustom {
+
+    @Query("DELETE FROM word_by_learned WHERE user = :user AND category = :category AND learned = :learned AND word = :word;")
+    Mono<WordByLearned> deleteWord(@Param("user") String user, @Param("category") UUID category, @Param("learned") boolean learned, @Param("word") String word);
+
+    @Query("DELETE FROM word_by_learned WHERE user = :user AND category = :category AND learned IN (true, false);")
+    Flux<WordByLearned> deleteByUserAndCategory(@Param("user") String user, @Param("category") UUID category);
+}
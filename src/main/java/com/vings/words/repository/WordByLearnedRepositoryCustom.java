@@ -0,0 +1,34 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.WordByLearned;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface WordByLearnedRepositoryCustom {
+
+    Flux<WordByLearned> findByUserAndCategoryAndLearned(String user, UUID category, boolean learned);
+
+    /**
+     * Updates only an existing row, so a word read with a stale learned value doesn't create a row in the wrong partition.
+     *
+     * @return false when the row doesn't exist
+     */
+    Mono<Boolean> addTranslation(String user, UUID category, boolean learned, String word, Set<String> translation);
+
+    /**
+     * Updates only an existing row like {@link #addTranslation}.
+     *
+     * @return false when the row doesn't exist
+     */
+    Mono<Boolean> deleteTranslation(String user, UUID category, boolean learned, String word, Set<String> translation);
+
+    /**
+     * Writes rows of one (user, category) into their learned partition and removes them from the other one,
+     * with one unlogged batch per partition.
+     */
+    Mono<Void> reindex(String user, UUID category, List<WordByLearned> rows);
+}
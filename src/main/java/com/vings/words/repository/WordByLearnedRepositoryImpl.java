@@ -0,0 +1,69 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.vings.words.model.WordByLearned;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+class WordByLearnedRepositoryImpl implements WordByLearnedRepositoryCustom {
+
+    private static final String TABLE = "word_by_learned";
+
+    private static final CqlStatement FIND_BY_LEARNED = CqlStatement.read("word_by_learned.findByLearned", TABLE,
+            "SELECT * FROM word_by_learned WHERE user = ? AND category = ? AND learned = ?;");
+    private static final CqlStatement INSERT = new CqlStatement("word_by_learned.insert", TABLE,
+            "INSERT INTO word_by_learned (user, category, learned, word, answers, translation) VALUES (?, ?, ?, ?, ?, ?);");
+    private static final CqlStatement DELETE = new CqlStatement("word_by_learned.delete", TABLE,
+            "DELETE FROM word_by_learned WHERE user = ? AND category = ? AND learned = ? AND word = ?;");
+    private static final CqlStatement ADD_TRANSLATION = new CqlStatement("word_by_learned.addTranslation", TABLE,
+            "UPDATE word_by_learned SET translation = translation + ? WHERE user = ? AND category = ? AND learned = ? AND word = ? IF EXISTS;");
+    private static final CqlStatement DELETE_TRANSLATION = new CqlStatement("word_by_learned.deleteTranslation", TABLE,
+            "UPDATE word_by_learned SET translation = translation - ? WHERE user = ? AND category = ? AND learned = ? AND word = ? IF EXISTS;");
+    private static final String REINDEX = "word_by_learned.reindex";
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    WordByLearnedRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(FIND_BY_LEARNED, INSERT, DELETE, ADD_TRANSLATION, DELETE_TRANSLATION);
+    }
+
+    @Override
+    public Flux<WordByLearned> findByUserAndCategoryAndLearned(String user, UUID category, boolean learned) {
+        return statements.query(FIND_BY_LEARNED, user, category, learned)
+                .map(row -> cassandraOperations.getConverter().read(WordByLearned.class, row));
+    }
+
+    @Override
+    public Mono<Boolean> addTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return statements.update(ADD_TRANSLATION, translation, user, category, learned, word);
+    }
+
+    @Override
+    public Mono<Boolean> deleteTranslation(String user, UUID category, boolean learned, String word, Set<String> translation) {
+        return statements.update(DELETE_TRANSLATION, translation, user, category, learned, word);
+    }
+
+    @Override
+    public Mono<Void> reindex(String user, UUID category, List<WordByLearned> rows) {
+        return Mono.when(partition(user, category, true, rows), partition(user, category, false, rows));
+    }
+
+    private Mono<Boolean> partition(String user, UUID category, boolean learned, List<WordByLearned> rows) {
+        return Flux.fromIterable(rows)
+                .concatMap(row -> row.isLearned() == learned
+                        ? statements.bind(INSERT, user, category, learned, row.getWord(), row.getAnswers(), row.getTranslation())
+                        : statements.bind(DELETE, user, category, learned, row.getWord()))
+                .collect(() -> new BatchStatement(BatchStatement.Type.UNLOGGED), BatchStatement::add)
+                .filter(batch -> batch.size() > 0)
+                .flatMap(batch -> statements.execute(REINDEX, batch));
+    }
+}
@@ -0,0 +1,79 @@
+package com.vings.words.repository;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface WordsRepositoryCustom {
+
+    Flux<Word> findByUserAndCategory(String user, UUID category);
+
+    /**
+     * Reads up to limit words of the category following the given word.
+     */
+    Flux<Word> findPage(String user, UUID category, String after, int limit);
+
+    Flux<Word> findByWords(String user, UUID category, List<String> words);
+
+    Mono<Word> findByUserAndCategoryAndWord(String user, UUID category, String word);
+
+    Mono<Word> addTranslation(String user, UUID category, String word, Set<String> translation);
+
+    Mono<Word> deleteTranslation(String user, UUID category, String word, Set<String> translation);
+
+    /**
+     * Checks existence and inserts with one conditional statement.
+     *
+     * @return false when the row already exists
+     */
+    Mono<Boolean> insertIfNotExists(Word word);
+
+    /**
+     * Attaches speech and examples to an existing word only, so a word deleted meanwhile is not recreated.
+     *
+     * @return false when the word no longer exists
+     */
+    Mono<Boolean> enrich(String user, UUID category, String word, Link speech, Set<Example> examples, EnrichmentStatus enrichment);
+
+    /**
+     * @return false when the word no longer exists
+     */
+    Mono<Boolean> updateEnrichment(String user, UUID category, String word, EnrichmentStatus enrichment);
+
+    /**
+     * Sets answers of several words of one partition with a single conditional batch, each only if its answers are
+     * still the previous ones, so a concurrent write is not overwritten and words deleted meanwhile are not recreated.
+     *
+     * @return words whose answers were set
+     */
+    Mono<Set<String>> updateAnswers(String user, UUID category, Map<String, Integer> previous, Map<String, Integer> answers);
+
+    /**
+     * Deletes the word and records its objects in the blob outbox with one logged batch.
+     */
+    Mono<Boolean> delete(Word word, List<BlobDeletion> blobs);
+
+    /**
+     * Deletes words of one partition and records their objects in the blob outbox with one logged batch.
+     */
+    Mono<Boolean> deleteAll(List<Word> words, List<BlobDeletion> blobs);
+
+    /**
+     * Deletes the whole category partition, including words saved after it was read.
+     */
+    Mono<Void> deleteByUserAndCategory(String user, UUID category);
+
+    /**
+     * Points the word to a new image and records replaced objects in the blob outbox with one logged batch.
+     */
+    Mono<Boolean> replaceImage(Word word, Link image, List<BlobDeletion> blobs);
+}
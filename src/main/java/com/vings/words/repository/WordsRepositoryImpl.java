@@ -0,0 +1,163 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.Row;
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+class WordsRepositoryImpl implements WordsRepositoryCustom {
+
+    private static final String TABLE = "word";
+
+    private static final CqlStatement FIND_BY_CATEGORY = CqlStatement.read("word.findByCategory", TABLE,
+            "SELECT * FROM word WHERE user = ? AND category = ?;");
+    private static final CqlStatement FIND_PAGE = CqlStatement.read("word.findPage", TABLE,
+            "SELECT * FROM word WHERE user = ? AND category = ? AND word > ? LIMIT ?;");
+    private static final CqlStatement FIND_BY_WORDS = CqlStatement.read("word.findByWords", TABLE,
+            "SELECT * FROM word WHERE user = ? AND category = ? AND word IN ?;");
+    private static final CqlStatement FIND_WORD = CqlStatement.read("word.findWord", TABLE,
+            "SELECT * FROM word WHERE user = ? AND category = ? AND word = ?;");
+    private static final CqlStatement INSERT = new CqlStatement("word.insert", TABLE,
+            "INSERT INTO word (user, category, word, answers, translation, image, speech, examples, enrichment) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) IF NOT EXISTS;");
+    private static final CqlStatement ADD_TRANSLATION = new CqlStatement("word.addTranslation", TABLE,
+            "UPDATE word SET translation = translation + ? WHERE user = ? AND category = ? AND word = ?;");
+    private static final CqlStatement DELETE_TRANSLATION = new CqlStatement("word.deleteTranslation", TABLE,
+            "UPDATE word SET translation = translation - ? WHERE user = ? AND category = ? AND word = ?;");
+    private static final CqlStatement ENRICH = new CqlStatement("word.enrich", TABLE,
+            "UPDATE word SET speech = ?, examples = ?, enrichment = ? WHERE user = ? AND category = ? AND word = ? IF EXISTS;");
+    private static final CqlStatement UPDATE_ENRICHMENT = new CqlStatement("word.updateEnrichment", TABLE,
+            "UPDATE word SET enrichment = ? WHERE user = ? AND category = ? AND word = ? IF EXISTS;");
+    private static final CqlStatement UPDATE_ANSWERS = new CqlStatement("word.updateAnswers", TABLE,
+            "UPDATE word SET answers = ? WHERE user = ? AND category = ? AND word = ? IF answers = ?;");
+    private static final CqlStatement DELETE = new CqlStatement("word.delete", TABLE,
+            "DELETE FROM word WHERE user = ? AND category = ? AND word = ?;");
+    private static final String DELETE_ALL = "word.deleteAll";
+    private static final CqlStatement DELETE_PARTITION = new CqlStatement("word.deletePartition", TABLE,
+            "DELETE FROM word WHERE user = ? AND category = ?;");
+    private static final CqlStatement UPDATE_IMAGE = new CqlStatement("word.updateImage", TABLE,
+            "UPDATE word SET image = {key: ?, url: ?} WHERE user = ? AND category = ? AND word = ?;");
+
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    private final PreparedStatements statements;
+
+    WordsRepositoryImpl(ReactiveCassandraOperations cassandraOperations, PreparedStatements statements) {
+        this.cassandraOperations = cassandraOperations;
+        this.statements = statements;
+        statements.register(FIND_BY_CATEGORY, FIND_PAGE, FIND_BY_WORDS, FIND_WORD, INSERT, ADD_TRANSLATION, DELETE_TRANSLATION,
+                ENRICH, UPDATE_ENRICHMENT, UPDATE_ANSWERS, DELETE, DELETE_PARTITION, UPDATE_IMAGE);
+    }
+
+    @Override
+    public Flux<Word> findByUserAndCategory(String user, UUID category) {
+        return statements.query(FIND_BY_CATEGORY, user, category).map(this::word);
+    }
+
+    @Override
+    public Flux<Word> findPage(String user, UUID category, String after, int limit) {
+        return statements.query(FIND_PAGE, user, category, after, limit).map(this::word);
+    }
+
+    @Override
+    public Flux<Word> findByWords(String user, UUID category, List<String> words) {
+        return statements.query(FIND_BY_WORDS, user, category, words).map(this::word);
+    }
+
+    @Override
+    public Mono<Word> findByUserAndCategoryAndWord(String user, UUID category, String word) {
+        return statements.query(FIND_WORD, user, category, word).map(this::word).next();
+    }
+
+    @Override
+    public Mono<Word> addTranslation(String user, UUID category, String word, Set<String> translation) {
+        return statements.query(ADD_TRANSLATION, translation, user, category, word).map(this::word).next();
+    }
+
+    @Override
+    public Mono<Word> deleteTranslation(String user, UUID category, String word, Set<String> translation) {
+        return statements.query(DELETE_TRANSLATION, translation, user, category, word).map(this::word).next();
+    }
+
+    @Override
+    public Mono<Boolean> insertIfNotExists(Word word) {
+        return statements.update(INSERT, word.getUser(), word.getCategory(), word.getWord(), word.getAnswers(), word.getTranslation(),
+                column(word.getImage()), column(word.getSpeech()), column(word.getExamples()), column(word.getEnrichment()));
+    }
+
+    @Override
+    public Mono<Boolean> enrich(String user, UUID category, String word, Link speech, Set<Example> examples, EnrichmentStatus enrichment) {
+        return statements.update(ENRICH, column(speech), column(examples), column(enrichment), user, category, word);
+    }
+
+    @Override
+    public Mono<Boolean> updateEnrichment(String user, UUID category, String word, EnrichmentStatus enrichment) {
+        return statements.update(UPDATE_ENRICHMENT, column(enrichment), user, category, word);
+    }
+
+    @Override
+    public Mono<Set<String>> updateAnswers(String user, UUID category, Map<String, Integer> previous, Map<String, Integer> answers) {
+        return Flux.fromIterable(answers.entrySet())
+                .concatMap(answer -> statements.bind(UPDATE_ANSWERS, answer.getValue(), user, category, answer.getKey(),
+                        previous.get(answer.getKey())))
+                .collect(() -> new BatchStatement(BatchStatement.Type.UNLOGGED), BatchStatement::add)
+                .flatMap(batch -> statements.execute(UPDATE_ANSWERS.getName(), batch))
+                .flatMap(applied -> applied ? Mono.just(answers.keySet()) : updateEachAnswer(user, category, previous, answers));
+    }
+
+    /**
+     * A conditional batch is applied only as a whole, so once some words changed or are gone the rest are set one by one.
+     */
+    private Mono<Set<String>> updateEachAnswer(String user, UUID category, Map<String, Integer> previous, Map<String, Integer> answers) {
+        return Flux.fromIterable(answers.entrySet())
+                .filterWhen(answer -> statements.update(UPDATE_ANSWERS, answer.getValue(), user, category, answer.getKey(),
+                        previous.get(answer.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Mono<Boolean> delete(Word word, List<BlobDeletion> blobs) {
+        return statements.loggedBatch(DELETE.getName(), statements.bind(DELETE, word.getUser(), word.getCategory(), word.getWord()), blobs);
+    }
+
+    @Override
+    public Mono<Boolean> deleteAll(List<Word> words, List<BlobDeletion> blobs) {
+        return statements.loggedBatch(DELETE_ALL, Flux.fromIterable(words)
+                .concatMap(word -> statements.bind(DELETE, word.getUser(), word.getCategory(), word.getWord())), blobs);
+    }
+
+    @Override
+    public Mono<Void> deleteByUserAndCategory(String user, UUID category) {
+        return statements.update(DELETE_PARTITION, user, category).then();
+    }
+
+    @Override
+    public Mono<Boolean> replaceImage(Word word, Link image, List<BlobDeletion> blobs) {
+        return statements.loggedBatch(UPDATE_IMAGE.getName(), statements.bind(UPDATE_IMAGE, image.getKey(), image.getUrl(),
+                word.getUser(), word.getCategory(), word.getWord()), blobs);
+    }
+
+    /**
+     * Mapped values, e.g. user defined types, are bound as the driver types they are stored as.
+     */
+    private Object column(Object value) {
+        return value == null ? null : cassandraOperations.getConverter().convertToColumnType(value);
+    }
+
+    private Word word(Row row) {
+        return cassandraOperations.getConverter().read(Word.class, row);
+    }
+}
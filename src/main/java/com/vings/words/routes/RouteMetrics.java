@@ -0,0 +1,54 @@
+package com.vings.words.routes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times handlers as {@code http.route{route, status}} with p50/p99 and a percentile histogram, and gauges requests
+ * in flight as {@code http.route.active{route}}. A handler is timed until it emits the response, streamed bodies
+ * are written afterwards.
+ */
+@Component
+public class RouteMetrics {
+
+    private static final String METRIC = "http.route";
+
+    private final MeterRegistry meterRegistry;
+
+    public RouteMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public HandlerFunction<ServerResponse> timed(String route, HandlerFunction<ServerResponse> handler) {
+        AtomicInteger active = meterRegistry.gauge(METRIC + ".active", Tags.of("route", route), new AtomicInteger());
+        return request -> Mono.defer(() -> {
+            active.incrementAndGet();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicBoolean stopped = new AtomicBoolean();
+            return handler.handle(request)
+                    .doOnSuccess(response -> stop(sample, stopped, route, response == null ? "none" : String.valueOf(response.statusCode().value())))
+                    .doOnError(exp -> stop(sample, stopped, route, "error"))
+                    .doOnCancel(() -> stop(sample, stopped, route, "cancel"))
+                    .doFinally(signal -> active.decrementAndGet());
+        });
+    }
+
+    private void stop(Timer.Sample sample, AtomicBoolean stopped, String route, String status) {
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        sample.stop(Timer.builder(METRIC)
+                .tags("route", route, "status", status)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
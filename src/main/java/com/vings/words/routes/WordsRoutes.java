@@ -10,6 +10,7 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON;
 import static org.springframework.http.MediaType.MULTIPART_FORM_DATA;
 import static org.springframework.web.reactive.function.BodyInserters.fromObject;
 import static org.springframework.web.reactive.function.server.RequestPredicates.*;
@@ -23,11 +24,14 @@ public class WordsRoutes {
     private final DictionaryHandler dictionaryHandler;
     private final CategoryHandler categoryHandler;
     private final QuizHandler quizHandler;
+    private final RouteMetrics routeMetrics;
 
-    public WordsRoutes(DictionaryHandler dictionaryHandler, CategoryHandler categoryHandler, QuizHandler quizHandler) {
+    public WordsRoutes(DictionaryHandler dictionaryHandler, CategoryHandler categoryHandler, QuizHandler quizHandler,
+                       RouteMetrics routeMetrics) {
         this.dictionaryHandler = dictionaryHandler;
         this.categoryHandler = categoryHandler;
         this.quizHandler = quizHandler;
+        this.routeMetrics = routeMetrics;
     }
 
     @Bean
@@ -44,35 +48,38 @@ public class WordsRoutes {
 
     private RouterFunction<ServerResponse> dictionaryRoutes() {
         return nest(path("/dictionary"),
-                nest(accept(APPLICATION_JSON, APPLICATION_FORM_URLENCODED, MULTIPART_FORM_DATA),
-                        route(GET("/{user}/{category}"), dictionaryHandler::getWords)
-                                .andRoute(GET("/{user}/{category}/{learned}"), dictionaryHandler::getWordsByLearnedFilter)
-                                .andRoute(POST("/{user}"), dictionaryHandler::save)
-                                .andRoute(POST("/{user}/{category}/{word}/image"), dictionaryHandler::updateImage)
-                                .andRoute(DELETE("/{user}/{category}/{word}"), dictionaryHandler::deleteWord)
-                                .andRoute(DELETE("/{user}/{category}"), dictionaryHandler::deleteCategory)
-                                .andRoute(PATCH("/{user}/{category}/{word}/add/{translation}"), dictionaryHandler::addTranslation)
-                                .andRoute(DELETE("/{user}/{category}/{word}/delete/{translation}"), dictionaryHandler::deleteTranslation)
+                nest(accept(APPLICATION_JSON, APPLICATION_STREAM_JSON, APPLICATION_FORM_URLENCODED, MULTIPART_FORM_DATA),
+                        route(GET("/{user}/{category}"), routeMetrics.timed("dictionary.getWords", dictionaryHandler::getWords))
+                                .andRoute(GET("/{user}/{category}/{learned}"), routeMetrics.timed("dictionary.getWordsByLearnedFilter", dictionaryHandler::getWordsByLearnedFilter))
+                                .andRoute(POST("/{user}"), routeMetrics.timed("dictionary.save", dictionaryHandler::save))
+                                .andRoute(POST("/{user}/{category}/{word}/image"), routeMetrics.timed("dictionary.updateImage", dictionaryHandler::updateImage))
+                                .andRoute(DELETE("/{user}/{category}/{word}"), routeMetrics.timed("dictionary.deleteWord", dictionaryHandler::deleteWord))
+                                .andRoute(DELETE("/{user}/{category}"), routeMetrics.timed("dictionary.deleteCategory", dictionaryHandler::deleteCategory))
+                                .andRoute(PATCH("/{user}/{category}/{word}/add/{translation}"), routeMetrics.timed("dictionary.addTranslation", dictionaryHandler::addTranslation))
+                                .andRoute(DELETE("/{user}/{category}/{word}/delete/{translation}"), routeMetrics.timed("dictionary.deleteTranslation", dictionaryHandler::deleteTranslation))
                 ));
     }
 
     private RouterFunction<ServerResponse> categoryRoutes() {
         return nest(path("/category"),
                 nest(accept(APPLICATION_JSON, APPLICATION_FORM_URLENCODED, MULTIPART_FORM_DATA),
-                        route(GET("/{user}"), categoryHandler::get)
-                                .andRoute(POST("/{user}"), categoryHandler::create)
-                                .andRoute(PATCH("/{user}/{title}/image"), categoryHandler::updateImage)
-                                .andRoute(PATCH("/{user}/{title}/{newTitle}"), categoryHandler::update)
-                                .andRoute(DELETE("/{user}/{title}"), categoryHandler::delete)
+                        route(GET("/{user}"), routeMetrics.timed("category.get", categoryHandler::get))
+                                .andRoute(POST("/{user}"), routeMetrics.timed("category.create", categoryHandler::create))
+                                .andRoute(PATCH("/{user}/{title}/image"), routeMetrics.timed("category.updateImage", categoryHandler::updateImage))
+                                .andRoute(PATCH("/{user}/{title}/{newTitle}"), routeMetrics.timed("category.update", categoryHandler::update))
+                                .andRoute(DELETE("/{user}/{title}"), routeMetrics.timed("category.delete", categoryHandler::delete))
                 ));
     }
 
     private RouterFunction<ServerResponse> quizRoutes() {
         return nest(path("/quiz"),
                 nest(accept(APPLICATION_JSON, APPLICATION_FORM_URLENCODED),
-                        route(GET("/sprint/{user}/{category}/{page}/{offset}"), quizHandler::sprint)
-                                .andRoute(GET("/crossword/{user}/{category}/{page}/{offset}"), quizHandler::crossword)
-                                .andRoute(GET("/guess/{user}/{category}/{page}/{offset}"), quizHandler::guess)
+                        route(GET("/sprint/{user}/{category}/{page}/{offset}"), routeMetrics.timed("quiz.sprint", quizHandler::sprint))
+                                .andRoute(GET("/crossword/{user}/{category}/{page}/{offset}"), routeMetrics.timed("quiz.crossword", quizHandler::crossword))
+                                .andRoute(GET("/guess/{user}/{category}/{page}/{offset}"), routeMetrics.timed("quiz.guess", quizHandler::guess))
+                                .andRoute(POST("/{user}/{category}/answers"), routeMetrics.timed("quiz.answers", quizHandler::answers))
+                                .andRoute(GET("/due/{user}/{category}/{count}"), routeMetrics.timed("quiz.due", quizHandler::due))
+                                .andRoute(POST("/{user}/{category}/reviews"), routeMetrics.timed("quiz.reviews", quizHandler::reviews))
                 ));
     }
 }
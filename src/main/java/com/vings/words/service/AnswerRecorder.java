@@ -0,0 +1,181 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Word;
+import com.vings.words.model.quiz.Answer;
+import com.vings.words.repository.WordsRepository;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind aggregation of quiz answers. A correct answer adds one to {@link Word#getAnswers()}, a wrong one
+ * takes one away down to zero. Deltas are summed per word in memory and flushed per (user, category) partition
+ * on an interval, so a quiz session turns into a few batched writes instead of a read-modify-write per answer.
+ */
+@Component
+public class AnswerRecorder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnswerRecorder.class);
+
+    private static final int WORDS_PER_BATCH = 100;
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    @Value("${quiz.answers.flush.interval}")
+    private long flushInterval;
+
+    @Value("${quiz.answers.flush.concurrency}")
+    private int concurrency;
+
+    private final ConcurrentMap<Partition, Map<String, Integer>> pending = new ConcurrentHashMap<>();
+
+    private final WordsRepository wordsRepository;
+
+    private final LearnedIndex learnedIndex;
+
+    private final QuizSnapshots quizSnapshots;
+
+    private Disposable flushing;
+
+    public AnswerRecorder(WordsRepository wordsRepository, LearnedIndex learnedIndex, QuizSnapshots quizSnapshots) {
+        this.wordsRepository = wordsRepository;
+        this.learnedIndex = learnedIndex;
+        this.quizSnapshots = quizSnapshots;
+    }
+
+    @PostConstruct
+    public void start() {
+        flushing = Flux.interval(Duration.ofMillis(flushInterval))
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        flushing.dispose();
+        flush().block(Duration.ofMillis(flushInterval * 5));
+    }
+
+    public void record(String user, UUID category, List<Answer> answers) {
+        pending.compute(new Partition(user, category), (partition, deltas) -> {
+            Map<String, Integer> merged = deltas == null ? new HashMap<>() : deltas;
+            for (Answer answer : answers) {
+                merged.merge(answer.getWord(), answer.isCorrect() ? 1 : -1, Integer::sum);
+            }
+            return merged;
+        });
+    }
+
+    Mono<Void> flush() {
+        return Flux.fromIterable(new ArrayList<>(pending.keySet()))
+                .flatMap(partition -> {
+                    Map<String, Integer> deltas = pending.remove(partition);
+                    return deltas == null ? Mono.empty() : flush(partition, deltas);
+                }, concurrency)
+                .then();
+    }
+
+    /**
+     * Batches fail independently, a failed batch doesn't stop the following ones.
+     */
+    private Mono<Void> flush(Partition partition, Map<String, Integer> deltas) {
+        return Flux.fromIterable(deltas.keySet())
+                .buffer(WORDS_PER_BATCH)
+                .concatMap(words -> flush(partition, words, deltas))
+                .then()
+                .doOnTerminate(() -> quizSnapshots.invalidate(partition.getUser(), partition.getCategory()));
+    }
+
+    /**
+     * Only words which were written are reindexed.
+     */
+    private Mono<Void> flush(Partition partition, List<String> words, Map<String, Integer> deltas) {
+        String user = partition.getUser();
+        UUID category = partition.getCategory();
+        return write(partition, words, deltas, WRITE_ATTEMPTS)
+                .collectList()
+                .filter(written -> !written.isEmpty())
+                .flatMap(written -> learnedIndex.reindex(user, category, written)
+                        .onErrorResume(exp -> {
+                            LOG.warn("Failed to reindex answered words of {} {}", user, category, exp);
+                            return Mono.empty();
+                        }));
+    }
+
+    /**
+     * Each word is written only if its answers are still the ones which were read, so another node flushing the same
+     * word meanwhile isn't overwritten: such words are read again and retried, and words deleted meanwhile are skipped.
+     * Deltas of words which were not written, either read or write failed or they kept conflicting, are put back,
+     * so they are retried with the next flush and never applied twice.
+     */
+    private Flux<Word> write(Partition partition, List<String> words, Map<String, Integer> deltas, int attempts) {
+        String user = partition.getUser();
+        UUID category = partition.getCategory();
+        return wordsRepository.findByWords(user, category, words)
+                .collectList()
+                .filter(found -> !found.isEmpty())
+                .flatMapMany(found -> {
+                    Map<String, Integer> previous = answers(found);
+                    found.forEach(word -> word.setAnswers(Math.max(0, word.getAnswers() + deltas.get(word.getWord()))));
+                    return wordsRepository.updateAnswers(user, category, previous, answers(found))
+                            .flatMapMany(written -> {
+                                Map<Boolean, List<Word>> applied = found.stream()
+                                        .collect(Collectors.partitioningBy(word -> written.contains(word.getWord())));
+                                List<String> conflicts = applied.get(false).stream().map(Word::getWord).collect(Collectors.toList());
+                                if (conflicts.isEmpty()) {
+                                    return Flux.fromIterable(applied.get(true));
+                                }
+                                if (attempts == 1) {
+                                    LOG.warn("Answers of {} words of {} {} kept conflicting, retrying with the next flush",
+                                            conflicts.size(), user, category);
+                                    requeue(partition, conflicts, deltas);
+                                    return Flux.fromIterable(applied.get(true));
+                                }
+                                return Flux.fromIterable(applied.get(true)).concatWith(write(partition, conflicts, deltas, attempts - 1));
+                            });
+                })
+                .onErrorResume(exp -> {
+                    LOG.warn("Failed to write answers of {} {}, retrying with the next flush", user, category, exp);
+                    requeue(partition, words, deltas);
+                    return Flux.empty();
+                });
+    }
+
+    private static Map<String, Integer> answers(List<Word> words) {
+        return words.stream().collect(Collectors.toMap(Word::getWord, Word::getAnswers));
+    }
+
+    private void requeue(Partition partition, List<String> words, Map<String, Integer> deltas) {
+        pending.compute(partition, (key, current) -> {
+            Map<String, Integer> merged = current == null ? new HashMap<>() : current;
+            words.forEach(word -> merged.merge(word, deltas.get(word), Integer::sum));
+            return merged;
+        });
+    }
+
+    @Data
+    private static final class Partition {
+
+        private final String user;
+
+        private final UUID category;
+    }
+}
@@ -0,0 +1,111 @@
+package com.vings.words.service;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.storage.MediaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains {@link BlobDeletion} shards and removes the objects from the media store with bulk deletes.
+ * Entries are claimed with a lease like enrichment jobs, at most {@code blob.collector.batch} due entries are read per
+ * shard and deleted per poll to keep the store request rate bounded, failed keys are retried with exponential backoff.
+ */
+@Component
+public class BlobCollector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlobCollector.class);
+
+    @Value("${blob.shards}")
+    private int shards;
+
+    @Value("${blob.collector.poll.interval}")
+    private long pollInterval;
+
+    @Value("${blob.collector.lease}")
+    private long lease;
+
+    @Value("${blob.collector.batch}")
+    private int batch;
+
+    @Value("${blob.collector.retry.attempts}")
+    private int maxAttempts;
+
+    @Value("${blob.collector.retry.backoff}")
+    private long backoff;
+
+    private final BlobOutboxRepository outboxRepository;
+
+    private final MediaStore mediaStore;
+
+    private Disposable polling;
+
+    public BlobCollector(BlobOutboxRepository outboxRepository, MediaStore mediaStore) {
+        this.outboxRepository = outboxRepository;
+        this.mediaStore = mediaStore;
+    }
+
+    @PostConstruct
+    public void start() {
+        polling = Flux.interval(Duration.ofMillis(pollInterval))
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        polling.dispose();
+    }
+
+    Mono<Void> poll() {
+        Date now = new Date();
+        return Flux.range(0, shards)
+                .concatMap(shard -> outboxRepository.findDue(shard, now, batch))
+                .concatMap(deletion -> outboxRepository.move(deletion, new Date(now.getTime() + lease))
+                        .filter(claimed -> claimed)
+                        .map(claimed -> deletion))
+                .take(batch)
+                .groupBy(BlobDeletion::getBucket)
+                .flatMap(bucket -> bucket.collectList().flatMap(deletions -> collect(bucket.key(), deletions)))
+                .then()
+                .onErrorResume(exp -> {
+                    LOG.warn("Blob outbox poll failed", exp);
+                    return Mono.empty();
+                });
+    }
+
+    Mono<Void> collect(String bucket, List<BlobDeletion> deletions) {
+        return mediaStore.deleteAll(bucket, Flux.fromIterable(deletions).map(BlobDeletion::getKey))
+                .flatMapMany(report -> {
+                    Set<String> failed = new HashSet<>(report.getFailed());
+                    return Flux.fromIterable(deletions)
+                            .flatMap(deletion -> failed.contains(deletion.getKey()) ? retry(deletion) : outboxRepository.delete(deletion));
+                })
+                .then();
+    }
+
+    private Mono<Void> retry(BlobDeletion deletion) {
+        int attempts = deletion.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            LOG.error("Deletion of {}/{} failed after {} attempts, left to reconciliation", deletion.getBucket(), deletion.getKey(), attempts);
+            return outboxRepository.delete(deletion);
+        }
+        LOG.warn("Deletion of {}/{} failed, attempt {}", deletion.getBucket(), deletion.getKey(), attempts);
+        deletion.setAttempts(attempts);
+        return outboxRepository.move(deletion, new Date(System.currentTimeMillis() + (backoff << (attempts - 1)))).then();
+    }
+}
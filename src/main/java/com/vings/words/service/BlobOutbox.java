@@ -0,0 +1,57 @@
+package com.vings.words.service;
+
+import com.datastax.driver.core.utils.UUIDs;
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.Link;
+import com.vings.words.repository.BlobOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Objects are never deleted inline: the write which drops the last reference records a {@link BlobDeletion}
+ * and {@link BlobCollector} removes the object later.
+ */
+@Component
+public class BlobOutbox {
+
+    @Value("${blob.shards}")
+    private int shards;
+
+    private final BlobOutboxRepository outboxRepository;
+
+    public BlobOutbox(BlobOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public BlobDeletion deletion(String bucket, String key) {
+        int shard = Math.floorMod(key.hashCode(), shards);
+        return new BlobDeletion(shard, UUIDs.timeBased(), bucket, key, 0, new Date());
+    }
+
+    /**
+     * @return outbox entries for the given links, absent links are skipped
+     */
+    public List<BlobDeletion> deletions(String bucket, Link... links) {
+        List<BlobDeletion> deletions = new ArrayList<>(links.length);
+        for (Link link : links) {
+            if (link != null) {
+                deletions.add(deletion(bucket, link.getKey()));
+            }
+        }
+        return deletions;
+    }
+
+    public Mono<Void> enqueue(String bucket, Collection<String> keys) {
+        return Flux.fromIterable(keys)
+                .map(key -> deletion(bucket, key))
+                .flatMap(outboxRepository::save)
+                .then();
+    }
+}
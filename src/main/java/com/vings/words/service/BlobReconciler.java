@@ -0,0 +1,130 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Link;
+import com.vings.words.model.StoredObject;
+import com.vings.words.repository.CategoryRepository;
+import com.vings.words.repository.SpeechRepository;
+import com.vings.words.repository.WordsRepository;
+import com.vings.words.storage.MediaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+
+/**
+ * Periodic pass over both buckets which hands objects without a reference to the {@link BlobOutbox}.
+ * Images are matched against a key set built from word and category rows, speech objects against speech rows
+ * and speech links of words, as speech stored before the speech table has no row but is still linked.
+ * Objects younger than {@code blob.reconcile.grace} are skipped: they may be uploaded but not referenced yet.
+ * Enabled with blob.reconcile.enabled=true on one node.
+ */
+@Component
+@ConditionalOnProperty(name = "blob.reconcile.enabled", havingValue = "true")
+public class BlobReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlobReconciler.class);
+
+    private static final int KEYS_PER_ENQUEUE = 100;
+
+    @Value("${s3.words.bucket.name}")
+    private String wordsBucket;
+
+    @Value("${s3.speech.bucket.name}")
+    private String speechBucket;
+
+    @Value("${blob.reconcile.interval}")
+    private long interval;
+
+    @Value("${blob.reconcile.grace}")
+    private long grace;
+
+    private final MediaStore mediaStore;
+
+    private final WordsRepository wordsRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final SpeechRepository speechRepository;
+
+    private final BlobOutbox blobOutbox;
+
+    private Disposable reconciling;
+
+    public BlobReconciler(MediaStore mediaStore, WordsRepository wordsRepository, CategoryRepository categoryRepository,
+                          SpeechRepository speechRepository, BlobOutbox blobOutbox) {
+        this.mediaStore = mediaStore;
+        this.wordsRepository = wordsRepository;
+        this.categoryRepository = categoryRepository;
+        this.speechRepository = speechRepository;
+        this.blobOutbox = blobOutbox;
+    }
+
+    @PostConstruct
+    public void start() {
+        reconciling = Flux.interval(Duration.ofMillis(interval))
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcile()
+                        .doOnNext(count -> LOG.info("Reconciliation queued {} unreferenced objects", count))
+                        .onErrorResume(exp -> {
+                            LOG.warn("Blob reconciliation failed", exp);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconciling.dispose();
+    }
+
+    Mono<Long> reconcile() {
+        Date before = new Date(System.currentTimeMillis() - grace);
+        return referencedKeys().flatMap(referenced -> unreferenced(wordsBucket, before, referenced.getOrDefault(wordsBucket, emptySet()))
+                .concatWith(unreferenced(speechBucket, before, referenced.getOrDefault(speechBucket, emptySet())))
+                .reduce(0L, Long::sum));
+    }
+
+    /**
+     * Word rows reference both an image and speech, so the word table is scanned once for both buckets.
+     *
+     * @return referenced keys by bucket
+     */
+    private Mono<Map<String, Set<String>>> referencedKeys() {
+        return Flux.merge(wordsRepository.findAll()
+                        .flatMapIterable(word -> asList(reference(wordsBucket, word.getImage()), reference(speechBucket, word.getSpeech()))),
+                categoryRepository.findAll().map(category -> reference(wordsBucket, category.getImage())),
+                speechRepository.findAll().map(speech -> reference(speechBucket, speech.getLink())))
+                .filter(reference -> !reference.getValue().isEmpty())
+                .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toSet())));
+    }
+
+    private Mono<Long> unreferenced(String bucket, Date before, Set<String> referenced) {
+        return mediaStore.list(bucket)
+                .filter(object -> object.getLastModified().before(before))
+                .map(StoredObject::getKey)
+                .filter(key -> !referenced.contains(key))
+                .buffer(KEYS_PER_ENQUEUE)
+                .concatMap(keys -> blobOutbox.enqueue(bucket, keys).then(Mono.just((long) keys.size())))
+                .reduce(0L, Long::sum);
+    }
+
+    private Map.Entry<String, String> reference(String bucket, Link link) {
+        return new AbstractMap.SimpleImmutableEntry<>(bucket, link == null ? "" : link.getKey());
+    }
+}
@@ -0,0 +1,49 @@
+package com.vings.words.service;
+
+import com.datastax.driver.core.utils.UUIDs;
+import com.vings.words.model.EnrichmentJob;
+import com.vings.words.model.Word;
+import com.vings.words.repository.EnrichmentJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * A word insert is conditional, so it can't share a batch with its job. The job is written first and held back
+ * for one lease, then made due once the word is saved or removed when it wasn't. A job left behind by a failed
+ * save finds no word and is dropped, so a saved word never stays pending.
+ */
+@Component
+public class EnrichmentService {
+
+    @Value("${enrichment.shards}")
+    private int shards;
+
+    @Value("${enrichment.lease}")
+    private long lease;
+
+    private final EnrichmentJobRepository jobRepository;
+
+    public EnrichmentService(EnrichmentJobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    public Mono<EnrichmentJob> enqueue(Word word) {
+        int shard = Math.floorMod(word.getWord().hashCode(), shards);
+        return jobRepository.save(new EnrichmentJob(shard, UUIDs.timeBased(), word.getUser(), word.getCategory(), word.getWord(), 0,
+                new Date(System.currentTimeMillis() + lease)));
+    }
+
+    /**
+     * Makes a held back job due now, it stays due after the lease when this fails.
+     */
+    public Mono<Void> activate(EnrichmentJob job) {
+        return jobRepository.move(job, new Date()).then();
+    }
+
+    public Mono<Void> cancel(EnrichmentJob job) {
+        return jobRepository.delete(job);
+    }
+}
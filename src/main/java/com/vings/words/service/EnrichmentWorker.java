@@ -0,0 +1,141 @@
+package com.vings.words.service;
+
+import com.vings.words.model.EnrichmentJob;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Example;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import com.vings.words.repository.EnrichmentJobRepository;
+import com.vings.words.repository.WordsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Polls {@link EnrichmentJob} shards and attaches speech and examples to saved words. A poll reads at most
+ * {@code enrichment.poll.batch} due jobs per shard. A job is claimed by moving its due date forward for the lease time,
+ * so a job of a crashed node is picked up again once the lease expires. Failed jobs are retried with exponential backoff.
+ */
+@Component
+public class EnrichmentWorker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EnrichmentWorker.class);
+
+    @Value("${enrichment.shards}")
+    private int shards;
+
+    @Value("${enrichment.workers}")
+    private int workers;
+
+    @Value("${enrichment.poll.interval}")
+    private long pollInterval;
+
+    @Value("${enrichment.lease}")
+    private long lease;
+
+    @Value("${enrichment.poll.batch}")
+    private int batch;
+
+    @Value("${enrichment.retry.attempts}")
+    private int maxAttempts;
+
+    @Value("${enrichment.retry.backoff}")
+    private long backoff;
+
+    private final EnrichmentJobRepository jobRepository;
+
+    private final WordsRepository wordsRepository;
+
+    private final SpeechService speechService;
+
+    private final WordExampleService exampleService;
+
+    private Scheduler scheduler;
+
+    private Disposable polling;
+
+    public EnrichmentWorker(EnrichmentJobRepository jobRepository, WordsRepository wordsRepository,
+                            SpeechService speechService, WordExampleService exampleService) {
+        this.jobRepository = jobRepository;
+        this.wordsRepository = wordsRepository;
+        this.speechService = speechService;
+        this.exampleService = exampleService;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(workers));
+        polling = Flux.interval(Duration.ofMillis(pollInterval))
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        polling.dispose();
+        scheduler.dispose();
+    }
+
+    Mono<Void> poll() {
+        Date now = new Date();
+        return Flux.range(0, shards)
+                .concatMap(shard -> jobRepository.findDue(shard, now, batch))
+                .flatMap(job -> jobRepository.move(job, new Date(now.getTime() + lease))
+                        .filter(claimed -> claimed)
+                        .flatMap(claimed -> process(job)), workers)
+                .then()
+                .onErrorResume(exp -> {
+                    LOG.warn("Enrichment poll failed", exp);
+                    return Mono.empty();
+                });
+    }
+
+    Mono<Void> process(EnrichmentJob job) {
+        return wordsRepository.findByUserAndCategoryAndWord(job.getUser(), job.getCategory(), job.getWord())
+                .flatMap(this::enrich)
+                .then(Mono.defer(() -> jobRepository.delete(job)))
+                .onErrorResume(exp -> retry(job, exp));
+    }
+
+    /**
+     * Speech acquired for a word deleted meanwhile is released again, as the word is not recreated.
+     */
+    private Mono<Void> enrich(Word word) {
+        return exampleService.request(word.getWord())
+                .flatMap(examples -> word.getSpeech() != null ? save(word, word.getSpeech(), examples).then() :
+                        speechService.acquire(word).subscribeOn(scheduler)
+                                .flatMap(speech -> save(word, speech, examples)
+                                        .onErrorResume(exp -> speechService.release(speech).then(Mono.error(exp)))
+                                        .flatMap(applied -> applied ? Mono.<Void>empty() : speechService.release(speech))));
+    }
+
+    private Mono<Boolean> save(Word word, Link speech, Set<Example> examples) {
+        return wordsRepository.enrich(word.getUser(), word.getCategory(), word.getWord(), speech, examples, EnrichmentStatus.DONE);
+    }
+
+    private Mono<Void> retry(EnrichmentJob job, Throwable exp) {
+        int attempts = job.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            LOG.error("Enrichment of '{}' failed after {} attempts", job.getWord(), attempts, exp);
+            return wordsRepository.updateEnrichment(job.getUser(), job.getCategory(), job.getWord(), EnrichmentStatus.FAILED)
+                    .then(jobRepository.delete(job));
+        }
+        LOG.warn("Enrichment of '{}' failed, attempt {}", job.getWord(), attempts, exp);
+        job.setAttempts(attempts);
+        return jobRepository.move(job, new Date(System.currentTimeMillis() + (backoff << (attempts - 1)))).then();
+    }
+}
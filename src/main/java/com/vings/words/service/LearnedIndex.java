@@ -0,0 +1,64 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Word;
+import com.vings.words.model.WordByLearned;
+import com.vings.words.repository.WordByLearnedRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps word_by_learned in line with the word table, so learned and unlearned words are read as separate partitions.
+ * Every write of answers or translation has to go through here.
+ */
+@Component
+public class LearnedIndex {
+
+    private final WordByLearnedRepository wordByLearnedRepository;
+
+    public LearnedIndex(WordByLearnedRepository wordByLearnedRepository) {
+        this.wordByLearnedRepository = wordByLearnedRepository;
+    }
+
+    public Flux<WordByLearned> find(String user, UUID category, boolean learned) {
+        return wordByLearnedRepository.findByUserAndCategoryAndLearned(user, category, learned);
+    }
+
+    public Mono<Void> index(Word word) {
+        return Mono.when(wordByLearnedRepository.save(WordByLearned.of(word)),
+                wordByLearnedRepository.deleteWord(word.getUser(), word.getCategory(), !word.learned(), word.getWord()));
+    }
+
+    public Mono<Void> reindex(String user, UUID category, List<Word> words) {
+        return wordByLearnedRepository.reindex(user, category, words.stream().map(WordByLearned::of).collect(Collectors.toList()));
+    }
+
+    /**
+     * The word has to be read after its translation was written, so its row is looked up in the current learned partition.
+     * A row moved by a concurrent reindex meanwhile is left alone, the reindex reads the word again and copies its translation.
+     */
+    public Mono<Void> addTranslation(Word word, Set<String> translation) {
+        return wordByLearnedRepository.addTranslation(word.getUser(), word.getCategory(), word.learned(), word.getWord(), translation).then();
+    }
+
+    /**
+     * Same as {@link #addTranslation(Word, Set)}.
+     */
+    public Mono<Void> deleteTranslation(Word word, Set<String> translation) {
+        return wordByLearnedRepository.deleteTranslation(word.getUser(), word.getCategory(), word.learned(), word.getWord(), translation).then();
+    }
+
+    public Mono<Void> remove(Word word) {
+        return Mono.when(wordByLearnedRepository.deleteWord(word.getUser(), word.getCategory(), true, word.getWord()),
+                wordByLearnedRepository.deleteWord(word.getUser(), word.getCategory(), false, word.getWord()));
+    }
+
+    public Mono<Void> removeCategory(String user, UUID category) {
+        return wordByLearnedRepository.deleteByUserAndCategory(user, category).then();
+    }
+}
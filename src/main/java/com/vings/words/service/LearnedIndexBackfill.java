@@ -0,0 +1,47 @@
+package com.vings.words.service;
+
+import com.vings.words.repository.WordsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * One-off migration of words stored before word_by_learned existed, enabled with learned.index.backfill.enabled=true.
+ * Each scanned word is read again right before it is indexed, so words deleted or answered since the scan aren't
+ * indexed from a stale copy. A word deleted between that read and its index write still leaves a stale index row,
+ * so run it while the application doesn't serve writes.
+ */
+@Component
+@ConditionalOnProperty(name = "learned.index.backfill.enabled", havingValue = "true")
+public class LearnedIndexBackfill {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LearnedIndexBackfill.class);
+
+    @Value("${learned.index.backfill.concurrency}")
+    private int concurrency;
+
+    private final WordsRepository wordsRepository;
+
+    private final LearnedIndex learnedIndex;
+
+    public LearnedIndexBackfill(WordsRepository wordsRepository, LearnedIndex learnedIndex) {
+        this.wordsRepository = wordsRepository;
+        this.learnedIndex = learnedIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        LOG.info("Backfilling word_by_learned");
+        wordsRepository.findAll()
+                .flatMap(word -> wordsRepository.findByUserAndCategoryAndWord(word.getUser(), word.getCategory(), word.getWord())
+                        .flatMap(current -> learnedIndex.index(current).then(Mono.just(current))), concurrency)
+                .count()
+                .subscribe(count -> LOG.info("Backfilled word_by_learned with {} words", count),
+                        exp -> LOG.error("word_by_learned backfill failed", exp));
+    }
+}
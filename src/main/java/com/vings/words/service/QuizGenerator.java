@@ -0,0 +1,107 @@
+package com.vings.words.service;
+
+import com.vings.words.model.quiz.Crossword;
+import com.vings.words.model.quiz.Guess;
+import com.vings.words.model.quiz.Sprint;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds quiz questions for a page of a {@link QuizSnapshot}. Distractors are drawn from the distinct translations
+ * of the snapshot with a partial Fisher-Yates shuffle, so each question costs O(k) for k distractors. The correct
+ * answer of a guess is inserted at a uniformly random position among them.
+ */
+@Component
+public class QuizGenerator {
+
+    static final int GUESS_DISTRACTORS = 3;
+
+    private static final double SPRINT_CORRECT_PROBABILITY = 0.45;
+
+    private static final String NO_TRANSLATION = "No translation";
+
+    public List<Sprint> sprint(QuizSnapshot snapshot, int page, int offset) {
+        Random random = ThreadLocalRandom.current();
+        List<Sprint> questions = new ArrayList<>();
+        for (int i = from(snapshot, page, offset); i < to(snapshot, page, offset); i++) {
+            Set<String> translations = translations(snapshot, i);
+            String answer = translation(snapshot, i);
+            if (random.nextDouble() >= SPRINT_CORRECT_PROBABILITY) {
+                List<String> wrong = sample(snapshot.distractors(), 1, translations, random);
+                if (!wrong.isEmpty()) {
+                    answer = wrong.get(0);
+                }
+            }
+            questions.add(new Sprint(snapshot.word(i), answer, translations.contains(answer)));
+        }
+        return questions;
+    }
+
+    public List<Guess> guess(QuizSnapshot snapshot, int page, int offset) {
+        Random random = ThreadLocalRandom.current();
+        List<Guess> questions = new ArrayList<>();
+        for (int i = from(snapshot, page, offset); i < to(snapshot, page, offset); i++) {
+            String correct = translation(snapshot, i);
+            List<String> answers = sample(snapshot.distractors(), GUESS_DISTRACTORS, translations(snapshot, i), random);
+            answers.add(random.nextInt(answers.size() + 1), correct);
+            questions.add(new Guess(snapshot.word(i), new LinkedHashSet<>(answers), correct));
+        }
+        return questions;
+    }
+
+    public List<Crossword> crossword(QuizSnapshot snapshot, int page, int offset) {
+        List<Crossword> questions = new ArrayList<>();
+        for (int i = from(snapshot, page, offset); i < to(snapshot, page, offset); i++) {
+            questions.add(new Crossword(snapshot.word(i), translation(snapshot, i)));
+        }
+        return questions;
+    }
+
+    /**
+     * Uniformly picks up to {@code count} elements of {@code pool} that are not in {@code exclude}.
+     * Swaps are kept in a map instead of the array, so the shared pool is never modified.
+     */
+    static List<String> sample(String[] pool, int count, Set<String> exclude, Random random) {
+        List<String> sample = new ArrayList<>(count);
+        Map<Integer, Integer> swaps = new HashMap<>();
+        for (int i = 0; i < pool.length && sample.size() < count; i++) {
+            int j = i + random.nextInt(pool.length - i);
+            int picked = swaps.getOrDefault(j, j);
+            swaps.put(j, swaps.getOrDefault(i, i));
+            if (!exclude.contains(pool[picked])) {
+                sample.add(pool[picked]);
+            }
+        }
+        return sample;
+    }
+
+    private int from(QuizSnapshot snapshot, int page, int offset) {
+        if (page < 0 || offset < 0) {
+            throw new IllegalArgumentException("Page and offset should not be negative");
+        }
+        return (int) Math.min(snapshot.size(), (long) page * offset);
+    }
+
+    private int to(QuizSnapshot snapshot, int page, int offset) {
+        return (int) Math.min(snapshot.size(), (long) page * offset + offset);
+    }
+
+    private Set<String> translations(QuizSnapshot snapshot, int index) {
+        return new HashSet<>(Arrays.asList(snapshot.translations(index)));
+    }
+
+    private String translation(QuizSnapshot snapshot, int index) {
+        String[] translations = snapshot.translations(index);
+        return translations.length == 0 ? NO_TRANSLATION : translations[0];
+    }
+}
@@ -0,0 +1,105 @@
+package com.vings.words.service;
+
+import com.vings.words.model.WordByLearned;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable quiz view of the unlearned words of a category, kept as parallel arrays with interned strings.
+ */
+public final class QuizSnapshot {
+
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING_HEADER = 40;
+
+    private final String[] words;
+
+    private final String[][] translations;
+
+    private final int[] answers;
+
+    private final String[] distractors;
+
+    private final long footprint;
+
+    private QuizSnapshot(String[] words, String[][] translations, int[] answers, String[] distractors) {
+        this.words = words;
+        this.translations = translations;
+        this.answers = answers;
+        this.distractors = distractors;
+        this.footprint = estimateFootprint();
+    }
+
+    public static QuizSnapshot of(List<WordByLearned> rows) {
+        String[] words = new String[rows.size()];
+        String[][] translations = new String[rows.size()][];
+        int[] answers = new int[rows.size()];
+        Set<String> distractors = new LinkedHashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            WordByLearned row = rows.get(i);
+            Set<String> translation = row.getTranslation() == null ? Collections.emptySet() : row.getTranslation();
+            words[i] = row.getWord().intern();
+            translations[i] = new String[translation.size()];
+            int j = 0;
+            for (String value : translation) {
+                translations[i][j++] = value.intern();
+            }
+            answers[i] = row.getAnswers();
+            Collections.addAll(distractors, translations[i]);
+        }
+        return new QuizSnapshot(words, translations, answers, distractors.toArray(new String[0]));
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public String word(int index) {
+        return words[index];
+    }
+
+    public String[] translations(int index) {
+        return translations[index];
+    }
+
+    public int answers(int index) {
+        return answers[index];
+    }
+
+    String[] distractors() {
+        return distractors;
+    }
+
+    /**
+     * Approximate retained size in bytes, assuming compressed references.
+     */
+    public long footprint() {
+        return footprint;
+    }
+
+    private long estimateFootprint() {
+        Map<String, Boolean> strings = new IdentityHashMap<>();
+        long bytes = array(words.length) + array(translations.length) + ARRAY_HEADER + 4L * answers.length + array(distractors.length);
+        for (int i = 0; i < words.length; i++) {
+            strings.put(words[i], Boolean.TRUE);
+            bytes += array(translations[i].length);
+            for (String translation : translations[i]) {
+                strings.put(translation, Boolean.TRUE);
+            }
+        }
+        for (String string : strings.keySet()) {
+            bytes += STRING_HEADER + 2L * string.length();
+        }
+        return bytes;
+    }
+
+    private static long array(int length) {
+        return ARRAY_HEADER + (long) REFERENCE * length;
+    }
+}
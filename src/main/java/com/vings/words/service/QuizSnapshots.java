@@ -0,0 +1,38 @@
+package com.vings.words.service;
+
+import com.vings.words.cache.BoundedCache;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Per (user, category) snapshots shared by the quiz endpoints. Dictionary writes invalidate the local copy,
+ * other nodes catch up when the snapshot expires.
+ */
+@Component
+public class QuizSnapshots {
+
+    private final LearnedIndex learnedIndex;
+
+    private final BoundedCache<String, QuizSnapshot> snapshotCache;
+
+    public QuizSnapshots(LearnedIndex learnedIndex, BoundedCache<String, QuizSnapshot> snapshotCache) {
+        this.learnedIndex = learnedIndex;
+        this.snapshotCache = snapshotCache;
+    }
+
+    public Mono<QuizSnapshot> get(String user, UUID category) {
+        return snapshotCache.get(key(user, category), key -> learnedIndex.find(user, category, false)
+                .collectList()
+                .map(QuizSnapshot::of));
+    }
+
+    public void invalidate(String user, UUID category) {
+        snapshotCache.invalidate(key(user, category));
+    }
+
+    private String key(String user, UUID category) {
+        return user + ":" + category;
+    }
+}
@@ -0,0 +1,51 @@
+package com.vings.words.service;
+
+import com.vings.words.repository.ReviewStateRepository;
+import com.vings.words.repository.WordsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * One-off enrollment of words stored before review_state existed, enabled with review.backfill.enabled=true.
+ * Words which already have a review state are left as they are.
+ */
+@Component
+@ConditionalOnProperty(name = "review.backfill.enabled", havingValue = "true")
+public class ReviewBackfill {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReviewBackfill.class);
+
+    @Value("${review.backfill.concurrency}")
+    private int concurrency;
+
+    private final WordsRepository wordsRepository;
+
+    private final ReviewStateRepository reviewStateRepository;
+
+    private final ReviewScheduler reviewScheduler;
+
+    public ReviewBackfill(WordsRepository wordsRepository, ReviewStateRepository reviewStateRepository, ReviewScheduler reviewScheduler) {
+        this.wordsRepository = wordsRepository;
+        this.reviewStateRepository = reviewStateRepository;
+        this.reviewScheduler = reviewScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        LOG.info("Backfilling review_state");
+        wordsRepository.findAll()
+                .flatMap(word -> reviewStateRepository.findByUserAndCategoryAndWord(word.getUser(), word.getCategory(), word.getWord())
+                        .hasElement()
+                        .filter(enrolled -> !enrolled)
+                        .flatMap(enrolled -> reviewScheduler.enroll(word).then(Mono.just(word))), concurrency)
+                .count()
+                .subscribe(count -> LOG.info("Enrolled {} words for review", count),
+                        exp -> LOG.error("review_state backfill failed", exp));
+    }
+}
@@ -0,0 +1,156 @@
+package com.vings.words.service;
+
+import com.vings.words.model.DueWord;
+import com.vings.words.model.Reschedule;
+import com.vings.words.model.ReviewState;
+import com.vings.words.model.Word;
+import com.vings.words.model.quiz.Answer;
+import com.vings.words.repository.DueWordRepository;
+import com.vings.words.repository.ReviewStateRepository;
+import com.vings.words.repository.WordsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spaced repetition schedule of words. Review state lives in review_state and every word has one due_words row
+ * clustered by its next review time, so the next due words of a category are a single bounded range read.
+ * A correct answer doubles the review interval up to a maximum, a wrong one brings the word back after a short delay.
+ */
+@Component
+public class ReviewScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReviewScheduler.class);
+
+    private static final int WORDS_PER_LOOKUP = 100;
+
+    private static final int RESCHEDULE_ATTEMPTS = 3;
+
+    @Value("${review.interval.initial}")
+    private long initialInterval;
+
+    @Value("${review.interval.max}")
+    private long maxInterval;
+
+    @Value("${review.relearn}")
+    private long relearnDelay;
+
+    private final ReviewStateRepository reviewStateRepository;
+
+    private final DueWordRepository dueWordRepository;
+
+    private final WordsRepository wordsRepository;
+
+    public ReviewScheduler(ReviewStateRepository reviewStateRepository, DueWordRepository dueWordRepository, WordsRepository wordsRepository) {
+        this.reviewStateRepository = reviewStateRepository;
+        this.dueWordRepository = dueWordRepository;
+        this.wordsRepository = wordsRepository;
+    }
+
+    public Flux<DueWord> due(String user, UUID category, int limit) {
+        return dueWordRepository.findDue(user, category, new Date(), limit);
+    }
+
+    /**
+     * New words are due right away.
+     */
+    public Mono<Void> enroll(Word word) {
+        ReviewState state = new ReviewState(word.getUser(), word.getCategory(), word.getWord(), new Date(), 0, 0);
+        return reviewStateRepository.reschedule(Collections.singletonList(new Reschedule(state, null, word.getTranslation()))).then();
+    }
+
+    public Flux<ReviewState> review(String user, UUID category, List<Answer> answers) {
+        Map<String, List<Boolean>> outcomes = answers.stream().collect(Collectors.groupingBy(Answer::getWord, LinkedHashMap::new,
+                Collectors.mapping(Answer::isCorrect, Collectors.toList())));
+        return Flux.fromIterable(outcomes.keySet())
+                .buffer(WORDS_PER_LOOKUP)
+                .concatMap(words -> review(user, category, words, outcomes, RESCHEDULE_ATTEMPTS));
+    }
+
+    /**
+     * Each reschedule is conditional on the review state which was read, so words reviewed or removed meanwhile
+     * are read again and retried, and words which no longer exist are skipped.
+     */
+    private Flux<ReviewState> review(String user, UUID category, List<String> words, Map<String, List<Boolean>> outcomes, int attempts) {
+        return Mono.zip(
+                wordsRepository.findByWords(user, category, words).collectMap(Word::getWord),
+                reviewStateRepository.findByWords(user, category, words).collectMap(ReviewState::getWord, Function.identity()))
+                .flatMapMany(found -> {
+                    Date now = new Date();
+                    List<Reschedule> reschedules = new ArrayList<>();
+                    for (Word word : found.getT1().values()) {
+                        ReviewState previous = found.getT2().get(word.getWord());
+                        ReviewState state = previous == null ? new ReviewState(user, category, word.getWord(), now, 0, 0) : copy(previous);
+                        for (boolean correct : outcomes.get(word.getWord())) {
+                            state = next(state, correct, now);
+                        }
+                        reschedules.add(new Reschedule(state, previous == null ? null : previous.getDue(), word.getTranslation()));
+                    }
+                    return reviewStateRepository.reschedule(reschedules).map(Reschedule::getState).collectList()
+                            .flatMapMany(written -> {
+                                Set<String> applied = written.stream().map(ReviewState::getWord).collect(Collectors.toSet());
+                                List<String> conflicts = reschedules.stream().map(reschedule -> reschedule.getState().getWord())
+                                        .filter(word -> !applied.contains(word))
+                                        .collect(Collectors.toList());
+                                if (conflicts.isEmpty()) {
+                                    return Flux.fromIterable(written);
+                                }
+                                if (attempts == 1) {
+                                    LOG.warn("Dropped answers of {} words of {} {} after {} conflicting reschedules", conflicts.size(), user, category,
+                                            RESCHEDULE_ATTEMPTS);
+                                    return Flux.fromIterable(written);
+                                }
+                                return Flux.fromIterable(written).concatWith(review(user, category, conflicts, outcomes, attempts - 1));
+                            });
+                });
+    }
+
+    public Mono<Void> retranslate(Word word, Set<String> translation) {
+        return reviewStateRepository.findByUserAndCategoryAndWord(word.getUser(), word.getCategory(), word.getWord())
+                .flatMap(state -> dueWordRepository.save(new DueWord(word.getUser(), word.getCategory(), state.getDue(), word.getWord(), translation)))
+                .then();
+    }
+
+    public Mono<Void> remove(Word word) {
+        return reviewStateRepository.findByUserAndCategoryAndWord(word.getUser(), word.getCategory(), word.getWord())
+                .flatMap(state -> dueWordRepository.deleteWord(word.getUser(), word.getCategory(), state.getDue(), word.getWord())
+                        .then(reviewStateRepository.delete(state)))
+                .then();
+    }
+
+    public Mono<Void> removeCategory(String user, UUID category) {
+        return Mono.when(reviewStateRepository.deleteByUserAndCategory(user, category), dueWordRepository.deleteByUserAndCategory(user, category));
+    }
+
+    ReviewState next(ReviewState state, boolean correct, Date now) {
+        ReviewState next = copy(state);
+        if (correct) {
+            next.setIntervalMillis(state.getIntervalMillis() == 0 ? initialInterval : Math.min(maxInterval, state.getIntervalMillis() * 2));
+            next.setStreak(state.getStreak() + 1);
+            next.setDue(new Date(now.getTime() + next.getIntervalMillis()));
+        } else {
+            next.setIntervalMillis(0);
+            next.setStreak(0);
+            next.setDue(new Date(now.getTime() + relearnDelay));
+        }
+        return next;
+    }
+
+    private ReviewState copy(ReviewState state) {
+        return new ReviewState(state.getUser(), state.getCategory(), state.getWord(), state.getDue(), state.getIntervalMillis(), state.getStreak());
+    }
+}
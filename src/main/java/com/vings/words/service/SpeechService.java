@@ -0,0 +1,153 @@
+package com.vings.words.service;
+
+import com.amazonaws.services.polly.AmazonPolly;
+import com.amazonaws.services.polly.model.OutputFormat;
+import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
+import com.datastax.driver.core.utils.UUIDs;
+import com.vings.words.model.Link;
+import com.vings.words.model.Speech;
+import com.vings.words.model.Word;
+import com.vings.words.repository.SpeechRepository;
+import com.vings.words.storage.MediaStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Speech is shared between users: {@link Speech} row is keyed by a hash of normalised text, voice and format, counts words
+ * referencing it and the object goes to the {@link BlobOutbox} with the last reference.
+ * Each synthesis stores its object under the hash with a unique suffix, so speech created again after its last release
+ * never reuses a key which may still be waiting in the outbox.
+ */
+@Component
+public class SpeechService {
+
+    private static final OutputFormat FORMAT = OutputFormat.Mp3;
+
+    @Value("${s3.speech.bucket.name}")
+    private String speechBucket;
+
+    @Value("${polly.words.voice}")
+    private String speechVoice;
+
+    private final AmazonPolly pollyClient;
+
+    private final MediaStore mediaStore;
+
+    private final SpeechRepository speechRepository;
+
+    private final BlobOutbox blobOutbox;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter deletes;
+
+    public SpeechService(AmazonPolly pollyClient, MediaStore mediaStore, SpeechRepository speechRepository, BlobOutbox blobOutbox,
+                         MeterRegistry meterRegistry) {
+        this.pollyClient = pollyClient;
+        this.mediaStore = mediaStore;
+        this.speechRepository = speechRepository;
+        this.blobOutbox = blobOutbox;
+        this.hits = meterRegistry.counter("speech.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("speech.cache.requests", "result", "miss");
+        this.deletes = meterRegistry.counter("speech.cache.deletes");
+        meterRegistry.gauge("speech.cache.hit.ratio", this, SpeechService::hitRatio);
+    }
+
+    /**
+     * Polly client is blocking, so callers must subscribe on a scheduler which is allowed to block.
+     */
+    public Mono<Link> acquire(Word word) {
+        String text = normalize(word.getWord());
+        String hash = hash(text);
+        return reference(hash)
+                .doOnNext(link -> hits.increment())
+                .switchIfEmpty(Mono.defer(() -> create(text, hash)));
+    }
+
+    public Mono<Void> release(Link speech) {
+        String key = speech.getKey();
+        return speechRepository.findById(hashOf(key))
+                .filter(current -> key.equals(current.getLink().getKey()))
+                .map(this::release)
+                .defaultIfEmpty(Mono.defer(() -> collect(key)))
+                .flatMap(release -> release);
+    }
+
+    private Mono<Link> reference(String hash) {
+        return speechRepository.findById(hash)
+                .flatMap(speech -> speechRepository.updateRefs(hash, speech.getRefs(), speech.getRefs() + 1)
+                        .flatMap(applied -> applied ? Mono.just(speech.getLink()) : Mono.defer(() -> reference(hash))));
+    }
+
+    private Mono<Link> create(String text, String hash) {
+        misses.increment();
+        SynthesizeSpeechRequest synthesizeSpeechRequest = new SynthesizeSpeechRequest()
+                .withText(text)
+                .withVoiceId(speechVoice)
+                .withOutputFormat(FORMAT);
+
+        String key = hash + "-" + UUIDs.timeBased();
+        return Mono.fromCallable(() -> pollyClient.synthesizeSpeech(synthesizeSpeechRequest))
+                .flatMap(result -> mediaStore.put(speechBucket, key, result.getAudioStream()))
+                .flatMap(link -> speechRepository.insertIfNotExists(new Speech(hash, link, 1))
+                        .flatMap(created -> created ? Mono.just(link) : collect(key)
+                                .then(reference(hash).switchIfEmpty(Mono.defer(() -> create(text, hash))))));
+    }
+
+    private Mono<Void> release(Speech speech) {
+        String hash = speech.getHash();
+        if (speech.getRefs() > 1) {
+            return speechRepository.updateRefs(hash, speech.getRefs(), speech.getRefs() - 1)
+                    .flatMap(applied -> applied ? Mono.<Void>empty() : release(speech.getLink()));
+        }
+        return speechRepository.deleteIfRefs(hash, speech.getRefs())
+                .flatMap(applied -> applied ? collect(speech.getLink().getKey()).doOnSuccess(deleted -> deletes.increment())
+                        : release(speech.getLink()));
+    }
+
+    private Mono<Void> collect(String key) {
+        return blobOutbox.enqueue(speechBucket, Collections.singletonList(key));
+    }
+
+    /**
+     * Keys stored before per-synthesis suffixes were introduced are the bare hash.
+     */
+    private String hashOf(String key) {
+        int suffix = key.indexOf('-');
+        return suffix < 0 ? key : key.substring(0, suffix);
+    }
+
+    private String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((text + "|" + speechVoice + "|" + FORMAT).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte elem : hash) {
+                hex.append(String.format("%02x", elem));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException exp) {
+            throw new IllegalStateException(exp);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
@@ -1,29 +1,114 @@
 package com.vings.words.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.vings.words.cache.BoundedCache;
 import com.vings.words.model.Example;
+import com.vings.words.metrics.Timers;
+import com.vings.words.model.ExampleByHeadword;
 import com.vings.words.parser.ExampleParser;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.vings.words.repository.ExampleByHeadwordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class WordExampleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordExampleService.class);
+
     @Value("${example.dictionary.api}")
     private String exampleUrl;
 
-    @Autowired
-    private RestTemplate restTemplate;
+    @Value("${example.dictionary.timeout.request}")
+    private long requestTimeout;
+
+    @Value("${example.store.staleness}")
+    private long staleness;
+
+    private final WebClient exampleWebClient;
+
+    private final ExampleParser exampleParser;
+
+    private final BoundedCache<String, Set<Example>> exampleCache;
+
+    private final ExampleByHeadwordRepository exampleStore;
+
+    private final MeterRegistry meterRegistry;
+
+    public WordExampleService(WebClient exampleWebClient, ExampleParser exampleParser,
+                              BoundedCache<String, Set<Example>> exampleCache, ExampleByHeadwordRepository exampleStore,
+                              MeterRegistry meterRegistry) {
+        this.exampleWebClient = exampleWebClient;
+        this.exampleParser = exampleParser;
+        this.exampleCache = exampleCache;
+        this.exampleStore = exampleStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Examples are optional, so dictionary timeouts end up with empty set, other failures are propagated.
+     * Only complete dictionary responses are cached. Requests are timed as {@code examples.requests},
+     * calls of the dictionary as {@code pearson.requests}. Responses are parsed from raw bytes, skipping unused fields.
+     */
+    public Mono<Set<Example>> request(String word) {
+        return Timers.time(exampleCache.get(normalize(word), this::load)
+                .onErrorResume(this::isTimeout, exp -> Mono.just(Collections.emptySet()))
+                .defaultIfEmpty(Collections.emptySet()), meterRegistry, "examples.requests", Tags.empty());
+    }
+
+    /**
+     * Shared store is consulted before the dictionary, so each headword is fetched once per staleness window cluster-wide.
+     */
+    private Mono<Set<Example>> load(String headword) {
+        return exampleStore.findById(headword)
+                .filter(stored -> stored.getFetched() != null && stored.getFetched().getTime() + staleness > System.currentTimeMillis())
+                .map(this::examplesOf)
+                .switchIfEmpty(Mono.defer(() -> fetch(headword).flatMap(examples -> store(headword, examples))));
+    }
+
+    private Mono<Set<Example>> store(String headword, Set<Example> examples) {
+        return exampleStore.save(new ExampleByHeadword(headword, examples, new Date()))
+                .then(Mono.just(examples))
+                .onErrorResume(exp -> {
+                    LOG.warn("Failed to store examples of '{}'", headword, exp);
+                    return Mono.just(examples);
+                });
+    }
 
-    @Autowired
-    private ExampleParser exampleParser;
+    private Set<Example> examplesOf(ExampleByHeadword stored) {
+        return stored.getExamples() == null ? Collections.emptySet() : stored.getExamples();
+    }
 
-    public Set<Example> request(String word) {
-        JsonNode examples = restTemplate.getForObject(exampleUrl + word, JsonNode.class);
+    private Mono<Set<Example>> fetch(String headword) {
+        return Timers.time(exampleWebClient.get()
+                .uri(exampleUrl + "{word}", headword)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .flatMap(body -> Mono.fromCallable(() -> exampleParser.parse(body)))
+                .timeout(Duration.ofMillis(requestTimeout)), meterRegistry, "pearson.requests", Tags.empty());
+    }
+
+    private String normalize(String word) {
+        return word.trim().toLowerCase(Locale.ROOT);
+    }
 
-        return exampleParser.parse(examples);
+    private boolean isTimeout(Throwable exp) {
+        return exp instanceof TimeoutException || exp instanceof ReadTimeoutException || exp instanceof ConnectTimeoutException
+                || exp.getCause() instanceof ReadTimeoutException || exp.getCause() instanceof ConnectTimeoutException;
     }
 }
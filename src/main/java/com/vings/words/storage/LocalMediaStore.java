@@ -0,0 +1,123 @@
+package com.vings.words.storage;
+
+import com.vings.words.model.DeleteReport;
+import com.vings.words.model.Link;
+import com.vings.words.model.StoredObject;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * File system stand-in for S3, keeps objects as {@code root/bucket/key} files.
+ */
+public class LocalMediaStore implements MediaStore {
+
+    private final Path root;
+
+    private final Scheduler scheduler;
+
+    public LocalMediaStore(Path root, Scheduler scheduler) {
+        this.root = root;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<Link> put(String bucket, String key, InputStream content) {
+        return Mono.fromCallable(() -> {
+            Path target = resolve(bucket, key);
+            Files.createDirectories(target.getParent());
+            if (content == null) {
+                Files.deleteIfExists(target);
+                Files.createFile(target);
+            } else {
+                Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new Link(key, target.toUri().toString());
+        }).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Link> put(String bucket, String key, Flux<DataBuffer> content) {
+        return Mono.fromCallable(() -> resolve(bucket, key))
+                .flatMap(target -> Flux.using(() -> open(target),
+                        channel -> DataBufferUtils.write(content.publishOn(scheduler), channel),
+                        this::close)
+                        .map(DataBufferUtils::release)
+                        .then(Mono.just(new Link(key, target.toUri().toString()))))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> delete(String bucket, String key) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(resolve(bucket, key)))
+                .subscribeOn(scheduler)
+                .then();
+    }
+
+    @Override
+    public Mono<DeleteReport> deleteAll(String bucket, Flux<String> keys) {
+        return keys.flatMap(key -> delete(bucket, key)
+                .then(Mono.just(new DeleteReport(1, Collections.<String>emptyList())))
+                .onErrorResume(exp -> Mono.just(new DeleteReport(0, Collections.singletonList(key)))))
+                .reduce(DeleteReport.empty(), DeleteReport::plus);
+    }
+
+    @Override
+    public Mono<Long> head(String bucket, String key) {
+        return Mono.fromCallable(() -> resolve(bucket, key))
+                .filter(Files::exists)
+                .map(path -> path.toFile().length())
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<StoredObject> list(String bucket) {
+        Path bucketPath = root.resolve(bucket).normalize();
+        return Flux.using(() -> Files.walk(bucketPath), Flux::fromStream, Stream::close)
+                .onErrorResume(NoSuchFileException.class, exp -> Flux.empty())
+                .filter(Files::isRegularFile)
+                .map(path -> new StoredObject(bucketPath.relativize(path).toString(), new Date(path.toFile().lastModified())))
+                .subscribeOn(scheduler);
+    }
+
+    private FileChannel open(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException exp) {
+            throw Exceptions.propagate(exp);
+        }
+    }
+
+    private Path resolve(String bucket, String key) {
+        Path bucketPath = root.resolve(bucket).normalize();
+        Path target = bucketPath.resolve(key).normalize();
+        if (!target.startsWith(bucketPath)) {
+            throw new IllegalArgumentException("Key is outside of bucket: " + key);
+        }
+        return target;
+    }
+
+    public void close() {
+        scheduler.dispose();
+    }
+}
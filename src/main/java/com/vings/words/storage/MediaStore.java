@@ -0,0 +1,37 @@
+package com.vings.words.storage;
+
+import com.vings.words.model.DeleteReport;
+import com.vings.words.model.Link;
+import com.vings.words.model.StoredObject;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+
+public interface MediaStore {
+
+    Mono<Link> put(String bucket, String key, InputStream content);
+
+    /**
+     * Streams all buffers into a single object, consumed buffers are released.
+     */
+    Mono<Link> put(String bucket, String key, Flux<DataBuffer> content);
+
+    Mono<Void> delete(String bucket, String key);
+
+    /**
+     * Removes all keys of the stream; a failed key doesn't stop the rest and is listed in the report.
+     */
+    Mono<DeleteReport> deleteAll(String bucket, Flux<String> keys);
+
+    /**
+     * @return content length of the stored object or empty {@link Mono} when object doesn't exist
+     */
+    Mono<Long> head(String bucket, String key);
+
+    /**
+     * Lists all objects of the bucket page by page.
+     */
+    Flux<StoredObject> list(String bucket);
+}
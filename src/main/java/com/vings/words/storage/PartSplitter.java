@@ -0,0 +1,43 @@
+package com.vings.words.storage;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+final class PartSplitter {
+
+    private PartSplitter() {
+    }
+
+    /**
+     * Regroups buffers into parts of at least {@code partSize} bytes, the last part may be smaller.
+     */
+    static Flux<byte[]> split(Flux<DataBuffer> content, int partSize) {
+        return Flux.defer(() -> {
+            long[] accumulated = new long[1];
+            return content.bufferUntil(buffer -> {
+                accumulated[0] += buffer.readableByteCount();
+                if (accumulated[0] >= partSize) {
+                    accumulated[0] = 0;
+                    return true;
+                }
+                return false;
+            });
+        }).map(PartSplitter::join);
+    }
+
+    private static byte[] join(List<DataBuffer> buffers) {
+        int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        byte[] part = new byte[size];
+        int position = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(part, position, length);
+            position += length;
+            DataBufferUtils.release(buffer);
+        }
+        return part;
+    }
+}
@@ -0,0 +1,197 @@
+package com.vings.words.storage;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import com.vings.words.model.DeleteReport;
+import com.vings.words.model.Link;
+import com.vings.words.model.StoredObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AWS SDK 1.x client is blocking, so every call is shifted to the dedicated bounded scheduler
+ * and never occupies event loop threads.
+ */
+public class S3MediaStore implements MediaStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(S3MediaStore.class);
+
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * S3 limit of keys in one multi-object delete request.
+     */
+    private static final int DELETE_BATCH = 1000;
+
+    private final AmazonS3 s3Client;
+
+    private final Scheduler scheduler;
+
+    private final String serverUrl;
+
+    private final int partSize;
+
+    private final int deleteConcurrency;
+
+    public S3MediaStore(AmazonS3 s3Client, Scheduler scheduler, String serverUrl, int partSize, int deleteConcurrency) {
+        this.s3Client = s3Client;
+        this.scheduler = scheduler;
+        this.serverUrl = serverUrl;
+        this.partSize = partSize;
+        this.deleteConcurrency = deleteConcurrency;
+    }
+
+    @Override
+    public Mono<Link> put(String bucket, String key, InputStream content) {
+        return Mono.fromCallable(() -> s3Client.putObject(bucket, key, content, new ObjectMetadata()))
+                .subscribeOn(scheduler)
+                .map(result -> createLink(bucket, key));
+    }
+
+    @Override
+    public Mono<Link> put(String bucket, String key, Flux<DataBuffer> content) {
+        return Mono.defer(() -> {
+            Upload upload = new Upload(bucket, key);
+            return PartSplitter.split(content, partSize)
+                    .concatMap(part -> Mono.fromRunnable(() -> upload.accept(part)).subscribeOn(scheduler))
+                    .then(Mono.fromRunnable(upload::complete).subscribeOn(scheduler))
+                    .onErrorResume(exp -> Mono.fromRunnable(upload::abort).subscribeOn(scheduler).then(Mono.error(exp)))
+                    .then(Mono.fromSupplier(() -> createLink(bucket, key)));
+        });
+    }
+
+    @Override
+    public Mono<Void> delete(String bucket, String key) {
+        return Mono.fromRunnable(() -> s3Client.deleteObject(bucket, key))
+                .subscribeOn(scheduler)
+                .then();
+    }
+
+    @Override
+    public Mono<DeleteReport> deleteAll(String bucket, Flux<String> keys) {
+        return keys.buffer(DELETE_BATCH)
+                .flatMap(batch -> Mono.fromCallable(() -> deleteBatch(bucket, batch))
+                        .subscribeOn(scheduler)
+                        .onErrorResume(exp -> {
+                            LOG.warn("Batch delete of {} keys from {} failed", batch.size(), bucket, exp);
+                            return Mono.just(new DeleteReport(0, batch));
+                        }), deleteConcurrency)
+                .reduce(DeleteReport.empty(), DeleteReport::plus);
+    }
+
+    @Override
+    public Mono<Long> head(String bucket, String key) {
+        return Mono.fromCallable(() -> s3Client.getObjectMetadata(bucket, key).getContentLength())
+                .subscribeOn(scheduler)
+                .onErrorResume(AmazonS3Exception.class, exp -> exp.getStatusCode() == NOT_FOUND ? Mono.empty() : Mono.error(exp));
+    }
+
+    @Override
+    public Flux<StoredObject> list(String bucket) {
+        return list(new ListObjectsV2Request().withBucketName(bucket));
+    }
+
+    public void close() {
+        scheduler.dispose();
+    }
+
+    private Flux<StoredObject> list(ListObjectsV2Request request) {
+        return Mono.fromCallable(() -> s3Client.listObjectsV2(request))
+                .subscribeOn(scheduler)
+                .flatMapMany(result -> Flux.fromIterable(result.getObjectSummaries())
+                        .map(summary -> new StoredObject(summary.getKey(), summary.getLastModified()))
+                        .concatWith(result.isTruncated() ?
+                                Flux.defer(() -> list(request.withContinuationToken(result.getNextContinuationToken()))) : Flux.empty()));
+    }
+
+    private DeleteReport deleteBatch(String bucket, List<String> keys) {
+        DeleteObjectsRequest request = new DeleteObjectsRequest(bucket)
+                .withKeys(keys.toArray(new String[0]))
+                .withQuiet(true);
+        try {
+            s3Client.deleteObjects(request);
+            return new DeleteReport(keys.size(), Collections.emptyList());
+        } catch (MultiObjectDeleteException exp) {
+            List<String> failed = exp.getErrors().stream().map(error -> error.getKey()).collect(Collectors.toList());
+            return new DeleteReport(keys.size() - failed.size(), failed);
+        }
+    }
+
+    private Link createLink(String bucket, String key) {
+        return new Link(key, serverUrl + bucket + "/" + key);
+    }
+
+    /**
+     * Keeps one part behind the stream: content which fits into a single part is stored with
+     * a plain PUT of known length, multipart upload is initiated only when the second part arrives.
+     */
+    private class Upload {
+
+        private final String bucket;
+
+        private final String key;
+
+        private final List<PartETag> tags = new ArrayList<>();
+
+        private byte[] pending;
+
+        private String uploadId;
+
+        Upload(String bucket, String key) {
+            this.bucket = bucket;
+            this.key = key;
+        }
+
+        void accept(byte[] part) {
+            if (pending != null) {
+                uploadPart(pending, false);
+            }
+            pending = part;
+        }
+
+        void complete() {
+            if (uploadId == null) {
+                byte[] data = pending == null ? new byte[0] : pending;
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(data.length);
+                s3Client.putObject(bucket, key, new ByteArrayInputStream(data), metadata);
+            } else {
+                uploadPart(pending, true);
+                s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, tags));
+            }
+            pending = null;
+        }
+
+        void abort() {
+            if (uploadId != null) {
+                s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+            }
+        }
+
+        private void uploadPart(byte[] data, boolean last) {
+            if (uploadId == null) {
+                uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key)).getUploadId();
+            }
+            UploadPartRequest request = new UploadPartRequest()
+                    .withBucketName(bucket)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(tags.size() + 1)
+                    .withInputStream(new ByteArrayInputStream(data))
+                    .withPartSize(data.length)
+                    .withLastPart(last);
+            tags.add(s3Client.uploadPart(request).getPartETag());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.vings.words.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MutableClock clock = new MutableClock();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofMinutes(1), meterRegistry, clock);
+        MonoProcessor<String> response = MonoProcessor.create();
+
+        Mono<String> first = cache.get("word", key -> load(response));
+        Mono<String> second = cache.get("word", key -> load(response));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.onNext("value"))
+                .assertNext(values -> assertThat(values.getT1()).isEqualTo(values.getT2()).isEqualTo("value"))
+                .verifyComplete();
+        StepVerifier.create(cache.get("word", key -> load(Mono.just("other")))).expectNext("value").verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("test.cache.requests", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("test.cache.requests", "result", "miss").count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofMinutes(1), meterRegistry, clock);
+
+        StepVerifier.create(cache.get("word", key -> load(Mono.error(new IllegalStateException())))).verifyError(IllegalStateException.class);
+        StepVerifier.create(cache.get("word", key -> load(Mono.just("value")))).expectNext("value").verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loadInFlightDuringInvalidationNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofMinutes(1), meterRegistry, clock);
+        MonoProcessor<String> response = MonoProcessor.create();
+
+        StepVerifier.create(cache.get("word", key -> load(response)))
+                .then(() -> cache.invalidate("word"))
+                .then(() -> response.onNext("stale"))
+                .expectNext("stale")
+                .verifyComplete();
+
+        StepVerifier.create(cache.get("word", key -> load(Mono.just("fresh")))).expectNext("fresh").verifyComplete();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedEvictedOverSize() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, Duration.ofMinutes(1), meterRegistry, clock);
+
+        cache.get("a", key -> load(Mono.just(key))).block();
+        cache.get("b", key -> load(Mono.just(key))).block();
+        cache.get("a", key -> load(Mono.just(key))).block();
+        cache.get("c", key -> load(Mono.just(key))).block();
+        cache.get("a", key -> load(Mono.just(key))).block();
+        cache.get("b", key -> load(Mono.just(key))).block();
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.counter("test.cache.evictions", "cause", "size").count()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntryReloaded() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofMinutes(1), meterRegistry, clock);
+
+        cache.get("word", key -> load(Mono.just("old"))).block();
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("word", key -> load(Mono.just("new"))).block()).isEqualTo("old");
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("word", key -> load(Mono.just("new"))).block()).isEqualTo("new");
+
+        assertThat(meterRegistry.counter("test.cache.evictions", "cause", "expired").count()).isEqualTo(1);
+    }
+
+    private Mono<String> load(Mono<String> value) {
+        return Mono.defer(() -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
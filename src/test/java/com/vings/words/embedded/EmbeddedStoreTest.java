@@ -0,0 +1,156 @@
+package com.vings.words.embedded;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedStoreTest {
+
+    private final UUID category = UUID.randomUUID();
+
+    private final Path root;
+
+    private EmbeddedStore store;
+
+    EmbeddedStoreTest() throws IOException {
+        root = Files.createTempDirectory("embedded");
+        store = EmbeddedStore.open(root, false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void partitionScannedInClusteringOrder() throws IOException {
+        put("user1", category, "cherry");
+        put("user1", category, "apple");
+        put("user1", UUID.randomUUID(), "banana");
+        put("user10", category, "date");
+        put("user1", category, "banana");
+
+        assertThat(scan("user1", category, null, 10)).containsExactly("apple", "banana", "cherry");
+        assertThat(scan("user1", category, "apple", 1)).containsExactly("banana");
+        assertThat(scan("user1", category, "", 10)).containsExactly("apple", "banana", "cherry");
+    }
+
+    @Test
+    void latestRecordWinsAcrossCheckpoint() throws IOException {
+        put("user1", category, "apple");
+        put("user1", category, "banana");
+        assertThat(store.checkpoint(1)).isTrue();
+        store.put(key("user1", category, "apple"), value("apple v2"));
+        store.delete(key("user1", category, "banana"));
+        put("user1", category, "cherry");
+
+        assertThat(new String(store.get(key("user1", category, "apple")), StandardCharsets.UTF_8)).isEqualTo("apple v2");
+        assertThat(store.get(key("user1", category, "banana"))).isNull();
+        assertThat(scan("user1", category, null, 10)).containsExactly("apple v2", "cherry");
+    }
+
+    @Test
+    void reopenedStoreReplaysLogAfterCheckpoint() throws IOException {
+        put("user1", category, "apple");
+        store.checkpoint(1);
+        put("user1", category, "banana");
+        store.delete(key("user1", category, "apple"));
+        store.close();
+
+        store = EmbeddedStore.open(root, false);
+
+        assertThat(scan("user1", category, null, 10)).containsExactly("banana");
+    }
+
+    @Test
+    void tornRecordTruncatedOnRecovery() throws IOException {
+        put("user1", category, "apple");
+        put("user1", category, "banana");
+        store.close();
+        Path log = root.resolve("0.log");
+        long intact = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 42, 1, 2, 3}));
+        }
+
+        store = EmbeddedStore.open(root, false);
+        put("user1", category, "cherry");
+
+        assertThat(Files.size(log)).isGreaterThan(intact);
+        assertThat(scan("user1", category, null, 10)).containsExactly("apple", "banana", "cherry");
+    }
+
+    @Test
+    void compactionKeepsLiveRowsOnly() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            put("user1", category, "word" + i);
+        }
+        store.checkpoint(1);
+        for (int i = 0; i < 100; i++) {
+            store.put(key("user1", category, "word" + i), value("word" + i + " v2"));
+        }
+        for (int i = 50; i < 100; i++) {
+            store.delete(key("user1", category, "word" + i));
+        }
+        long before = Files.size(root.resolve("0.log"));
+
+        assertThat(store.compact(1.0, 10)).isTrue();
+        put("user1", category, "word99");
+        store.close();
+        store = EmbeddedStore.open(root, false);
+
+        try (Stream<Path> files = Files.list(root)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactlyInAnyOrder("CURRENT", "1.log", "1.idx");
+        }
+        assertThat(Files.size(root.resolve("1.log"))).isLessThan(before / 3);
+        List<String> words = scan("user1", category, null, 1000);
+        assertThat(words).hasSize(51).startsWith("word0 v2").endsWith("word99");
+    }
+
+    @Test
+    void interruptedCompactionDiscarded() throws IOException {
+        put("user1", category, "apple");
+        store.close();
+        Files.write(root.resolve("1.log"), new byte[]{1, 2, 3});
+
+        store = EmbeddedStore.open(root, false);
+
+        assertThat(Files.exists(root.resolve("1.log"))).isFalse();
+        assertThat(scan("user1", category, null, 10)).containsExactly("apple");
+    }
+
+    private void put(String user, UUID category, String word) throws IOException {
+        store.put(key(user, category, word), value(word));
+    }
+
+    private List<String> scan(String user, UUID category, String after, int limit) throws IOException {
+        return store.scan(Keys.encode(user, category), after == null ? null : key(user, category, after), limit).stream()
+                .map(value -> new String(value, StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] key(String user, UUID category, String word) {
+        return Keys.encode(user, category, word);
+    }
+
+    private static byte[] value(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vings.words.embedded;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysTest {
+
+    @Test
+    void stringsOrderedBeforeFollowingColumns() {
+        UUID category = UUID.randomUUID();
+
+        assertThat(Keys.compare(Keys.encode("user", category), Keys.encode("user1", category))).isNegative();
+        assertThat(Keys.compare(Keys.encode("a", "z"), Keys.encode("a\0", "a"))).isNegative();
+        assertThat(Keys.compare(Keys.encode("a", "z"), Keys.encode("ab", "a"))).isNegative();
+        assertThat(Keys.startsWith(Keys.encode("user1", category, "word"), Keys.encode("user1", category))).isTrue();
+        assertThat(Keys.startsWith(Keys.encode("user10", category, "word"), Keys.encode("user1"))).isFalse();
+    }
+
+    @Test
+    void numbersAndDatesOrderedBySignedValue() {
+        assertThat(Keys.compare(Keys.encode(-1), Keys.encode(0))).isNegative();
+        assertThat(Keys.compare(Keys.encode(255), Keys.encode(256))).isNegative();
+        assertThat(Keys.compare(Keys.encode(new Date(-1000)), Keys.encode(new Date(1000)))).isNegative();
+        assertThat(Keys.compare(Keys.encode(false), Keys.encode(true))).isNegative();
+    }
+}
@@ -0,0 +1,62 @@
+package com.vings.words.handlers;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeekedFluxTest {
+
+    @Test
+    void emptySourceGivesEmptyMono() {
+        StepVerifier.create(PeekedFlux.peek(Flux.empty())).verifyComplete();
+    }
+
+    @Test
+    void errorBeforeFirstElementPropagated() {
+        StepVerifier.create(PeekedFlux.peek(Flux.error(new IllegalStateException()))).verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void peekedElementReplayedWithRest() {
+        StepVerifier.create(PeekedFlux.peek(Flux.range(1, 5)).flatMapMany(flux -> flux))
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+    }
+
+    @Test
+    void singleElementSourceCompletesBeforeRestSubscribed() {
+        StepVerifier.create(PeekedFlux.peek(Flux.just(1)).flatMapMany(flux -> flux))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void onlyDownstreamDemandRequestedFromSource() {
+        AtomicLong requested = new AtomicLong();
+        Flux<Integer> source = Flux.range(1, 100).doOnRequest(requested::addAndGet);
+
+        StepVerifier.create(PeekedFlux.peek(source).flatMapMany(flux -> flux), 3)
+                .expectNext(1, 2, 3)
+                .thenCancel()
+                .verify();
+
+        assertThat(requested.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void errorAfterFirstElementPropagated() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(PeekedFlux.peek(source.flux()).flatMapMany(flux -> flux))
+                .then(() -> source.next(1))
+                .expectNext(1)
+                .then(() -> source.next(2).error(new IllegalStateException()))
+                .expectNext(2)
+                .verifyError(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.vings.words.handlers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StreamResponses streamResponses = new StreamResponses(objectMapper);
+
+    @Test
+    void jsonArrayWrittenInChunks() throws IOException {
+        List<Integer> elements = IntStream.range(0, StreamResponses.CHUNK_SIZE * 2 + 1).boxed().collect(Collectors.toList());
+
+        List<DataBuffer> buffers = streamResponses.jsonArray(Flux.fromIterable(elements)).collectList().block();
+
+        assertThat(buffers).hasSize(4);
+        List<Integer> parsed = objectMapper.readValue(join(buffers), new TypeReference<List<Integer>>() {
+        });
+        assertThat(parsed).isEqualTo(elements);
+    }
+
+    @Test
+    void emptyJsonArray() {
+        assertThat(join(streamResponses.jsonArray(Flux.empty()).collectList().block())).isEqualTo("[]");
+    }
+
+    private String join(List<DataBuffer> buffers) {
+        StringBuilder json = new StringBuilder();
+        for (DataBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            json.append(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return json.toString();
+    }
+}
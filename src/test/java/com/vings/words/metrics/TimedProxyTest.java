@@ -0,0 +1,73 @@
+package com.vings.words.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimedProxyTest {
+
+    interface Client {
+
+        Mono<String> get(String key);
+
+        Flux<String> list();
+
+        String blocking(String key);
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Client client = TimedProxy.of(Client.class, new Client() {
+        @Override
+        public Mono<String> get(String key) {
+            return key.isEmpty() ? Mono.error(new IllegalArgumentException("empty key")) : Mono.just(key);
+        }
+
+        @Override
+        public Flux<String> list() {
+            return Flux.just("a", "b", "c");
+        }
+
+        @Override
+        public String blocking(String key) {
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("empty key");
+            }
+            return key;
+        }
+    }, meterRegistry, "client.requests", Tags.of("client", "test"));
+
+    @Test
+    void reactiveCallsTimedOnTermination() {
+        Mono<String> call = client.get("key");
+
+        assertThat(meterRegistry.find("client.requests").timer()).isNull();
+        StepVerifier.create(call).expectNext("key").verifyComplete();
+        StepVerifier.create(client.get("")).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(client.list().take(1)).expectNext("a").verifyComplete();
+
+        assertThat(count("get", "success")).isEqualTo(1);
+        assertThat(count("get", "error")).isEqualTo(1);
+        assertThat(count("list", "cancel")).isEqualTo(1);
+        assertThat(meterRegistry.find("client.requests").tags("method", "get", "outcome", "cancel").timer()).isNull();
+    }
+
+    @Test
+    void blockingCallsTimedAndExceptionsPropagated() {
+        assertThat(client.blocking("key")).isEqualTo("key");
+        assertThatThrownBy(() -> client.blocking("")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(count("blocking", "success")).isEqualTo(1);
+        assertThat(count("blocking", "error")).isEqualTo(1);
+    }
+
+    private long count(String method, String outcome) {
+        return meterRegistry.get("client.requests").tags("client", "test", "method", method, "outcome", outcome).timer().count();
+    }
+}
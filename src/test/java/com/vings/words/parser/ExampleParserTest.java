@@ -1,5 +1,79 @@
 package com.vings.words.parser;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.Example;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 class ExampleParserTest {
 
-}
\ No newline at end of file
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExampleParser exampleParser = new ExampleParser();
+
+    @Test
+    void headwordsDefinitionsAndExamplesParsed() throws IOException {
+        Set<Example> examples = exampleParser.parse(fixture("reactive.json"));
+
+        assertThat(examples).containsExactlyInAnyOrder(
+                new Example("reactive", set("reacting to events or situations rather than starting or doing something new yourself",
+                        "a reactive substance changes when it is mixed with another substance"),
+                        set("Our approach to crime is reactive rather than preventive.", "Sodium is a highly reactive metal.",
+                                "Reactive gases were removed.")),
+                new Example("reactivity", set("the degree to which a substance reacts"), Collections.emptySet()));
+    }
+
+    @Test
+    void streamingParseMatchesTreeParseOnFixtures() throws IOException {
+        for (String name : Arrays.asList("reactive.json", "empty.json")) {
+            byte[] response = fixture(name);
+
+            assertThat(exampleParser.parse(response)).isEqualTo(exampleParser.parse(objectMapper.readTree(response)));
+        }
+    }
+
+    @Test
+    void streamingParseMatchesTreeParseOnIrregularResponse() throws IOException {
+        byte[] response = ("{\"headword\": \"outer\", \"results\": ["
+                + "{\"senses\": [{\"definition\": [\"no headword\", 42, {\"nested\": [1]}], \"examples\": [{\"audio\": {\"text\": \"skipped\"}}, \"plain\"]}]},"
+                + "{\"headword\": null, \"senses\": \"none\"},"
+                + "{\"headword\": [\"array\"], \"senses\": [\"sense\", {\"definition\": \"single\", \"examples\": [{\"text\": 7}, {\"text\": \"kept\"}]}]},"
+                + "\"result\", {\"headword\": 1}"
+                + "], \"total\": {\"results\": []}}").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(exampleParser.parse(response)).isEqualTo(exampleParser.parse(objectMapper.readTree(response)));
+    }
+
+    @Test
+    void emptyResponseParsedAsNoExamples() throws IOException {
+        assertThat(exampleParser.parse(new byte[0])).isEmpty();
+        assertThat(exampleParser.parse("[]".getBytes(StandardCharsets.UTF_8))).isEmpty();
+    }
+
+    @Test
+    void malformedResponseRejected() {
+        byte[] response = "{\"results\": [{\"headword\": \"reactive\"".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(JsonParseException.class, () -> exampleParser.parse(response));
+    }
+
+    private byte[] fixture(String name) throws IOException {
+        return StreamUtils.copyToByteArray(new ClassPathResource("pearson/" + name).getInputStream());
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
@@ -1,7 +1,10 @@
 package com.vings.words.parser;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vings.words.model.Category;
 import com.vings.words.model.Word;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
@@ -10,18 +13,24 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static java.util.Collections.singletonList;
 
 public class MultipartParserTest {
 
-    private final MultipartParser multipartParser = new MultipartParser();
+    private final MultipartParser multipartParser = new MultipartParser(new ObjectMapper());
+
+    private final Word word = new Word.WordBuilder("user1", UUID.fromString("4bd70b80-4cd4-4aec-b6ae-de2ad44877cd"), "Reactive").withAnswers(16).withTranslation(new HashSet<>(singletonList("Реактив"))).build();
 
-    private final String json = "{\"user\":\"user1\",\"category\":\"4bd70b80-4cd4-4aec-b6ae-de2ad44877cd\",\"json\":\"Reactive\",\"answers\":16,\"translation\":[\"Реактив\"],\"image\":null}";
+    private final String json = "{\"user\":\"user1\",\"category\":\"4bd70b80-4cd4-4aec-b6ae-de2ad44877cd\",\"word\":\"Reactive\",\"answers\":16,\"translation\":[\"Реактив\"],\"image\":null}";
 
     @Test
     public void emptyMonoWhenParseNotExistingPart() {
-        Mono<String> parsedWord = multipartParser.parse(null, Word.class);
+        Mono<Word> parsedWord = multipartParser.parse(null, Word.class);
 
         StepVerifier.create(parsedWord).expectComplete().verify();
     }
@@ -29,19 +38,43 @@ public class MultipartParserTest {
     @Test
     public void wordMonoWhenParseWordPart() {
 
-        Mono<String> parsedWord = multipartParser.parse(new StubPart(json), Word.class);
+        Mono<Word> parsedWord = multipartParser.parse(new StubPart(json), Word.class);
+
+        StepVerifier.create(parsedWord).expectNext(word).expectComplete().verify();
+    }
+
+    @Test
+    public void wordMonoWhenPartIsSplitAcrossBuffers() {
+
+        Mono<Word> parsedWord = multipartParser.parse(new StubPart(json.substring(0, 40), json.substring(40)), Word.class);
+
+        StepVerifier.create(parsedWord).expectNext(word).expectComplete().verify();
+    }
+
+    @Test
+    public void categoryMonoWhenParseCategoryPart() {
+
+        Mono<Category> parsedCategory = multipartParser.parse(new StubPart("{\"user\":\"user1\",\"title\":\"Reactive\"}"), Category.class);
+
+        StepVerifier.create(parsedCategory).expectNextMatches(category -> category.getTitle().equals("Reactive")).expectComplete().verify();
+    }
+
+    @Test
+    public void decodingErrorWhenPartIsMalformed() {
+
+        Mono<Word> parsedWord = multipartParser.parse(new StubPart("{\"user\":"), Word.class);
 
-        StepVerifier.create(parsedWord).expectNext(json).expectComplete().verify();
+        StepVerifier.create(parsedWord).expectError(DecodingException.class).verify();
     }
 
     private class StubPart implements Part {
 
         private final DefaultDataBufferFactory defaultDataBufferFactory = new DefaultDataBufferFactory();
 
-        private final String word;
+        private final String[] chunks;
 
-        public StubPart(String word) {
-            this.word = word;
+        public StubPart(String... chunks) {
+            this.chunks = chunks;
         }
 
         @Override
@@ -56,11 +89,8 @@ public class MultipartParserTest {
 
         @Override
         public Flux<DataBuffer> content() {
-            byte[] bytes = word.getBytes();
-            ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-            buffer.put(bytes);
-            buffer.flip();
-            return Flux.fromIterable(Arrays.asList(defaultDataBufferFactory.wrap(buffer)));
+            return Flux.fromIterable(Arrays.asList(chunks))
+                    .map(chunk -> defaultDataBufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.vings.words.repository;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.SchemaChangeListener;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.vings.words.model.BlobDeletion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.cassandra.ReactiveResultSet;
+import org.springframework.data.cassandra.ReactiveSession;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PreparedStatementsTest {
+
+    private final CqlStatement claim = new CqlStatement("outbox.claim", "blob_outbox",
+            "UPDATE blob_outbox SET due = ? WHERE shard = ? AND id = ? IF due = ?;");
+
+    private final ReactiveSession session = mock(ReactiveSession.class);
+    private final Cluster cluster = mock(Cluster.class);
+    private final PreparedStatement prepared = mock(PreparedStatement.class);
+    private final BoundStatement bound = mock(BoundStatement.class);
+    private final ReactiveResultSet resultSet = mock(ReactiveResultSet.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PreparedStatements statements;
+
+    @BeforeEach
+    void setUp() {
+        when(session.getCluster()).thenReturn(cluster);
+        when(session.prepare(anyString())).thenReturn(Mono.just(prepared));
+        when(prepared.bind(any())).thenReturn(bound);
+        when(resultSet.wasApplied()).thenReturn(true);
+        statements = new PreparedStatements(session, meterRegistry);
+        statements.register(claim);
+    }
+
+    @Test
+    void statementPreparedOnceAndTimed() {
+        when(session.execute(bound)).thenReturn(Mono.just(resultSet));
+
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+
+        verify(session, times(1)).prepare(claim.getCql());
+        assertThat(meterRegistry.get("cassandra.statement").tag("statement", "outbox.claim").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cassandra.statement.prepares").tag("statement", "outbox.claim").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyReadsMarkedIdempotent() {
+        CqlStatement read = CqlStatement.read("category.findByUser", "category", "SELECT * FROM category WHERE user = ?;");
+        PreparedStatement readPrepared = mock(PreparedStatement.class);
+        when(session.prepare(read.getCql())).thenReturn(Mono.just(readPrepared));
+        when(readPrepared.bind(any())).thenReturn(bound);
+        when(session.execute(bound)).thenReturn(Mono.just(resultSet));
+        statements.register(read);
+
+        StepVerifier.create(statements.update(read, "user1")).expectNext(true).verifyComplete();
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+
+        verify(readPrepared).setIdempotent(true);
+        verify(prepared).setIdempotent(false);
+    }
+
+    @Test
+    void unknownStatementPreparedAgainAndRetried() {
+        when(session.execute(bound)).thenReturn(Mono.error(new DriverInternalError("Tried to execute unknown prepared query 0x01")))
+                .thenReturn(Mono.just(resultSet));
+
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+
+        verify(session, times(2)).prepare(claim.getCql());
+        verify(session, times(2)).execute(bound);
+    }
+
+    @Test
+    void invalidQueryNotRetried() {
+        when(session.execute(bound)).thenReturn(Mono.error(new InvalidQueryException("Invalid null value for partition key part user")));
+
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).verifyError(InvalidQueryException.class);
+
+        verify(session, times(1)).prepare(claim.getCql());
+        verify(session, times(1)).execute(bound);
+    }
+
+    @Test
+    void failedPreparationNotCached() {
+        when(session.prepare(anyString())).thenReturn(Mono.error(new IllegalStateException("no host"))).thenReturn(Mono.just(prepared));
+        statements = new PreparedStatements(session, meterRegistry);
+        statements.register(claim);
+        when(session.execute(bound)).thenReturn(Mono.just(resultSet));
+
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).verifyError(IllegalStateException.class);
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void tableChangePreparesItsStatementsAgain() {
+        ArgumentCaptor<SchemaChangeListener> listener = ArgumentCaptor.forClass(SchemaChangeListener.class);
+        verify(cluster).register(listener.capture());
+        TableMetadata outbox = mock(TableMetadata.class);
+        when(outbox.getName()).thenReturn("blob_outbox");
+        TableMetadata word = mock(TableMetadata.class);
+        when(word.getName()).thenReturn("word");
+        when(session.execute(bound)).thenReturn(Mono.just(resultSet));
+
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+        listener.getValue().onTableChanged(word, word);
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+        verify(session, times(1)).prepare(claim.getCql());
+
+        listener.getValue().onTableChanged(outbox, outbox);
+        StepVerifier.create(statements.update(claim, 1, 2, 3, 4)).expectNext(true).verifyComplete();
+        verify(session, times(2)).prepare(claim.getCql());
+    }
+
+    @Test
+    void loggedBatchRecordsBlobDeletionsWithMutations() {
+        when(session.execute(any(BatchStatement.class))).thenReturn(Mono.just(resultSet));
+        List<BlobDeletion> blobs = asList(new BlobDeletion(0, UUID.randomUUID(), "words", "image", 0, new Date()),
+                new BlobDeletion(1, UUID.randomUUID(), "words", "thumbnail", 0, new Date()));
+
+        StepVerifier.create(statements.loggedBatch("word.delete", statements.bind(claim, 1, 2, 3, 4), blobs)).expectNext(true).verifyComplete();
+
+        ArgumentCaptor<BatchStatement> batch = ArgumentCaptor.forClass(BatchStatement.class);
+        verify(session).execute(batch.capture());
+        assertThat(batch.getValue().size()).isEqualTo(3);
+        assertThat(meterRegistry.get("cassandra.statement").tag("statement", "word.delete").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.vings.words.routes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RouteMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RouteMetrics routeMetrics = new RouteMetrics(meterRegistry);
+
+    private final ServerRequest request = mock(ServerRequest.class);
+
+    @Test
+    void requestsInFlightGauged() {
+        MonoProcessor<ServerResponse> response = MonoProcessor.create();
+        HandlerFunction<ServerResponse> handler = routeMetrics.timed("category.get", request -> response);
+
+        StepVerifier.create(handler.handle(request))
+                .then(() -> assertThat(active("category.get")).isEqualTo(1))
+                .then(() -> ServerResponse.ok().build().subscribe(response::onNext))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(active("category.get")).isZero();
+        assertThat(meterRegistry.get("http.route").tags("route", "category.get", "status", "200").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedHandlersTimedAsErrors() {
+        HandlerFunction<ServerResponse> handler = routeMetrics.timed("quiz.due", request -> Mono.error(new IllegalArgumentException("count")));
+
+        StepVerifier.create(handler.handle(request)).verifyError(IllegalArgumentException.class);
+
+        assertThat(active("quiz.due")).isZero();
+        assertThat(meterRegistry.get("http.route").tags("route", "quiz.due", "status", "error").timer().count()).isEqualTo(1);
+    }
+
+    private double active(String route) {
+        return meterRegistry.get("http.route.active").tag("route", route).gauge().value();
+    }
+}
@@ -0,0 +1,199 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Word;
+import com.vings.words.model.quiz.Answer;
+import com.vings.words.repository.WordsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class AnswerRecorderTest {
+
+    private final WordsRepository wordsRepository = mock(WordsRepository.class);
+
+    private final LearnedIndex learnedIndex = mock(LearnedIndex.class);
+
+    private final QuizSnapshots quizSnapshots = mock(QuizSnapshots.class);
+
+    private final AnswerRecorder answerRecorder = new AnswerRecorder(wordsRepository, learnedIndex, quizSnapshots);
+
+    private final UUID category = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(answerRecorder, "concurrency", 4);
+        when(learnedIndex.reindex(anyString(), any(UUID.class), anyList())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void answersAggregatedIntoOneBatch() {
+        when(wordsRepository.findByWords("user", category, asList("reactive", "reactor")))
+                .thenReturn(Flux.just(word("reactive", 99), word("reactor", 1)));
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap())).thenReturn(Mono.just(new HashSet<>(asList("reactive", "reactor"))));
+
+        answerRecorder.record("user", category, asList(new Answer("reactive", true), new Answer("reactor", false)));
+        answerRecorder.record("user", category, asList(new Answer("reactor", false), new Answer("reactor", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        Map<String, Integer> previous = new HashMap<>();
+        previous.put("reactive", 99);
+        previous.put("reactor", 1);
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("reactive", 100);
+        expected.put("reactor", 0);
+        verify(wordsRepository).updateAnswers("user", category, previous, expected);
+        verify(learnedIndex).reindex(eq("user"), eq(category), argThat((List<Word> words) ->
+                words.size() == 2 && words.stream().filter(Word::learned).map(Word::getWord).allMatch("reactive"::equals)));
+        verify(quizSnapshots).invalidate("user", category);
+    }
+
+    @Test
+    void nothingWrittenWithoutAnswers() {
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verifyNoMoreInteractions(wordsRepository, learnedIndex);
+    }
+
+    @Test
+    void wordDeletedBeforeWriteNotReindexed() {
+        when(wordsRepository.findByWords("user", category, asList("reactive", "reactor")))
+                .thenReturn(Flux.just(word("reactive", 10), word("reactor", 10)));
+        when(wordsRepository.findByWords("user", category, singletonList("reactor"))).thenReturn(Flux.empty());
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap())).thenReturn(Mono.just(singleton("reactive")));
+
+        answerRecorder.record("user", category, asList(new Answer("reactive", true), new Answer("reactor", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(learnedIndex).reindex(eq("user"), eq(category), argThat((List<Word> words) ->
+                words.size() == 1 && words.get(0).getWord().equals("reactive")));
+    }
+
+    @Test
+    void deltasRequeuedWhenWordsWriteFails() {
+        when(wordsRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.just(word("reactive", 10)))
+                .thenReturn(Flux.just(word("reactive", 10)));
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap()))
+                .thenReturn(Mono.error(new IllegalStateException()))
+                .thenReturn(Mono.just(singleton("reactive")));
+
+        answerRecorder.record("user", category, asList(new Answer("reactive", true), new Answer("reactive", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository, times(2)).updateAnswers("user", category, singletonMap("reactive", 10), singletonMap("reactive", 12));
+        verify(learnedIndex, times(1)).reindex(eq("user"), eq(category), anyList());
+    }
+
+    @Test
+    void deltasRequeuedWhenWordsReadFails() {
+        when(wordsRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.error(new IllegalStateException()))
+                .thenReturn(Flux.just(word("reactive", 10)));
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap())).thenReturn(Mono.just(singleton("reactive")));
+
+        answerRecorder.record("user", category, singletonList(new Answer("reactive", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository).updateAnswers("user", category, singletonMap("reactive", 10), singletonMap("reactive", 11));
+    }
+
+    @Test
+    void failedBatchDoesNotStopFollowingBatches() {
+        when(wordsRepository.findByWords(eq("user"), eq(category), anyList())).thenAnswer(invocation -> {
+            List<String> words = invocation.getArgument(2);
+            return Flux.fromStream(words.stream().map(word -> word(word, 0)));
+        });
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Integer> answers = invocation.getArgument(3);
+            return answers.containsKey("word0") ? Mono.error(new IllegalStateException()) : Mono.just(answers.keySet());
+        });
+        when(learnedIndex.reindex(eq("user"), eq(category), anyList())).thenReturn(Mono.error(new IllegalStateException()));
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            answers.add(new Answer("word" + i, true));
+        }
+
+        answerRecorder.record("user", category, answers);
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository, times(3)).updateAnswers(eq("user"), eq(category), anyMap(), anyMap());
+        verify(learnedIndex, times(2)).reindex(eq("user"), eq(category), anyList());
+        verify(quizSnapshots).invalidate("user", category);
+
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository, times(2)).findByWords(eq("user"), eq(category), argThat((List<String> words) -> words.contains("word0")));
+    }
+
+    @Test
+    void concurrentlyWrittenAnswersReadAgainAndRetried() {
+        when(wordsRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.just(word("reactive", 10)))
+                .thenReturn(Flux.just(word("reactive", 13)));
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap()))
+                .thenReturn(Mono.just(emptySet()))
+                .thenReturn(Mono.just(singleton("reactive")));
+
+        answerRecorder.record("user", category, singletonList(new Answer("reactive", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository).updateAnswers("user", category, singletonMap("reactive", 10), singletonMap("reactive", 11));
+        verify(wordsRepository).updateAnswers("user", category, singletonMap("reactive", 13), singletonMap("reactive", 14));
+        verify(learnedIndex).reindex(eq("user"), eq(category), argThat((List<Word> words) -> words.get(0).getAnswers() == 14));
+    }
+
+    @Test
+    void deltasRequeuedWhenAnswersKeepConflicting() {
+        when(wordsRepository.findByWords("user", category, singletonList("reactive"))).thenAnswer(invocation -> Flux.just(word("reactive", 10)));
+        when(wordsRepository.updateAnswers(eq("user"), eq(category), anyMap(), anyMap())).thenReturn(Mono.just(emptySet()));
+
+        answerRecorder.record("user", category, singletonList(new Answer("reactive", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository, times(3)).updateAnswers("user", category, singletonMap("reactive", 10), singletonMap("reactive", 11));
+        verifyNoMoreInteractions(learnedIndex);
+
+        answerRecorder.record("user", category, singletonList(new Answer("reactive", true)));
+        StepVerifier.create(answerRecorder.flush()).verifyComplete();
+
+        verify(wordsRepository, times(3)).updateAnswers("user", category, singletonMap("reactive", 10), singletonMap("reactive", 12));
+    }
+
+    private Map<String, Integer> singletonMap(String word, int answers) {
+        Map<String, Integer> map = new HashMap<>();
+        map.put(word, answers);
+        return map;
+    }
+
+    private Word word(String word, int answers) {
+        return new Word.WordBuilder("user", category, word).withAnswers(answers).build();
+    }
+}
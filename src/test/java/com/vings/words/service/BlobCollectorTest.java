@@ -0,0 +1,95 @@
+package com.vings.words.service;
+
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.DeleteReport;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.storage.MediaStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlobCollectorTest {
+
+    private final BlobOutboxRepository outboxRepository = mock(BlobOutboxRepository.class);
+    private final MediaStore mediaStore = mock(MediaStore.class);
+
+    private final BlobCollector collector = new BlobCollector(outboxRepository, mediaStore);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(collector, "shards", 1);
+        ReflectionTestUtils.setField(collector, "pollInterval", 60000L);
+        ReflectionTestUtils.setField(collector, "lease", 60000L);
+        ReflectionTestUtils.setField(collector, "batch", 2);
+        ReflectionTestUtils.setField(collector, "maxAttempts", 3);
+        ReflectionTestUtils.setField(collector, "backoff", 1000L);
+        collector.start();
+
+        when(outboxRepository.move(any(BlobDeletion.class), any(Date.class))).thenReturn(Mono.just(true));
+        when(outboxRepository.delete(any(BlobDeletion.class))).thenReturn(Mono.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.stop();
+    }
+
+    @Test
+    void pollDeletesAtMostBatchOfDueObjects() {
+        BlobDeletion first = deletion("first", 0, new Date(0));
+        BlobDeletion second = deletion("second", 0, new Date(0));
+        BlobDeletion third = deletion("third", 0, new Date(0));
+        when(outboxRepository.findDue(eq(0), any(Date.class), eq(2))).thenReturn(Flux.just(first, second, third));
+        when(mediaStore.deleteAll(eq("words-bucket"), any())).thenReturn(Mono.just(new DeleteReport(2, Collections.emptyList())));
+
+        StepVerifier.create(collector.poll()).verifyComplete();
+
+        verify(outboxRepository, never()).move(eq(third), any(Date.class));
+        verify(outboxRepository).delete(first);
+        verify(outboxRepository).delete(second);
+    }
+
+    @Test
+    void failedKeysRetriedWithBackoff() {
+        BlobDeletion deleted = deletion("deleted", 0, new Date(0));
+        BlobDeletion failed = deletion("failed", 1, new Date(0));
+        when(mediaStore.deleteAll(eq("words-bucket"), any())).thenReturn(Mono.just(new DeleteReport(1, Collections.singletonList("failed"))));
+
+        long before = System.currentTimeMillis();
+        StepVerifier.create(collector.collect("words-bucket", asList(deleted, failed))).verifyComplete();
+
+        verify(outboxRepository).delete(deleted);
+        verify(outboxRepository).move(eq(failed), argThat(due -> due.getTime() >= before + 2000));
+        assertThat(failed.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void deletionDroppedAfterLastAttempt() {
+        BlobDeletion failed = deletion("failed", 2, new Date(0));
+        when(mediaStore.deleteAll(eq("words-bucket"), any())).thenReturn(Mono.just(new DeleteReport(0, Collections.singletonList("failed"))));
+
+        StepVerifier.create(collector.collect("words-bucket", Collections.singletonList(failed))).verifyComplete();
+
+        verify(outboxRepository).delete(failed);
+        verify(outboxRepository, never()).move(any(BlobDeletion.class), any(Date.class));
+    }
+
+    private BlobDeletion deletion(String key, int attempts, Date due) {
+        return new BlobDeletion(0, UUID.randomUUID(), "words-bucket", key, attempts, due);
+    }
+}
@@ -0,0 +1,66 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Category;
+import com.vings.words.model.Link;
+import com.vings.words.model.Speech;
+import com.vings.words.model.StoredObject;
+import com.vings.words.model.Word;
+import com.vings.words.repository.CategoryRepository;
+import com.vings.words.repository.SpeechRepository;
+import com.vings.words.repository.WordsRepository;
+import com.vings.words.storage.MediaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BlobReconcilerTest {
+
+    private final MediaStore mediaStore = mock(MediaStore.class);
+    private final WordsRepository wordsRepository = mock(WordsRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final SpeechRepository speechRepository = mock(SpeechRepository.class);
+    private final BlobOutbox blobOutbox = mock(BlobOutbox.class);
+
+    private final BlobReconciler reconciler = new BlobReconciler(mediaStore, wordsRepository, categoryRepository, speechRepository, blobOutbox);
+
+    private final Date old = new Date(System.currentTimeMillis() - 2 * 3600_000L);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciler, "wordsBucket", "words");
+        ReflectionTestUtils.setField(reconciler, "speechBucket", "speech");
+        ReflectionTestUtils.setField(reconciler, "grace", 3600_000L);
+        when(blobOutbox.enqueue(anyString(), anyList())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void unreferencedObjectsQueuedForCollection() {
+        Word word = new Word.WordBuilder("user1", UUID.randomUUID(), "Reactive").withImage(new Link("word-image", "url"))
+                .withSpeech(new Link("legacy", "url")).build();
+        Category category = new Category("user1", "Reactive", new Link("category-image", "url"));
+        when(wordsRepository.findAll()).thenReturn(Flux.just(word, new Word.WordBuilder("user1", UUID.randomUUID(), "Core").build()));
+        when(categoryRepository.findAll()).thenReturn(Flux.just(category));
+        when(mediaStore.list("words")).thenReturn(Flux.just(new StoredObject("word-image", old), new StoredObject("category-image", old),
+                new StoredObject("orphan", old), new StoredObject("uploading", new Date())));
+        when(mediaStore.list("speech")).thenReturn(Flux.just(new StoredObject("shared", old), new StoredObject("legacy", old),
+                new StoredObject("released", old)));
+        when(speechRepository.findAll()).thenReturn(Flux.just(new Speech("shared", new Link("shared", "url"), 2)));
+
+        StepVerifier.create(reconciler.reconcile()).expectNext(2L).verifyComplete();
+
+        verify(blobOutbox).enqueue("words", Collections.singletonList("orphan"));
+        verify(blobOutbox).enqueue("speech", Collections.singletonList("released"));
+        verifyNoMoreInteractions(blobOutbox);
+        verify(wordsRepository, times(1)).findAll();
+    }
+}
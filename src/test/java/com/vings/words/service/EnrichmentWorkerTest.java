@@ -0,0 +1,138 @@
+package com.vings.words.service;
+
+import com.vings.words.model.EnrichmentJob;
+import com.vings.words.model.EnrichmentStatus;
+import com.vings.words.model.Link;
+import com.vings.words.model.Word;
+import com.vings.words.repository.EnrichmentJobRepository;
+import com.vings.words.repository.WordsRepository;
+import com.vings.words.stub.StubWordExampleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EnrichmentWorkerTest {
+
+    private final UUID category = UUID.randomUUID();
+    private final Word word = new Word.WordBuilder("user1", category, "Reactive").withTranslation(new HashSet<>(singletonList("Реактив"))).build();
+    private final Link speech = new Link("key", "url");
+
+    private final EnrichmentJobRepository jobRepository = mock(EnrichmentJobRepository.class);
+    private final WordsRepository wordsRepository = mock(WordsRepository.class);
+    private final SpeechService speechService = mock(SpeechService.class);
+
+    private final EnrichmentWorker worker = new EnrichmentWorker(jobRepository, wordsRepository, speechService, new StubWordExampleService());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "workers", 2);
+        ReflectionTestUtils.setField(worker, "pollInterval", 60000L);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "backoff", 1000L);
+        worker.start();
+
+        when(wordsRepository.findByUserAndCategoryAndWord("user1", category, "Reactive")).thenReturn(Mono.just(word));
+        when(wordsRepository.enrich(anyString(), any(), anyString(), any(), any(), any())).thenReturn(Mono.just(true));
+        when(wordsRepository.updateEnrichment(anyString(), any(), anyString(), any())).thenReturn(Mono.just(true));
+        when(jobRepository.delete(any(EnrichmentJob.class))).thenReturn(Mono.empty());
+        when(jobRepository.move(any(EnrichmentJob.class), any(Date.class))).thenReturn(Mono.just(true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    @Test
+    void enrichedWordMarkedDoneAndJobRemoved() {
+        when(speechService.acquire(word)).thenReturn(Mono.just(speech));
+        EnrichmentJob job = job(0);
+
+        StepVerifier.create(worker.process(job)).verifyComplete();
+
+        verify(wordsRepository).enrich(eq("user1"), eq(category), eq("Reactive"), eq(speech), argThat(examples -> examples.size() == 1), eq(EnrichmentStatus.DONE));
+        verify(jobRepository).delete(job);
+    }
+
+    @Test
+    void acquiredSpeechReleasedWhenWordUpdateFailed() {
+        when(speechService.acquire(word)).thenReturn(Mono.just(speech));
+        when(speechService.release(speech)).thenReturn(Mono.empty());
+        when(wordsRepository.enrich(anyString(), any(), anyString(), any(), any(), any())).thenReturn(Mono.error(new IllegalStateException("cassandra is down")));
+
+        StepVerifier.create(worker.process(job(0))).verifyComplete();
+
+        verify(speechService).release(speech);
+    }
+
+    @Test
+    void acquiredSpeechReleasedWhenWordDeletedMeanwhile() {
+        when(speechService.acquire(word)).thenReturn(Mono.just(speech));
+        when(speechService.release(speech)).thenReturn(Mono.empty());
+        when(wordsRepository.enrich(anyString(), any(), anyString(), any(), any(), any())).thenReturn(Mono.just(false));
+        EnrichmentJob job = job(0);
+
+        StepVerifier.create(worker.process(job)).verifyComplete();
+
+        verify(speechService).release(speech);
+        verify(jobRepository).delete(job);
+    }
+
+    @Test
+    void failedJobRescheduledWithBackoff() {
+        when(speechService.acquire(word)).thenReturn(Mono.error(new IllegalStateException("polly is down")));
+        EnrichmentJob job = job(1);
+        long before = System.currentTimeMillis();
+
+        StepVerifier.create(worker.process(job)).verifyComplete();
+
+        assertThat(job.getAttempts()).isEqualTo(2);
+        verify(jobRepository).move(eq(job), argThat(due -> due.getTime() >= before + 2000));
+        verify(jobRepository, never()).delete(any(EnrichmentJob.class));
+    }
+
+    @Test
+    void jobFailedAfterLastAttempt() {
+        when(speechService.acquire(word)).thenReturn(Mono.error(new IllegalStateException("polly is down")));
+        EnrichmentJob job = job(2);
+
+        StepVerifier.create(worker.process(job)).verifyComplete();
+
+        verify(wordsRepository).updateEnrichment("user1", category, "Reactive", EnrichmentStatus.FAILED);
+        verify(jobRepository).delete(job);
+        verify(jobRepository, never()).move(any(EnrichmentJob.class), any(Date.class));
+    }
+
+    @Test
+    void onlyDueJobsOfEachShardReadAndClaimed() {
+        ReflectionTestUtils.setField(worker, "shards", 2);
+        ReflectionTestUtils.setField(worker, "lease", 60000L);
+        ReflectionTestUtils.setField(worker, "batch", 10);
+        when(speechService.acquire(word)).thenReturn(Mono.just(speech));
+        EnrichmentJob job = job(0);
+        when(jobRepository.findDue(eq(0), any(Date.class), eq(10))).thenReturn(Flux.just(job));
+        when(jobRepository.findDue(eq(1), any(Date.class), eq(10))).thenReturn(Flux.empty());
+
+        StepVerifier.create(worker.poll()).verifyComplete();
+
+        verify(jobRepository).move(eq(job), argThat(lease -> lease.getTime() > System.currentTimeMillis()));
+        verify(jobRepository).delete(job);
+    }
+
+    private EnrichmentJob job(int attempts) {
+        return new EnrichmentJob(0, UUID.randomUUID(), word.getUser(), word.getCategory(), word.getWord(), attempts, new Date());
+    }
+}
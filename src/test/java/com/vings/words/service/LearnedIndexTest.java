@@ -0,0 +1,48 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Word;
+import com.vings.words.model.WordByLearned;
+import com.vings.words.repository.WordByLearnedRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static java.util.Collections.singleton;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LearnedIndexTest {
+
+    private final WordByLearnedRepository wordByLearnedRepository = mock(WordByLearnedRepository.class);
+
+    private final LearnedIndex learnedIndex = new LearnedIndex(wordByLearnedRepository);
+
+    private final UUID category = UUID.randomUUID();
+
+    @Test
+    void learnedWordMovedOutOfUnlearnedPartition() {
+        Word word = new Word.WordBuilder("user", category, "reactive").withAnswers(100).withTranslation(singleton("реактивный")).build();
+        when(wordByLearnedRepository.save(any(WordByLearned.class))).then(invocation -> Mono.just(invocation.getArgument(0)));
+        when(wordByLearnedRepository.deleteWord("user", category, false, "reactive")).thenReturn(Mono.empty());
+
+        StepVerifier.create(learnedIndex.index(word)).verifyComplete();
+
+        verify(wordByLearnedRepository).save(new WordByLearned("user", category, true, "reactive", 100, singleton("реактивный")));
+        verify(wordByLearnedRepository).deleteWord("user", category, false, "reactive");
+    }
+
+    @Test
+    void removedWordDeletedFromBothPartitions() {
+        Word word = new Word.WordBuilder("user", category, "reactive").withAnswers(5).build();
+        when(wordByLearnedRepository.deleteWord(any(), any(), any(Boolean.class), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(learnedIndex.remove(word)).verifyComplete();
+
+        verify(wordByLearnedRepository).deleteWord("user", category, true, "reactive");
+        verify(wordByLearnedRepository).deleteWord("user", category, false, "reactive");
+    }
+}
@@ -0,0 +1,133 @@
+package com.vings.words.service;
+
+import com.vings.words.model.WordByLearned;
+import com.vings.words.model.quiz.Guess;
+import com.vings.words.model.quiz.Sprint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuizGeneratorTest {
+
+    private final QuizGenerator quizGenerator = new QuizGenerator();
+
+    private final UUID category = UUID.randomUUID();
+
+    @Test
+    void sampleExcludesCorrectAnswers() {
+        String[] pool = {"a", "b", "c", "d", "e"};
+
+        for (int i = 0; i < 100; i++) {
+            List<String> sample = QuizGenerator.sample(pool, 3, new HashSet<>(asList("a", "c")), new Random(i));
+            assertThat(sample).hasSize(3).doesNotHaveDuplicates().containsOnly("b", "d", "e");
+        }
+    }
+
+    @Test
+    void sampleIsUniform() {
+        String[] pool = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(42);
+        int rounds = 40_000;
+
+        for (int i = 0; i < rounds; i++) {
+            for (String picked : QuizGenerator.sample(pool, 2, singleton("h"), random)) {
+                counts.merge(picked, 1, Integer::sum);
+            }
+        }
+
+        assertThat(counts).doesNotContainKey("h").hasSize(7);
+        counts.values().forEach(count -> assertThat(count / (double) rounds).isCloseTo(2.0 / 7, within(0.01)));
+    }
+
+    @Test
+    void sampleDoesNotModifyPool() {
+        String[] pool = {"a", "b", "c", "d"};
+
+        QuizGenerator.sample(pool, 3, new HashSet<>(), new Random(1));
+
+        assertThat(pool).containsExactly("a", "b", "c", "d");
+    }
+
+    @Test
+    void guessHasDistractorsAndCorrectAnswer() {
+        List<Guess> questions = quizGenerator.guess(words(10), 0, 10);
+
+        assertThat(questions).hasSize(10);
+        questions.forEach(guess -> {
+            assertThat(guess.getAnswers()).hasSize(QuizGenerator.GUESS_DISTRACTORS + 1).contains(guess.getCorrect());
+            assertThat(guess.getCorrect()).isEqualTo("translation-" + guess.getWord());
+        });
+    }
+
+    @Test
+    void guessCorrectAnswerPositionIsUniform() {
+        QuizSnapshot words = words(10);
+        Map<Integer, Integer> positions = new HashMap<>();
+        int rounds = 400;
+
+        for (int i = 0; i < rounds; i++) {
+            for (Guess guess : quizGenerator.guess(words, 0, 10)) {
+                positions.merge(new ArrayList<>(guess.getAnswers()).indexOf(guess.getCorrect()), 1, Integer::sum);
+            }
+        }
+
+        assertThat(positions).containsOnlyKeys(0, 1, 2, 3);
+        positions.values().forEach(count -> assertThat(count / (rounds * 10.0)).isCloseTo(0.25, within(0.03)));
+    }
+
+    @Test
+    void guessWithFewWordsUsesAvailableDistractors() {
+        List<Guess> questions = quizGenerator.guess(words(2), 0, 10);
+
+        assertThat(questions).hasSize(2);
+        assertThat(questions).allSatisfy(guess -> assertThat(guess.getAnswers()).hasSize(2).contains(guess.getCorrect()));
+    }
+
+    @Test
+    void sprintWrongAnswersComeFromWholeCategory() {
+        QuizSnapshot words = words(5);
+        Map<String, Integer> wrongAnswers = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            for (Sprint sprint : quizGenerator.sprint(words, 0, 1)) {
+                if (!sprint.isCorrect()) {
+                    wrongAnswers.merge(sprint.getAnswer(), 1, Integer::sum);
+                }
+            }
+        }
+
+        assertThat(wrongAnswers.keySet()).containsOnly("translation-word1", "translation-word2", "translation-word3", "translation-word4");
+    }
+
+    @Test
+    void pageOutOfRangeIsEmpty() {
+        assertThat(quizGenerator.crossword(words(3), 1, 3)).isEmpty();
+        assertThat(quizGenerator.crossword(words(3), 1, 2)).extracting("word").containsExactly("word2");
+    }
+
+    @Test
+    void negativePageRejected() {
+        assertThatThrownBy(() -> quizGenerator.crossword(words(3), -1, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private QuizSnapshot words(int count) {
+        List<WordByLearned> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            words.add(new WordByLearned("user", category, false, "word" + i, i, singleton("translation-word" + i)));
+        }
+        return QuizSnapshot.of(words);
+    }
+}
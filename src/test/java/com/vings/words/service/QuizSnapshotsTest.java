@@ -0,0 +1,54 @@
+package com.vings.words.service;
+
+import com.vings.words.cache.BoundedCache;
+import com.vings.words.model.WordByLearned;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizSnapshotsTest {
+
+    private final LearnedIndex learnedIndex = mock(LearnedIndex.class);
+
+    private final QuizSnapshots quizSnapshots = new QuizSnapshots(learnedIndex,
+            new BoundedCache<>("quiz.snapshot", 10, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+
+    private final UUID category = UUID.randomUUID();
+
+    @Test
+    void snapshotReusedUntilInvalidated() {
+        when(learnedIndex.find("user", category, false))
+                .thenReturn(Flux.just(new WordByLearned("user", category, false, "reactive", 1, singleton("реактивный"))))
+                .thenReturn(Flux.just(new WordByLearned("user", category, false, "reactor", 1, singleton("реактор"))));
+
+        StepVerifier.create(quizSnapshots.get("user", category)).assertNext(snapshot -> assertThat(snapshot.word(0)).isEqualTo("reactive")).verifyComplete();
+        StepVerifier.create(quizSnapshots.get("user", category)).assertNext(snapshot -> assertThat(snapshot.word(0)).isEqualTo("reactive")).verifyComplete();
+        quizSnapshots.invalidate("user", category);
+        StepVerifier.create(quizSnapshots.get("user", category)).assertNext(snapshot -> assertThat(snapshot.word(0)).isEqualTo("reactor")).verifyComplete();
+
+        verify(learnedIndex, times(2)).find("user", category, false);
+    }
+
+    @Test
+    void snapshotSharesInternedStrings() {
+        QuizSnapshot snapshot = QuizSnapshot.of(asList(
+                new WordByLearned("user", category, false, "reactive", 1, singleton(new String("общий"))),
+                new WordByLearned("user", category, false, "reactor", 1, singleton(new String("общий")))));
+
+        assertThat(snapshot.translations(0)[0]).isSameAs(snapshot.translations(1)[0]);
+        assertThat(snapshot.distractors()).containsExactly("общий");
+        assertThat(snapshot.footprint()).isPositive();
+    }
+}
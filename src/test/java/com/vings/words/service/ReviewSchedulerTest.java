@@ -0,0 +1,143 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Reschedule;
+import com.vings.words.model.ReviewState;
+import com.vings.words.model.Word;
+import com.vings.words.model.quiz.Answer;
+import com.vings.words.repository.DueWordRepository;
+import com.vings.words.repository.ReviewStateRepository;
+import com.vings.words.repository.WordsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewSchedulerTest {
+
+    private static final long DAY = 86_400_000L;
+
+    private final ReviewStateRepository reviewStateRepository = mock(ReviewStateRepository.class);
+
+    private final WordsRepository wordsRepository = mock(WordsRepository.class);
+
+    private final ReviewScheduler reviewScheduler = new ReviewScheduler(reviewStateRepository, mock(DueWordRepository.class), wordsRepository);
+
+    private final UUID category = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reviewScheduler, "initialInterval", DAY);
+        ReflectionTestUtils.setField(reviewScheduler, "maxInterval", 8 * DAY);
+        ReflectionTestUtils.setField(reviewScheduler, "relearnDelay", 600_000L);
+    }
+
+    @Test
+    void correctAnswersDoubleIntervalUpToMaximum() {
+        Date now = new Date(0);
+        ReviewState state = new ReviewState("user", category, "reactive", now, 0, 0);
+
+        state = reviewScheduler.next(state, true, now);
+        assertThat(state.getIntervalMillis()).isEqualTo(DAY);
+        assertThat(state.getDue()).isEqualTo(new Date(DAY));
+        state = reviewScheduler.next(reviewScheduler.next(reviewScheduler.next(state, true, now), true, now), true, now);
+        assertThat(state.getIntervalMillis()).isEqualTo(8 * DAY);
+        state = reviewScheduler.next(state, true, now);
+        assertThat(state.getIntervalMillis()).isEqualTo(8 * DAY);
+        assertThat(state.getStreak()).isEqualTo(5);
+    }
+
+    @Test
+    void wrongAnswerResetsInterval() {
+        Date now = new Date(0);
+        ReviewState state = reviewScheduler.next(new ReviewState("user", category, "reactive", now, 4 * DAY, 3), false, now);
+
+        assertThat(state.getIntervalMillis()).isZero();
+        assertThat(state.getStreak()).isZero();
+        assertThat(state.getDue()).isEqualTo(new Date(600_000L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reviewMovesDueRowsOfKnownWords() {
+        Date previousDue = new Date(System.currentTimeMillis() - DAY);
+        when(wordsRepository.findByWords("user", category, asList("reactive", "reactor", "unknown"))).thenReturn(Flux.just(
+                new Word.WordBuilder("user", category, "reactive").withTranslation(singleton("реактивный")).build(),
+                new Word.WordBuilder("user", category, "reactor").withTranslation(singleton("реактор")).build()));
+        when(reviewStateRepository.findByWords("user", category, asList("reactive", "reactor", "unknown")))
+                .thenReturn(Flux.just(new ReviewState("user", category, "reactive", previousDue, DAY, 1)));
+        when(reviewStateRepository.reschedule(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+        StepVerifier.create(reviewScheduler.review("user", category, asList(new Answer("reactive", true),
+                new Answer("reactor", false), new Answer("unknown", true), new Answer("reactive", true))))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        ArgumentCaptor<List<Reschedule>> reschedules = ArgumentCaptor.forClass(List.class);
+        verify(reviewStateRepository).reschedule(reschedules.capture());
+        assertThat(reschedules.getValue()).hasSize(2);
+        Reschedule reactive = reschedules.getValue().stream().filter(r -> r.getState().getWord().equals("reactive")).findFirst().get();
+        assertThat(reactive.getPreviousDue()).isEqualTo(previousDue);
+        assertThat(reactive.getState().getIntervalMillis()).isEqualTo(4 * DAY);
+        assertThat(reactive.getTranslation()).containsExactly("реактивный");
+        Reschedule reactor = reschedules.getValue().stream().filter(r -> r.getState().getWord().equals("reactor")).findFirst().get();
+        assertThat(reactor.getPreviousDue()).isNull();
+        assertThat(reactor.getState().getStreak()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void conflictingRescheduleRetriedWithStateReadAgain() {
+        Date previousDue = new Date(System.currentTimeMillis() - DAY);
+        Date reviewedDue = new Date(System.currentTimeMillis() + DAY);
+        Word reactive = new Word.WordBuilder("user", category, "reactive").withTranslation(singleton("реактивный")).build();
+        when(wordsRepository.findByWords("user", category, singletonList("reactive"))).thenReturn(Flux.just(reactive));
+        when(reviewStateRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.just(new ReviewState("user", category, "reactive", previousDue, DAY, 1)))
+                .thenReturn(Flux.just(new ReviewState("user", category, "reactive", reviewedDue, 2 * DAY, 2)));
+        when(reviewStateRepository.reschedule(anyList()))
+                .thenReturn(Flux.empty())
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+        StepVerifier.create(reviewScheduler.review("user", category, singletonList(new Answer("reactive", true))))
+                .assertNext(state -> assertThat(state.getIntervalMillis()).isEqualTo(4 * DAY))
+                .verifyComplete();
+
+        ArgumentCaptor<List<Reschedule>> reschedules = ArgumentCaptor.forClass(List.class);
+        verify(reviewStateRepository, times(2)).reschedule(reschedules.capture());
+        assertThat(reschedules.getAllValues().get(1).get(0).getPreviousDue()).isEqualTo(reviewedDue);
+    }
+
+    @Test
+    void wordDeletedDuringConflictSkipped() {
+        Date previousDue = new Date(System.currentTimeMillis() - DAY);
+        when(wordsRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.just(new Word.WordBuilder("user", category, "reactive").withTranslation(singleton("реактивный")).build()))
+                .thenReturn(Flux.empty());
+        when(reviewStateRepository.findByWords("user", category, singletonList("reactive")))
+                .thenReturn(Flux.just(new ReviewState("user", category, "reactive", previousDue, DAY, 1)))
+                .thenReturn(Flux.empty());
+        when(reviewStateRepository.reschedule(anyList())).thenAnswer(invocation -> Flux.empty());
+
+        StepVerifier.create(reviewScheduler.review("user", category, singletonList(new Answer("reactive", true))))
+                .verifyComplete();
+
+        verify(reviewStateRepository).reschedule(Collections.emptyList());
+    }
+}
@@ -0,0 +1,138 @@
+package com.vings.words.service;
+
+import com.vings.words.model.Link;
+import com.vings.words.model.Speech;
+import com.vings.words.model.Word;
+import com.vings.words.repository.SpeechRepository;
+import com.vings.words.storage.MediaStore;
+import com.vings.words.stub.StubPolly;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SpeechServiceTest {
+
+    private final Word apple = new Word.WordBuilder("user1", UUID.randomUUID(), " Apple").build();
+    private final Link link = new Link("hash", "url");
+
+    private final StubPolly polly = new StubPolly();
+    private final MediaStore mediaStore = mock(MediaStore.class);
+    private final SpeechRepository speechRepository = mock(SpeechRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BlobOutbox blobOutbox = mock(BlobOutbox.class);
+
+    private final SpeechService speechService = new SpeechService(polly, mediaStore, speechRepository, blobOutbox, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(speechService, "speechBucket", "speech");
+        ReflectionTestUtils.setField(speechService, "speechVoice", "Joanna");
+    }
+
+    @Test
+    void speechSharedBetweenUsers() {
+        when(speechRepository.findById(anyString())).thenReturn(Mono.just(new Speech("hash", link, 3)));
+        when(speechRepository.updateRefs(anyString(), eq(3), eq(4))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(speechService.acquire(apple)).expectNext(link).verifyComplete();
+
+        assertThat(polly.requests()).isZero();
+        verifyNoMoreInteractions(mediaStore);
+        assertThat(meterRegistry.get("speech.cache.hit.ratio").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void speechSynthesizedOnceOnMiss() {
+        when(speechRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(mediaStore.put(eq("speech"), anyString(), any(InputStream.class))).thenAnswer(invocation -> Mono.just(new Link(invocation.getArgument(1), "url")));
+        when(speechRepository.insertIfNotExists(any(Speech.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(speechService.acquire(apple))
+                .assertNext(speech -> assertThat(speech.getKey()).matches("[0-9a-f]{64}-.+"))
+                .verifyComplete();
+
+        assertThat(polly.requests()).isEqualTo(1);
+        verify(speechRepository).insertIfNotExists(argThat(speech -> speech.getRefs() == 1));
+        assertThat(meterRegistry.get("speech.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sameRowForNormalisedTextAndNewKeyForEachSynthesis() {
+        when(speechRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(mediaStore.put(eq("speech"), anyString(), any(InputStream.class))).thenAnswer(invocation -> Mono.just(new Link(invocation.getArgument(1), "url")));
+        when(speechRepository.insertIfNotExists(any(Speech.class))).thenReturn(Mono.just(true));
+
+        Link first = speechService.acquire(apple).block();
+        Link second = speechService.acquire(new Word.WordBuilder("user2", UUID.randomUUID(), "apple").build()).block();
+
+        ArgumentCaptor<Speech> rows = ArgumentCaptor.forClass(Speech.class);
+        verify(speechRepository, times(2)).insertIfNotExists(rows.capture());
+        assertThat(rows.getAllValues().get(0).getHash()).isEqualTo(rows.getAllValues().get(1).getHash());
+        assertThat(first.getKey()).isNotEqualTo(second.getKey());
+    }
+
+    @Test
+    void objectOfLosingSynthesisQueuedForCollection() {
+        Speech winner = new Speech("hash", link, 1);
+        when(speechRepository.findById(anyString())).thenReturn(Mono.empty()).thenReturn(Mono.just(winner));
+        when(mediaStore.put(eq("speech"), anyString(), any(InputStream.class))).thenAnswer(invocation -> Mono.just(new Link(invocation.getArgument(1), "url")));
+        when(speechRepository.insertIfNotExists(any(Speech.class))).thenReturn(Mono.just(false));
+        when(speechRepository.updateRefs(anyString(), eq(1), eq(2))).thenReturn(Mono.just(true));
+        when(blobOutbox.enqueue(eq("speech"), anyList())).thenReturn(Mono.empty());
+
+        StepVerifier.create(speechService.acquire(apple)).expectNext(link).verifyComplete();
+
+        ArgumentCaptor<Speech> lost = ArgumentCaptor.forClass(Speech.class);
+        verify(speechRepository).insertIfNotExists(lost.capture());
+        verify(blobOutbox).enqueue("speech", Collections.singletonList(lost.getValue().getLink().getKey()));
+    }
+
+    @Test
+    void blobKeptWhileReferenced() {
+        when(speechRepository.findById("hash")).thenReturn(Mono.just(new Speech("hash", link, 2)));
+        when(speechRepository.updateRefs("hash", 2, 1)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(speechService.release(link)).verifyComplete();
+
+        verify(speechRepository).updateRefs("hash", 2, 1);
+        verifyNoMoreInteractions(blobOutbox);
+    }
+
+    @Test
+    void blobQueuedForCollectionWithLastReference() {
+        when(speechRepository.findById("hash")).thenReturn(Mono.just(new Speech("hash", link, 1)));
+        when(speechRepository.deleteIfRefs("hash", 1)).thenReturn(Mono.just(true));
+        when(blobOutbox.enqueue("speech", Collections.singletonList("hash"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(speechService.release(link)).verifyComplete();
+
+        verify(blobOutbox).enqueue("speech", Collections.singletonList("hash"));
+        verify(mediaStore, never()).delete(anyString(), anyString());
+    }
+
+    @Test
+    void releasedKeyOfRecreatedSpeechCollectedWithoutTouchingNewRow() {
+        Link released = new Link("hash-old", "url");
+        when(speechRepository.findById("hash")).thenReturn(Mono.just(new Speech("hash", new Link("hash-new", "url"), 1)));
+        when(blobOutbox.enqueue("speech", Collections.singletonList("hash-old"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(speechService.release(released)).verifyComplete();
+
+        verify(blobOutbox).enqueue("speech", Collections.singletonList("hash-old"));
+        verify(speechRepository, never()).updateRefs(anyString(), anyInt(), anyInt());
+        verify(speechRepository, never()).deleteIfRefs(anyString(), anyInt());
+    }
+}
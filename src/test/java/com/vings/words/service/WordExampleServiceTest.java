@@ -1,5 +1,168 @@
 package com.vings.words.service;
 
+import com.vings.words.cache.BoundedCache;
+import com.vings.words.model.Example;
+import com.vings.words.model.ExampleByHeadword;
+import com.vings.words.parser.ExampleParser;
+import com.vings.words.repository.ExampleByHeadwordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 class WordExampleServiceTest {
 
-}
\ No newline at end of file
+    private static final long STALENESS = 60_000;
+
+    private final ExampleByHeadwordRepository exampleStore = mock(ExampleByHeadwordRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NettyContext pearson;
+
+    @BeforeEach
+    void setUp() {
+        when(exampleStore.findById(any(String.class))).thenReturn(Mono.empty());
+        when(exampleStore.save(any(ExampleByHeadword.class))).then(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pearson.dispose();
+    }
+
+    @Test
+    void examplesParsedFromDictionaryResponse() throws IOException {
+        WordExampleService exampleService = startPearson(fixture("reactive.json"), Duration.ZERO);
+
+        StepVerifier.create(exampleService.request("reactive"))
+                .assertNext(examples -> {
+                    assertThat(examples).extracting("word").containsOnly("reactive", "reactivity");
+                    assertThat(examples).filteredOn("word", "reactive").first()
+                            .extracting("sentences").containsExactly(new HashSet<>(Arrays.asList(
+                            "Our approach to crime is reactive rather than preventive.",
+                            "Sodium is a highly reactive metal.",
+                            "Reactive gases were removed.")));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void headwordEncodedIntoQuery() throws IOException {
+        String[] query = new String[1];
+        String body = fixture("empty.json");
+        pearson = HttpServer.create(0).newHandler((request, response) -> {
+            query[0] = request.uri();
+            return response.header("Content-Type", "application/json").sendString(Mono.just(body));
+        }).block();
+
+        StepVerifier.create(exampleService(1000).request("ice cream")).expectNext(new HashSet<>()).verifyComplete();
+
+        assertThat(query[0]).endsWith("headword=ice%20cream");
+    }
+
+    @Test
+    void sameHeadwordRequestedOnce() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        String body = fixture("reactive.json");
+        pearson = HttpServer.create(0).newHandler((request, response) -> {
+            requests.incrementAndGet();
+            return response.header("Content-Type", "application/json").sendString(Mono.delay(Duration.ofMillis(100)).then(Mono.just(body)));
+        }).block();
+        WordExampleService exampleService = exampleService(1000);
+
+        StepVerifier.create(Mono.zip(exampleService.request("reactive"), exampleService.request("Reactive ")))
+                .assertNext(examples -> assertThat(examples.getT1()).isEqualTo(examples.getT2()).hasSize(2))
+                .verifyComplete();
+        StepVerifier.create(exampleService.request("REACTIVE")).expectNextCount(1).verifyComplete();
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("examples.requests").tag("outcome", "success").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("pearson.requests").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void freshStoredExamplesSkipDictionary() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        String body = fixture("reactive.json");
+        pearson = HttpServer.create(0).newHandler((request, response) -> {
+            requests.incrementAndGet();
+            return response.header("Content-Type", "application/json").sendString(Mono.just(body));
+        }).block();
+        Set<Example> stored = singleton(new Example("reactive", singleton("stored"), singleton("stored")));
+        when(exampleStore.findById("reactive"))
+                .thenReturn(Mono.just(new ExampleByHeadword("reactive", stored, new Date(System.currentTimeMillis() - STALENESS / 2))));
+
+        StepVerifier.create(exampleService(1000).request("reactive")).expectNext(stored).verifyComplete();
+
+        assertThat(requests.get()).isZero();
+        verify(exampleStore, never()).save(any(ExampleByHeadword.class));
+    }
+
+    @Test
+    void staleStoredExamplesRefetched() throws IOException {
+        WordExampleService exampleService = startPearson(fixture("reactive.json"), Duration.ZERO);
+        Set<Example> stored = singleton(new Example("reactive", singleton("stored"), singleton("stored")));
+        when(exampleStore.findById("reactive"))
+                .thenReturn(Mono.just(new ExampleByHeadword("reactive", stored, new Date(System.currentTimeMillis() - STALENESS * 2))));
+
+        StepVerifier.create(exampleService.request("reactive"))
+                .assertNext(examples -> assertThat(examples).hasSize(2))
+                .verifyComplete();
+
+        verify(exampleStore).save(argThat(saved -> saved.getHeadword().equals("reactive") && saved.getExamples().size() == 2));
+    }
+
+    @Test
+    void emptyExamplesWhenDictionaryIsSlow() throws IOException {
+        WordExampleService exampleService = startPearson(fixture("reactive.json"), Duration.ofSeconds(3));
+
+        StepVerifier.create(exampleService.request("reactive"))
+                .expectNext(new HashSet<>())
+                .verifyComplete();
+    }
+
+    private WordExampleService startPearson(String body, Duration delay) {
+        pearson = HttpServer.create(0).newHandler((request, response) ->
+                response.header("Content-Type", "application/json").sendString(Mono.delay(delay).then(Mono.just(body)))).block();
+        return exampleService(1000);
+    }
+
+    private WordExampleService exampleService(long timeout) {
+        WordExampleService exampleService = new WordExampleService(WebClient.create(), new ExampleParser(),
+                new BoundedCache<>("examples", 10, Duration.ofMinutes(1), new SimpleMeterRegistry()), exampleStore, meterRegistry);
+        ReflectionTestUtils.setField(exampleService, "exampleUrl", "http://localhost:" + pearson.address().getPort() + "/entries?headword=");
+        ReflectionTestUtils.setField(exampleService, "requestTimeout", timeout);
+        ReflectionTestUtils.setField(exampleService, "staleness", STALENESS);
+        return exampleService;
+    }
+
+    private String fixture(String name) throws IOException {
+        return StreamUtils.copyToString(new ClassPathResource("pearson/" + name).getInputStream(), StandardCharsets.UTF_8);
+    }
+}
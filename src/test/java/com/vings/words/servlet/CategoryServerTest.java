@@ -4,8 +4,10 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.datastax.driver.core.utils.UUIDs;
 import com.vings.words.WordsApplication;
+import com.vings.words.model.BlobDeletion;
 import com.vings.words.model.Category;
 import com.vings.words.model.Link;
+import com.vings.words.repository.BlobOutboxRepository;
 import com.vings.words.repository.CategoryRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,7 @@ import java.util.Arrays;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -53,6 +56,9 @@ public class CategoryServerTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private BlobOutboxRepository blobOutboxRepository;
+
     @MockBean
     private AmazonS3 amazonS3;
 
@@ -77,6 +83,7 @@ public class CategoryServerTest {
     @AfterEach
     void tearDown() {
         categoryRepository.deleteAll().block();
+        blobOutboxRepository.deleteAll().block();
     }
 
     @Test
@@ -263,7 +270,8 @@ public class CategoryServerTest {
         client.delete().uri("/category/{0}/{1}", user, firstCategory.getTitle()).exchange()
                 .expectStatus().isOk();
 
-        verify(amazonS3).deleteObject(anyString(), anyString());
+        verify(amazonS3, never()).deleteObject(anyString(), anyString());
+        assertThat(blobOutboxRepository.findAll().map(BlobDeletion::getKey).collectList().block()).containsExactly("key");
 
         StepVerifier.create(categoryRepository.findByUser(user))
                 .expectNext(secondCategory).expectComplete().verify();
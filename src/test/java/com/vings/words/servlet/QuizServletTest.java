@@ -4,10 +4,17 @@ import com.datastax.driver.core.utils.UUIDs;
 import com.vings.words.WordsApplication;
 import com.vings.words.model.Word;
 import com.vings.words.model.Word.WordBuilder;
+import com.vings.words.model.quiz.Answer;
 import com.vings.words.model.quiz.Crossword;
+import com.vings.words.model.quiz.Flashcard;
 import com.vings.words.model.quiz.Guess;
 import com.vings.words.model.quiz.Sprint;
+import com.vings.words.repository.DueWordRepository;
+import com.vings.words.repository.ReviewStateRepository;
+import com.vings.words.repository.WordByLearnedRepository;
 import com.vings.words.repository.WordsRepository;
+import com.vings.words.service.LearnedIndex;
+import com.vings.words.service.ReviewScheduler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +25,16 @@ import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.*;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = WordsApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -34,6 +45,21 @@ class QuizServletTest {
     @Autowired
     private WordsRepository wordsRepository;
 
+    @Autowired
+    private WordByLearnedRepository wordByLearnedRepository;
+
+    @Autowired
+    private LearnedIndex learnedIndex;
+
+    @Autowired
+    private ReviewScheduler reviewScheduler;
+
+    @Autowired
+    private ReviewStateRepository reviewStateRepository;
+
+    @Autowired
+    private DueWordRepository dueWordRepository;
+
     private WebTestClient client;
 
     private String user = "user1";
@@ -57,11 +83,18 @@ class QuizServletTest {
     @AfterEach
     void tearDown() {
         wordsRepository.deleteAll().block();
+        wordByLearnedRepository.deleteAll().block();
+        reviewStateRepository.deleteAll().block();
+        dueWordRepository.deleteAll().block();
+    }
+
+    private void save(List<Word> words) {
+        wordsRepository.saveAll(words).concatMap(learnedIndex::index).blockLast();
     }
 
     @Test
     void getSprintQuestions() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Sprint> sprints = client.get().uri("/quiz/sprint/{user}/{category}/{page}/{offset}", user, category1, 0, 10).exchange()
                 .expectStatus().isOk()
@@ -74,7 +107,7 @@ class QuizServletTest {
 
     @Test
     void getSprintQuestionsWithOffset() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Sprint> sprints = client.get().uri("/quiz/sprint/{user}/{category}/{page}/{offset}", user, category1, 1, 2).exchange()
                 .expectStatus().isOk()
@@ -87,7 +120,7 @@ class QuizServletTest {
 
     @Test
     void badRequestWhenGetSprintQuestionsWithInvalidCategoryUUID() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notValidCategoryUUID = "notValidCategoryUUID";
         client.get().uri("/quiz/sprint/{user}/{category}/{page}/{offset}", user, notValidCategoryUUID, 1, 2).exchange()
@@ -96,7 +129,7 @@ class QuizServletTest {
 
     @Test
     void getSprintQuestionsWhenUserDoesNotExist() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notExistingUser = "notExistingUser";
         List<Sprint> sprints = client.get().uri("/quiz/sprint/{user}/{category}/{page}/{offset}", notExistingUser, category1, 1, 2).exchange()
@@ -108,7 +141,7 @@ class QuizServletTest {
 
     @Test
     void getGuessQuestions() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Guess> guessList = client.get().uri("/quiz/guess/{user}/{category}/{page}/{offset}", user, category1, 0, 10).exchange()
                 .expectStatus().isOk()
@@ -122,7 +155,7 @@ class QuizServletTest {
 
     @Test
     void getGuessQuestionsWithOffset() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Guess> guessList = client.get().uri("/quiz/guess/{user}/{category}/{page}/{offset}", user, category1, 1, 2).exchange()
                 .expectStatus().isOk()
@@ -136,7 +169,7 @@ class QuizServletTest {
 
     @Test
     void badRequestWhenGetGuessQuestionsWithInvalidCategoryUUID() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notValidCategoryUUID = "notValidCategoryUUID";
         client.get().uri("/quiz/guess/{user}/{category}/{page}/{offset}", user, notValidCategoryUUID, 1, 2).exchange()
@@ -145,7 +178,7 @@ class QuizServletTest {
 
     @Test
     void getGuessQuestionsWhenUserDoesNotExist() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notExistingUser = "notExistingUser";
         List<Guess> guessList = client.get().uri("/quiz/guess/{user}/{category}/{page}/{offset}", notExistingUser, category1, 1, 2).exchange()
@@ -157,7 +190,7 @@ class QuizServletTest {
 
     @Test
     void getCrosswordQuestions() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Crossword> guessList = client.get().uri("/quiz/crossword/{user}/{category}/{page}/{offset}", user, category1, 0, 10).exchange()
                 .expectStatus().isOk()
@@ -170,7 +203,7 @@ class QuizServletTest {
 
     @Test
     void getCrosswordQuestionsWithOffset() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         List<Crossword> guessList = client.get().uri("/quiz/crossword/{user}/{category}/{page}/{offset}", user, category1, 1, 2).exchange()
                 .expectStatus().isOk()
@@ -183,7 +216,7 @@ class QuizServletTest {
 
     @Test
     void badRequestWhenGetCrosswordQuestionsWithInvalidCategoryUUID() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notValidCategoryUUID = "notValidCategoryUUID";
         client.get().uri("/quiz/crossword/{user}/{category}/{page}/{offset}", user, notValidCategoryUUID, 1, 2).exchange()
@@ -192,7 +225,7 @@ class QuizServletTest {
 
     @Test
     void getCrosswordQuestionsWhenUserDoesNotExist() {
-        wordsRepository.saveAll(words).blockLast();
+        save(words);
 
         String notExistingUser = "notExistingUser";
         List<Crossword> guessList = client.get().uri("/quiz/crossword/{user}/{category}/{page}/{offset}", notExistingUser, category1, 1, 2).exchange()
@@ -202,4 +235,59 @@ class QuizServletTest {
         assertThat(guessList).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void recordAnswers() {
+        save(words);
+
+        client.post().uri("/quiz/{user}/{category}/answers", user, category1)
+                .contentType(APPLICATION_JSON)
+                .syncBody(asList(new Answer("Reactive", true), new Answer("Reactor", false), new Answer("Tangos", true),
+                        new Answer("Tangos", true), new Answer("Tangos", true), new Answer("Tangos", true), new Answer("Tangos", true)))
+                .exchange()
+                .expectStatus().isAccepted();
+
+        StepVerifier.create(wordsRepository.findByUserAndCategoryAndWord(user, category1, "Tangos")
+                .filter(Word::learned)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(200)).take(50)))
+                .assertNext(word -> assertThat(word.getAnswers()).isEqualTo(100))
+                .verifyComplete();
+        assertThat(wordsRepository.findByUserAndCategoryAndWord(user, category1, "Reactive").block().getAnswers()).isEqualTo(17);
+        assertThat(wordsRepository.findByUserAndCategoryAndWord(user, category1, "Reactor").block().getAnswers()).isEqualTo(7);
+
+        List<Crossword> crossword = client.get().uri("/quiz/crossword/{user}/{category}/{page}/{offset}", user, category1, 0, 10).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Crossword.class).returnResult().getResponseBody();
+        assertThat(crossword).extracting("word").containsExactly("Reactive", "Reactor");
+    }
+
+    @Test
+    void badRequestWhenAnswersAreEmpty() {
+        client.post().uri("/quiz/{user}/{category}/answers", user, category1)
+                .contentType(APPLICATION_JSON)
+                .syncBody(Collections.emptyList())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void reviewedWordsAreNoLongerDue() {
+        save(words);
+        Flux.fromIterable(words).concatMap(reviewScheduler::enroll).blockLast();
+
+        List<Flashcard> due = client.get().uri("/quiz/due/{user}/{category}/{count}", user, category1, 3).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Flashcard.class).returnResult().getResponseBody();
+        assertThat(due).hasSize(3);
+
+        client.post().uri("/quiz/{user}/{category}/reviews", user, category1)
+                .contentType(APPLICATION_JSON)
+                .syncBody(asList(new Answer("Reactive", true), new Answer("Reactor", true), new Answer("Core", true)))
+                .exchange()
+                .expectStatus().isOk();
+
+        List<Flashcard> left = client.get().uri("/quiz/due/{user}/{category}/{count}", user, category1, 10).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Flashcard.class).returnResult().getResponseBody();
+        assertThat(left).extracting("word").containsExactly("Tangos");
+    }
+}
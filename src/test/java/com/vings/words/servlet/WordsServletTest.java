@@ -1,15 +1,19 @@
 package com.vings.words.servlet;
 
-import com.amazonaws.services.polly.AmazonPolly;
-import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
-import com.amazonaws.services.polly.model.SynthesizeSpeechResult;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.datastax.driver.core.utils.UUIDs;
 import com.vings.words.WordsApplication;
+import com.vings.words.model.BlobDeletion;
+import com.vings.words.model.EnrichmentStatus;
 import com.vings.words.model.Link;
 import com.vings.words.model.Word;
+import com.vings.words.model.WordPage;
+import com.vings.words.repository.BlobOutboxRepository;
+import com.vings.words.repository.WordByLearnedRepository;
 import com.vings.words.repository.WordsRepository;
+import com.vings.words.service.LearnedIndex;
+import com.vings.words.stub.EnrichmentStubConfiguration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -29,6 +34,7 @@ import org.springframework.web.reactive.function.BodyInserters;
 import reactor.test.StepVerifier;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.UUID;
 
@@ -38,12 +44,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON;
 import static org.springframework.http.MediaType.MULTIPART_FORM_DATA;
 import static org.springframework.http.MediaType.TEXT_PLAIN;
 import static org.springframework.web.reactive.function.client.ExchangeFilterFunctions.basicAuthentication;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = WordsApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(EnrichmentStubConfiguration.class)
 class WordsServletTest {
 
     @LocalServerPort
@@ -60,14 +68,20 @@ class WordsServletTest {
     @Autowired
     private WordsRepository wordsRepository;
 
+    @Autowired
+    private WordByLearnedRepository wordByLearnedRepository;
+
+    @Autowired
+    private LearnedIndex learnedIndex;
+
+    @Autowired
+    private BlobOutboxRepository blobOutboxRepository;
+
     private WebTestClient client;
 
     @MockBean
     private AmazonS3 amazonS3;
 
-    @MockBean
-    private AmazonPolly amazonPolly;
-
     @BeforeEach
     void setUp() {
         client = WebTestClient
@@ -75,13 +89,13 @@ class WordsServletTest {
                 .baseUrl("http://localhost:" + port)
                 .filter(basicAuthentication("user1", "password"))
                 .build();
-
-        when(amazonPolly.synthesizeSpeech(any(SynthesizeSpeechRequest.class))).thenReturn(mock(SynthesizeSpeechResult.class));
     }
 
     @AfterEach
     void tearDown() {
         wordsRepository.deleteAll().block();
+        wordByLearnedRepository.deleteAll().block();
+        blobOutboxRepository.deleteAll().block();
     }
 
     @Test
@@ -119,9 +133,52 @@ class WordsServletTest {
                 .expectBodyList(Word.class).hasSize(2).contains(first, second);
     }
 
+    @Test
+    void getWordsByCategoryPageByPage() {
+        wordsRepository.saveAll(asList(first, second, third)).blockLast();
+
+        WordPage page = client.get().uri("/dictionary/{0}/{1}?limit=1", user, category1).exchange()
+                .expectStatus().isOk()
+                .expectBody(WordPage.class).returnResult().getResponseBody();
+        assertThat(page.getWords()).hasSize(1);
+        assertThat(page.getCursor()).isNotNull();
+
+        WordPage next = client.get().uri("/dictionary/{0}/{1}?limit=1&cursor={2}", user, category1, page.getCursor()).exchange()
+                .expectStatus().isOk()
+                .expectBody(WordPage.class).returnResult().getResponseBody();
+        assertThat(next.getWords()).hasSize(1).doesNotContainAnyElementsOf(page.getWords());
+        assertThat(next.getCursor()).isNull();
+        assertThat(asList(page.getWords().get(0), next.getWords().get(0))).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void badRequestWhenPageLimitIsNotPositive() {
+        client.get().uri("/dictionary/{0}/{1}?limit=0", user, category1).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamWordsByCategory() {
+        wordsRepository.saveAll(asList(first, second, third)).blockLast();
+
+        client.get().uri("/dictionary/{0}/{1}", user, category1).accept(APPLICATION_STREAM_JSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_STREAM_JSON)
+                .returnResult(Word.class).getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void notFoundWhenStreamingEmptyCategory() {
+        client.get().uri("/dictionary/{0}/{1}", user, UUIDs.random().toString()).accept(APPLICATION_STREAM_JSON).exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void getLearnedWords() {
-        wordsRepository.saveAll(asList(first, second)).blockLast();
+        wordsRepository.saveAll(asList(first, second)).concatMap(learnedIndex::index).blockLast();
 
         client.get().uri("/dictionary/{0}/{1}/{2}", user, category1, true).exchange()
                 .expectStatus().isOk()
@@ -140,7 +197,7 @@ class WordsServletTest {
 
     @Test
     void getNotLearnedWords() {
-        wordsRepository.saveAll(asList(first, second)).blockLast();
+        wordsRepository.saveAll(asList(first, second)).concatMap(learnedIndex::index).blockLast();
 
         client.get().uri("/dictionary/{0}/{1}/{2}", user, category1, false).exchange()
                 .expectStatus().isOk()
@@ -164,12 +221,35 @@ class WordsServletTest {
                 .expectBody(Word.class).returnResult().getResponseBody();
 
         assertWord(response, first);
+        assertThat(response.getEnrichment()).isEqualTo(EnrichmentStatus.PENDING);
+
+        StepVerifier.create(wordsRepository.findByUserAndCategoryAndWord(user, first.getCategory(), first.getWord())
+                .filter(word -> word.getEnrichment() == EnrichmentStatus.DONE)
+                .repeatWhenEmpty(20, repeats -> repeats.delayElements(Duration.ofMillis(500))))
+                .assertNext(word -> {
+                    assertWord(word, first);
+                    assertThat(word.getSpeech()).isNotNull();
+                    assertThat(word.getSpeech().getUrl()).isNotEmpty();
+                    assertThat(word.getExamples()).isNotEmpty();
+                })
+                .expectComplete().verify();
+
+        verify(amazonS3, times(2)).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+    }
 
-        verify(amazonS3).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+    @Test
+    void saveExistingWord() {
+        wordsRepository.save(first).block();
+
+        client.post().uri("/dictionary/{0}", user)
+                .contentType(MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(generateMultipartData(first))).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Category already exists");
 
         StepVerifier.create(wordsRepository.findByUserAndCategoryAndWord(user, first.getCategory(), first.getWord()))
-                .assertNext(word -> assertWord(word, first))
-                .expectComplete().verify();
+                .expectNext(first).verifyComplete();
+        assertThat(blobOutboxRepository.findAll().count().block()).isEqualTo(1);
     }
 
     private void assertWord(Word actual, Word expected) {
@@ -180,8 +260,6 @@ class WordsServletTest {
         assertThat(actual.getCategory()).isEqualTo(expected.getCategory());
         assertThat(actual.getImage()).isNotNull();
         assertThat(actual.getImage().getUrl()).isNotEmpty();
-        assertThat(actual.getSpeech()).isNotNull();
-        assertThat(actual.getSpeech().getUrl()).isNotEmpty();
         assertThat(actual.getWord()).isNotEmpty();
     }
 
@@ -344,7 +422,8 @@ class WordsServletTest {
 
         client.delete().uri("/dictionary/{0}/{1}", user, category1).exchange().expectStatus().isOk();
 
-        verify(amazonS3, times(2)).deleteObject(anyString(), anyString());
+        verify(amazonS3, never()).deleteObject(anyString(), anyString());
+        assertThat(blobOutboxRepository.findAll().map(BlobDeletion::getKey).collectList().block()).containsExactly("key", "key");
 
         StepVerifier.create(wordsRepository.findByUserAndCategory(user, category1)).expectNextCount(0).verifyComplete();
     }
@@ -368,7 +447,8 @@ class WordsServletTest {
 
         client.delete().uri("/dictionary/{0}/{1}/{2}", first.getUser(), first.getCategory(), first.getWord()).exchange().expectStatus().isOk();
 
-        verify(amazonS3).deleteObject(anyString(), anyString());
+        verify(amazonS3, never()).deleteObject(anyString(), anyString());
+        assertThat(blobOutboxRepository.findAll().map(BlobDeletion::getKey).collectList().block()).containsExactly("key");
 
         StepVerifier.create(wordsRepository.findByUserAndCategoryAndWord(first.getUser(), first.getCategory(), first.getWord())).expectNextCount(0).verifyComplete();
     }
@@ -0,0 +1,88 @@
+package com.vings.words.storage;
+
+import com.vings.words.model.DeleteReport;
+import com.vings.words.model.StoredObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalMediaStoreTest {
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private final Path root;
+
+    private final LocalMediaStore mediaStore;
+
+    LocalMediaStoreTest() throws IOException {
+        root = Files.createTempDirectory("media");
+        mediaStore = new LocalMediaStore(root, Schedulers.single());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void multiChunkContentStoredAsSingleFile() throws IOException {
+        Flux<String> chunks = Flux.just("Reac", "tive", " image");
+
+        StepVerifier.create(mediaStore.put("bucket", "key", chunks.map(chunk -> bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8)))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        try (Stream<Path> files = Files.list(root.resolve("bucket"))) {
+            assertThat(files).containsExactly(root.resolve("bucket").resolve("key"));
+        }
+        assertThat(new String(Files.readAllBytes(root.resolve("bucket").resolve("key")), StandardCharsets.UTF_8)).isEqualTo("Reactive image");
+        StepVerifier.create(mediaStore.head("bucket", "key")).expectNext(14L).verifyComplete();
+    }
+
+    @Test
+    void deletedObjectNotFound() {
+        StepVerifier.create(mediaStore.put("bucket", "key", Flux.just(bufferFactory.wrap(new byte[]{1}))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(mediaStore.delete("bucket", "key").then(mediaStore.head("bucket", "key")))
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteAllRemovesEveryKey() {
+        StepVerifier.create(Flux.just("first", "second").flatMap(key -> mediaStore.put("bucket", key, Flux.just(bufferFactory.wrap(new byte[]{1})))))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier.create(mediaStore.deleteAll("bucket", Flux.just("first", "second", "missing")))
+                .expectNext(new DeleteReport(3, Collections.emptyList()))
+                .verifyComplete();
+        StepVerifier.create(mediaStore.head("bucket", "first")).verifyComplete();
+    }
+
+    @Test
+    void listReturnsKeysOfBucket() {
+        StepVerifier.create(mediaStore.put("bucket", "key", Flux.just(bufferFactory.wrap(new byte[]{1}))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(mediaStore.list("bucket").map(StoredObject::getKey)).expectNext("key").verifyComplete();
+        StepVerifier.create(mediaStore.list("missing")).verifyComplete();
+    }
+}
@@ -0,0 +1,126 @@
+package com.vings.words.storage;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import com.vings.words.model.DeleteReport;
+import com.vings.words.model.Link;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class S3MediaStoreTest {
+
+    private static final String BUCKET = "words-bucket";
+    private static final String KEY = "user1-Reactive";
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private final AmazonS3 s3Client = mock(AmazonS3.class);
+
+    @Test
+    void multiChunkContentStoredAsSingleObject() {
+        S3MediaStore mediaStore = new S3MediaStore(s3Client, Schedulers.immediate(), "http://s3/", 1024, 1);
+
+        StepVerifier.create(mediaStore.put(BUCKET, KEY, chunks("Reac", "tive", " image")))
+                .expectNext(new Link(KEY, "http://s3/" + BUCKET + "/" + KEY))
+                .verifyComplete();
+
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(s3Client).putObject(eq(BUCKET), eq(KEY), any(InputStream.class), metadata.capture());
+        verifyNoMoreInteractions(s3Client);
+        assertThat(metadata.getValue().getContentLength()).isEqualTo("Reactive image".length());
+    }
+
+    @Test
+    void contentLargerThanPartUploadedAsMultipartObject() {
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult());
+        when(s3Client.uploadPart(any(UploadPartRequest.class))).thenReturn(new UploadPartResult());
+        S3MediaStore mediaStore = new S3MediaStore(s3Client, Schedulers.immediate(), "http://s3/", 8, 1);
+
+        StepVerifier.create(mediaStore.put(BUCKET, KEY, chunks("Reac", "tive", " ima", "ge", "s")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+        verify(s3Client, times(2)).uploadPart(parts.capture());
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verifyNoMoreInteractions(s3Client);
+        assertThat(parts.getAllValues()).extracting("partSize").containsExactly(8L, 7L);
+        assertThat(parts.getAllValues()).extracting("partNumber").containsExactly(1, 2);
+    }
+
+    @Test
+    void failedMultipartUploadAborted() {
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult());
+        when(s3Client.uploadPart(any(UploadPartRequest.class))).thenReturn(new UploadPartResult());
+        S3MediaStore mediaStore = new S3MediaStore(s3Client, Schedulers.immediate(), "http://s3/", 4, 1);
+
+        Flux<DataBuffer> content = chunks("Reac", "tive").concatWith(Flux.error(new IllegalStateException()));
+        StepVerifier.create(mediaStore.put(BUCKET, KEY, content))
+                .verifyError(IllegalStateException.class);
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void keysDeletedInBatchesOfThousand() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(new DeleteObjectsResult(Collections.emptyList()));
+        S3MediaStore mediaStore = new S3MediaStore(s3Client, Schedulers.immediate(), "http://s3/", 1024, 2);
+
+        StepVerifier.create(mediaStore.deleteAll(BUCKET, keys(2500)))
+                .expectNext(new DeleteReport(2500, Collections.emptyList()))
+                .verifyComplete();
+
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client, times(3)).deleteObjects(requests.capture());
+        assertThat(requests.getAllValues()).extracting(request -> request.getKeys().size()).containsExactlyInAnyOrder(1000, 1000, 500);
+        assertThat(requests.getAllValues()).allMatch(DeleteObjectsRequest::getQuiet);
+    }
+
+    @Test
+    void failedKeysReported() {
+        MultiObjectDeleteException.DeleteError error = new MultiObjectDeleteException.DeleteError();
+        error.setKey("key7");
+        error.setCode("AccessDenied");
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenThrow(new MultiObjectDeleteException(Collections.singletonList(error), Collections.emptyList()))
+                .thenThrow(new AmazonS3Exception("Service unavailable"));
+        S3MediaStore mediaStore = new S3MediaStore(s3Client, Schedulers.immediate(), "http://s3/", 1024, 1);
+
+        StepVerifier.create(mediaStore.deleteAll(BUCKET, keys(1002)))
+                .assertNext(report -> {
+                    assertThat(report.getDeleted()).isEqualTo(999);
+                    assertThat(report.getFailed()).containsExactly("key7", "key1000", "key1001");
+                })
+                .verifyComplete();
+    }
+
+    private Flux<String> keys(int count) {
+        return Flux.range(0, count).map(index -> "key" + index);
+    }
+
+    private InitiateMultipartUploadResult initiateResult() {
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setUploadId("upload");
+        return result;
+    }
+
+    private Flux<DataBuffer> chunks(String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.vings.words.stub;
+
+import com.amazonaws.services.polly.AmazonPolly;
+import com.vings.words.service.WordExampleService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Replaces Polly and Pearson dictionary with in-process stand-ins.
+ */
+@TestConfiguration
+public class EnrichmentStubConfiguration {
+
+    @Bean
+    @Primary
+    public AmazonPolly stubPolly() {
+        return new StubPolly();
+    }
+
+    @Bean
+    @Primary
+    public WordExampleService stubWordExampleService() {
+        return new StubWordExampleService();
+    }
+}
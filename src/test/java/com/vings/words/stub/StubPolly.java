@@ -0,0 +1,27 @@
+package com.vings.words.stub;
+
+import com.amazonaws.services.polly.AbstractAmazonPolly;
+import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
+import com.amazonaws.services.polly.model.SynthesizeSpeechResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StubPolly extends AbstractAmazonPolly {
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Override
+    public SynthesizeSpeechResult synthesizeSpeech(SynthesizeSpeechRequest request) {
+        requests.incrementAndGet();
+        byte[] audio = (request.getVoiceId() + ":" + request.getText()).getBytes(StandardCharsets.UTF_8);
+        return new SynthesizeSpeechResult()
+                .withContentType("audio/mpeg")
+                .withAudioStream(new ByteArrayInputStream(audio));
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+}
@@ -0,0 +1,27 @@
+package com.vings.words.stub;
+
+import com.vings.words.cache.BoundedCache;
+import com.vings.words.model.Example;
+import com.vings.words.parser.ExampleParser;
+import com.vings.words.service.WordExampleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+
+public class StubWordExampleService extends WordExampleService {
+
+    public StubWordExampleService() {
+        super(WebClient.create(), new ExampleParser(), new BoundedCache<>("examples", 1, Duration.ZERO, new SimpleMeterRegistry()), null,
+                new SimpleMeterRegistry());
+    }
+
+    @Override
+    public Mono<Set<Example>> request(String word) {
+        return Mono.just(singleton(new Example(word, singleton("definition of " + word), singleton("sentence with " + word))));
+    }
+}